@@ -0,0 +1,58 @@
+package com.securebanking.sbs.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password checks per second for each BCrypt cost, i.e. the ceiling on logins per second
+ * before anything else in the login path. Each step up in cost roughly halves it. Run on
+ * the production instance size before changing sbs.security.bcrypt.strength:
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Dbenchmark=PasswordVerificationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class PasswordVerificationBenchmark {
+
+    @Param({"10", "11", "12", "13"})
+    private int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        storedHash = encoder.encode("correct horse battery staple");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean verifySingleThread() {
+        return encoder.matches("correct horse battery staple", storedHash);
+    }
+
+    // All cores hashing at once: the throughput of the hashing pool at full load
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean verifyAllCores() {
+        return encoder.matches("correct horse battery staple", storedHash);
+    }
+}
@@ -0,0 +1,79 @@
+package com.securebanking.sbs.core.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Broadcasts cache evictions to the other instances over a Redis pub/sub channel and applies
+ * theirs to the local tier. A message is "node, cache, key" separated by newlines; an empty
+ * key clears the whole cache. Messages from this node are ignored since it already evicted.
+ * Pub/sub is fire-and-forget, so a node that misses a message serves its local copy until
+ * the local TTL expires; the TTLs are sized with that in mind.
+ */
+public class RedisCacheInvalidation implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisCacheInvalidation.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final Counter published;
+    private final Counter received;
+    private final Counter publishFailures;
+
+    public RedisCacheInvalidation(RedisTemplate<String, String> redisTemplate, String channel,
+                                  MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.published = meterRegistry.counter("sbs.cache.invalidations", "direction", "published");
+        this.received = meterRegistry.counter("sbs.cache.invalidations", "direction", "received");
+        this.publishFailures = meterRegistry.counter("sbs.cache.invalidation_failures");
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    void register(TwoLevelCache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    /**
+     * Tells the other nodes to drop the key, or the whole cache when key is null.
+     */
+    void publish(String cacheName, String key) {
+        String message = nodeId + "\n" + cacheName + "\n" + (key == null ? "" : key);
+        try {
+            redisTemplate.convertAndSend(channel, message);
+            published.increment();
+        } catch (Exception e) {
+            publishFailures.increment();
+            logger.warn("Could not publish invalidation for {} in cache {}: {}", key, cacheName, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        received.increment();
+        cache.invalidateLocal(parts[2].isEmpty() ? null : parts[2]);
+    }
+}
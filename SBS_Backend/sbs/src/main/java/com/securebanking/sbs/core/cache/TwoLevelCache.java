@@ -0,0 +1,284 @@
+package com.securebanking.sbs.core.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * A Caffeine cache in front of a shared Redis copy. Reads try the local tier, then Redis,
+ * then the loader, filling the tiers on the way back. Evictions remove the key from both
+ * tiers and are broadcast so the other nodes drop their local copy too.
+ *
+ * Redis values are plain JSON of the declared value type, without class metadata. When no
+ * value type is given the cache stays local-only and uses Redis just for invalidation; that
+ * is how entity caches are kept coherent without putting entities in Redis.
+ *
+ * Every eviction bumps a per-key version in Redis, and a loaded value is only written back
+ * if the version is still the one read before loading. Otherwise an evict that lands while
+ * a load is reading the database would be undone by the stale value the load then writes.
+ *
+ * Keys are normalized to strings so a key received over pub/sub matches the local entry.
+ * A Redis failure is counted and treated as a miss; the database stays the source of truth.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCache.class);
+
+    private static final String VERSION_SUFFIX = "#version";
+
+    private static final RedisScript<Long> EVICT_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[1]) "
+                    + "redis.call('INCR', KEYS[2]) "
+                    + "redis.call('PEXPIRE', KEYS[2], ARGV[1]) "
+                    + "return 1",
+            Long.class);
+
+    // 1 written, 0 skipped because the key was evicted after the loader read its version
+    private static final RedisScript<Long> WRITE_IF_UNCHANGED_SCRIPT = new DefaultRedisScript<>(
+            "local version = redis.call('GET', KEYS[2]) or '' "
+                    + "if version ~= ARGV[1] then return 0 end "
+                    + "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) "
+                    + "return 1",
+            Long.class);
+
+    private final String name;
+    private final Cache<Object, Object> localCache;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final JavaType valueType;
+    private final Duration remoteTtl;
+    private final String remoteKeyPrefix;
+    private final RedisCacheInvalidation invalidation;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter remoteFailures;
+    private final Counter staleWritesSkipped;
+
+    public TwoLevelCache(String name, Cache<Object, Object> localCache, RedisTemplate<String, String> redisTemplate,
+                         ObjectMapper objectMapper, JavaType valueType, Duration remoteTtl, String keyPrefix,
+                         RedisCacheInvalidation invalidation, MeterRegistry meterRegistry) {
+        super(false);
+        this.name = name;
+        this.localCache = localCache;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.valueType = valueType;
+        this.remoteTtl = remoteTtl;
+        this.remoteKeyPrefix = keyPrefix + name + ":";
+        this.invalidation = invalidation;
+        this.remoteHits = meterRegistry.counter("sbs.cache.remote.gets", "cache", name, "result", "hit");
+        this.remoteMisses = meterRegistry.counter("sbs.cache.remote.gets", "cache", name, "result", "miss");
+        this.remoteFailures = meterRegistry.counter("sbs.cache.remote.failures", "cache", name);
+        this.staleWritesSkipped = meterRegistry.counter("sbs.cache.remote.stale_writes_skipped", "cache", name);
+        invalidation.register(this);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    public Cache<Object, Object> getLocalCache() {
+        return localCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String id = String.valueOf(key);
+        Object value = localCache.getIfPresent(id);
+        if (value == null) {
+            value = readRemote(id);
+            if (value != null) {
+                localCache.put(id, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) fromStoreValue(localCache.get(String.valueOf(key), id -> {
+            RemoteEntry remote = readRemoteWithVersion((String) id);
+            if (remote.value() != null) {
+                return remote.value();
+            }
+            T loaded;
+            try {
+                loaded = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            if (loaded != null && remote.version() != null) {
+                writeRemoteIfUnchanged((String) id, loaded, remote.version());
+            }
+            return loaded;
+        }));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String id = String.valueOf(key);
+        localCache.put(id, toStoreValue(value));
+        writeRemote(id, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String id = String.valueOf(key);
+        localCache.invalidate(id);
+        deleteRemote(id);
+        invalidation.publish(name, id);
+    }
+
+    @Override
+    public void clear() {
+        localCache.invalidateAll();
+        clearRemote();
+        invalidation.publish(name, null);
+    }
+
+    /**
+     * Applies an eviction made on another node; the Redis copy was already removed there.
+     */
+    void invalidateLocal(String id) {
+        if (id == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(id);
+        }
+    }
+
+    private Object readRemote(String id) {
+        if (valueType == null) {
+            return null;
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(remoteKeyPrefix + id);
+            if (json == null) {
+                remoteMisses.increment();
+                return null;
+            }
+            remoteHits.increment();
+            return objectMapper.readValue(json, valueType);
+        } catch (Exception e) {
+            remoteFailures.increment();
+            logger.debug("Redis read failed for {} in cache {}: {}", id, name, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The Redis value and the key's eviction version, read together before a load. The version
+     * is null when Redis could not be read, in which case the loaded value is not written back.
+     */
+    private RemoteEntry readRemoteWithVersion(String id) {
+        if (valueType == null) {
+            return new RemoteEntry(null, null);
+        }
+        try {
+            List<String> values = redisTemplate.opsForValue()
+                    .multiGet(List.of(remoteKeyPrefix + id, remoteKeyPrefix + id + VERSION_SUFFIX));
+            String json = values.get(0);
+            String version = values.get(1) != null ? values.get(1) : "";
+            if (json == null) {
+                remoteMisses.increment();
+                return new RemoteEntry(null, version);
+            }
+            remoteHits.increment();
+            return new RemoteEntry(objectMapper.readValue(json, valueType), version);
+        } catch (Exception e) {
+            remoteFailures.increment();
+            logger.debug("Redis read failed for {} in cache {}: {}", id, name, e.getMessage());
+            return new RemoteEntry(null, null);
+        }
+    }
+
+    private void writeRemoteIfUnchanged(String id, Object value, String version) {
+        try {
+            Long written = redisTemplate.execute(WRITE_IF_UNCHANGED_SCRIPT,
+                    List.of(remoteKeyPrefix + id, remoteKeyPrefix + id + VERSION_SUFFIX),
+                    version, objectMapper.writeValueAsString(value), String.valueOf(remoteTtl.toMillis()));
+            if (written != null && written == 0) {
+                staleWritesSkipped.increment();
+                logger.debug("Skipped writing {} to cache {}: evicted while it was loading", id, name);
+            }
+        } catch (Exception e) {
+            remoteFailures.increment();
+            logger.debug("Redis write failed for {} in cache {}: {}", id, name, e.getMessage());
+        }
+    }
+
+    private void writeRemote(String id, Object value) {
+        if (valueType == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(remoteKeyPrefix + id, objectMapper.writeValueAsString(value), remoteTtl);
+        } catch (Exception e) {
+            remoteFailures.increment();
+            logger.debug("Redis write failed for {} in cache {}: {}", id, name, e.getMessage());
+        }
+    }
+
+    private void deleteRemote(String id) {
+        if (valueType == null) {
+            return;
+        }
+        try {
+            // The version outlives the value it guards, so a load that read it still sees the bump
+            redisTemplate.execute(EVICT_SCRIPT, List.of(remoteKeyPrefix + id, remoteKeyPrefix + id + VERSION_SUFFIX),
+                    String.valueOf(remoteTtl.toMillis() * 2));
+        } catch (Exception e) {
+            remoteFailures.increment();
+            logger.warn("Redis delete failed for {} in cache {}: {}", id, name, e.getMessage());
+        }
+    }
+
+    // SCAN rather than KEYS so clearing a large cache does not block Redis
+    private void clearRemote() {
+        if (valueType == null) {
+            return;
+        }
+        ScanOptions options = ScanOptions.scanOptions().match(remoteKeyPrefix + "*").count(500).build();
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            List<String> batch = new ArrayList<>();
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == 500) {
+                    redisTemplate.delete(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                redisTemplate.delete(batch);
+            }
+        } catch (Exception e) {
+            remoteFailures.increment();
+            logger.warn("Redis clear failed for cache {}: {}", name, e.getMessage());
+        }
+    }
+
+    private record RemoteEntry(Object value, String version) {
+    }
+}
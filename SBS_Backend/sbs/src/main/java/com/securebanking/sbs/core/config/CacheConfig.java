@@ -1,22 +1,164 @@
 package com.securebanking.sbs.core.config;
 
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.securebanking.sbs.core.cache.RedisCacheInvalidation;
+import com.securebanking.sbs.core.cache.TwoLevelCache;
+import com.securebanking.sbs.shared.dto.AccountDto;
+import com.securebanking.sbs.shared.dto.UserDto;
+import com.securebanking.sbs.shared.model.UserRole;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
-import javax.cache.Caching;
-import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * In-process caches for hot reference data. Every cache is declared here with its own size
+ * and TTL bound; there are no caches created on demand, so a typo in a cache name fails
+ * fast instead of growing an unbounded cache. Stats are recorded so the actuator exposes
+ * cache.gets (hit/miss) and cache.evictions per cache.
+ *
+ * With sbs.cache.l2.enabled each cache becomes a TwoLevelCache: evictions are broadcast over
+ * Redis pub/sub so every instance stays coherent, and the DTO caches are also shared through
+ * Redis so a node with a cold local tier does not go to the database.
+ */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    public static final String USERS = "users";
+    public static final String ROLES = "roles";
+    public static final String ACCOUNT_IDS_BY_NUMBER = "accountIdsByNumber";
+    public static final String USER_PROFILES = "userProfiles";
+    public static final String ACCOUNTS_BY_USER = "accountsByUser";
+
+    @Value("${sbs.cache.users.max-size:10000}")
+    private long usersMaxSize;
+
+    @Value("${sbs.cache.users.ttl:PT10M}")
+    private Duration usersTtl;
+
+    @Value("${sbs.cache.roles.max-size:100}")
+    private long rolesMaxSize;
+
+    @Value("${sbs.cache.roles.ttl:PT1H}")
+    private Duration rolesTtl;
+
+    @Value("${sbs.cache.account-ids.max-size:50000}")
+    private long accountIdsMaxSize;
+
+    @Value("${sbs.cache.account-ids.ttl:PT1H}")
+    private Duration accountIdsTtl;
+
+    @Value("${sbs.cache.user-profiles.max-size:10000}")
+    private long userProfilesMaxSize;
+
+    @Value("${sbs.cache.user-profiles.ttl:PT10M}")
+    private Duration userProfilesTtl;
+
+    @Value("${sbs.cache.accounts-by-user.max-size:10000}")
+    private long accountsByUserMaxSize;
+
+    @Value("${sbs.cache.accounts-by-user.ttl:PT2M}")
+    private Duration accountsByUserTtl;
+
+    @Value("${sbs.cache.l2.key-prefix:sbs:cache:}")
+    private String remoteKeyPrefix;
+
     @Bean
-    public CacheManager cacheManager() {
-        CachingProvider provider = Caching.getCachingProvider();
-        javax.cache.CacheManager cacheManager = provider.getCacheManager();
-        return new JCacheCacheManager(cacheManager);
+    public CacheManager cacheManager(ObjectProvider<RedisCacheInvalidation> invalidation,
+                                     ObjectProvider<RedisTemplate<String, String>> redisTemplate,
+                                     ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        CacheFactory factory = new CacheFactory(invalidation.getIfAvailable(), redisTemplate.getIfAvailable(),
+                objectMapper, meterRegistry);
+        List<Cache> caches = new ArrayList<>();
+        // Entity caches stay local: only their invalidations go through Redis
+        caches.add(factory.build(USERS, usersMaxSize, usersTtl, null));
+        caches.add(factory.build(ACCOUNT_IDS_BY_NUMBER, accountIdsMaxSize, accountIdsTtl, null));
+        caches.add(factory.build(ROLES, rolesMaxSize, rolesTtl,
+                objectMapper.constructType(UserRole.class)));
+        caches.add(factory.build(USER_PROFILES, userProfilesMaxSize, userProfilesTtl,
+                objectMapper.constructType(UserDto.class)));
+        caches.add(factory.build(ACCOUNTS_BY_USER, accountsByUserMaxSize, accountsByUserTtl,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, AccountDto.class)));
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        cacheManager.initializeCaches();
+        // Evictions issued inside a transaction apply on commit, so a concurrent reader cannot
+        // re-cache the row that transaction is about to replace
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "sbs.cache.l2.enabled", havingValue = "true")
+    public RedisCacheInvalidation redisCacheInvalidation(RedisTemplate<String, String> redisTemplate,
+                                                         MeterRegistry meterRegistry,
+                                                         @Value("${sbs.cache.l2.channel:sbs:cache:invalidation}") String channel) {
+        return new RedisCacheInvalidation(redisTemplate, channel, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "sbs.cache.l2.enabled", havingValue = "true")
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            RedisCacheInvalidation invalidation) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(invalidation, new ChannelTopic(invalidation.getChannel()));
+        return container;
+    }
+
+    // Reports the local tier's Caffeine stats under the same cache.* meters as a plain Caffeine cache
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics<>(cache.getLocalCache(), cache.getName(), tags);
+    }
+
+    private class CacheFactory {
+
+        private final RedisCacheInvalidation invalidation;
+        private final RedisTemplate<String, String> redisTemplate;
+        private final ObjectMapper objectMapper;
+        private final MeterRegistry meterRegistry;
+
+        CacheFactory(RedisCacheInvalidation invalidation, RedisTemplate<String, String> redisTemplate,
+                     ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+            this.invalidation = invalidation;
+            this.redisTemplate = redisTemplate;
+            this.objectMapper = objectMapper;
+            this.meterRegistry = meterRegistry;
+        }
+
+        Cache build(String name, long maxSize, Duration ttl, JavaType remoteValueType) {
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> local = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(ttl)
+                    .recordStats()
+                    .build();
+            if (invalidation == null) {
+                return new CaffeineCache(name, local, false);
+            }
+            return new TwoLevelCache(name, local, redisTemplate, objectMapper, remoteValueType, ttl,
+                    remoteKeyPrefix, invalidation, meterRegistry);
+        }
     }
-} 
\ No newline at end of file
+}
@@ -60,6 +60,8 @@ public class ConnectionPoolConfig {
         config.addDataSourceProperty("cacheServerConfiguration", "true");
         config.addDataSourceProperty("elideSetAutoCommits", "true");
         config.addDataSourceProperty("maintainTimeStats", "false");
+        // PostgreSQL driver: collapse JDBC insert batches into multi-row INSERT statements
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
         
         return new HikariDataSource(config);
     }
@@ -0,0 +1,38 @@
+package com.securebanking.sbs.core.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+/**
+ * Runs db/post-schema-migrations.sql once Hibernate has created or updated the tables.
+ * db/schema-migrations.sql runs before Hibernate and cannot touch tables that do not
+ * exist yet on a fresh database; DDL Hibernate cannot express (partial indexes and the
+ * like) goes in the post-schema script instead.
+ */
+@Configuration
+@DependsOn("entityManagerFactory")
+public class PostSchemaMigrationConfig implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostSchemaMigrationConfig.class);
+
+    private static final String SCRIPT = "db/post-schema-migrations.sql";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Override
+    public void afterPropertiesSet() {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource(SCRIPT));
+        populator.setSeparator("@@");
+        populator.execute(dataSource);
+        logger.info("Applied {}", SCRIPT);
+    }
+}
@@ -1,45 +1,97 @@
 package com.securebanking.sbs.core.config;
 
-/*
 import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
 import io.github.bucket4j.BucketConfiguration;
-import io.github.bucket4j.Refill;
-import io.github.bucket4j.distributed.proxy.ProxyManager;
-import io.github.bucket4j.redis.lettuce.LettuceProxyManager;
-import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.util.AntPathMatcher;
 
 import java.time.Duration;
+import java.util.List;
 
+/**
+ * Request rate limits per endpoint group. Each request is charged to the first profile that
+ * matches it, lowest order first, so the tight profiles for sign-in, OTP resend and money
+ * movement win over the catch-all. Authenticated callers are limited per user; anonymous
+ * ones, and every caller of the sign-in endpoints, per client IP.
+ */
 @Configuration
 public class RateLimitConfig {
-    
-    @Autowired
-    private RedisConnectionFactory redisConnectionFactory;
-    
+
     @Bean
-    public ProxyManager<String> proxyManager() {
-        return LettuceProxyManager.builderFor(redisConnectionFactory).build();
+    public Profile loginRateLimit(@Value("${sbs.rate-limit.login.capacity:10}") long capacity,
+                                  @Value("${sbs.rate-limit.login.period:PT1M}") Duration period) {
+        return new Profile("login", 10, "POST", capacity, period, false,
+                "/api/v1/login", "/api/v1/login-test", "/api/v1/validate-otp");
     }
-    
+
     @Bean
-    public BucketConfiguration bucketConfiguration() {
-        // Rate limit: 100 requests per minute per user
-        Bandwidth limit = Bandwidth.classic(100, Refill.greedy(100, Duration.ofMinutes(1)));
-        return BucketConfiguration.builder().addLimit(limit).build();
+    public Profile otpResendRateLimit(@Value("${sbs.rate-limit.otp-resend.capacity:3}") long capacity,
+                                      @Value("${sbs.rate-limit.otp-resend.period:PT5M}") Duration period) {
+        return new Profile("otp-resend", 20, "POST", capacity, period, false, "/api/v1/resend-otp");
     }
-    
+
     @Bean
-    public Bucket bucket(ProxyManager<String> proxyManager, BucketConfiguration configuration) {
-        return proxyManager.builder().build("default-bucket", () -> configuration);
+    public Profile transferRateLimit(@Value("${sbs.rate-limit.transfer.capacity:20}") long capacity,
+                                     @Value("${sbs.rate-limit.transfer.period:PT1M}") Duration period) {
+        return new Profile("transfer", 30, "POST", capacity, period, true,
+                "/api/v1/transactions/send-money", "/api/v1/transactions/request-money",
+                "/api/v1/transaction/request", "/api/v1/account/*/request");
     }
-}
-*/
 
-// Rate limiting temporarily disabled for Kafka focus
-public class RateLimitConfig {
-    // Placeholder class
-} 
\ No newline at end of file
+    @Bean
+    public Profile defaultRateLimit(@Value("${rate.limiting.requests.per.minute:100}") long capacity,
+                                    @Value("${sbs.rate-limit.default.period:PT1M}") Duration period) {
+        return new Profile("default", Integer.MAX_VALUE, null, capacity, period, true, "/api/**");
+    }
+
+    public static class Profile {
+
+        private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+        private final String name;
+        private final int order;
+        private final String method;
+        private final List<String> pathPatterns;
+        private final boolean perUser;
+        private final BucketConfiguration configuration;
+
+        public Profile(String name, int order, String method, long capacity, Duration period, boolean perUser,
+                       String... pathPatterns) {
+            this.name = name;
+            this.order = order;
+            this.method = method;
+            this.pathPatterns = List.of(pathPatterns);
+            this.perUser = perUser;
+            this.configuration = BucketConfiguration.builder()
+                    .addLimit(Bandwidth.builder().capacity(capacity).refillGreedy(capacity, period).build())
+                    .build();
+        }
+
+        public boolean matches(HttpServletRequest request) {
+            if (method != null && !method.equalsIgnoreCase(request.getMethod())) {
+                return false;
+            }
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            return pathPatterns.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getOrder() {
+            return order;
+        }
+
+        public boolean isPerUser() {
+            return perUser;
+        }
+
+        public BucketConfiguration getConfiguration() {
+            return configuration;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.securebanking.sbs.core.config;
+
+import com.securebanking.sbs.infrastructure.batch.AccountRangePartitioner;
+import com.securebanking.sbs.infrastructure.batch.LedgerReconciliationProcessor;
+import com.securebanking.sbs.infrastructure.batch.ReconciliationAccountRow;
+import com.securebanking.sbs.infrastructure.model.LedgerReconciliation;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
+import org.springframework.batch.item.database.support.PostgresPagingQueryProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.Map;
+
+/**
+ * Nightly ledger reconciliation. Accounts are split into id ranges and reconciled by
+ * parallel worker steps; each page of accounts is read together with its settled credit
+ * and debit totals in one query, so the database does the summing and the workers only
+ * compare. Throughput is tuned with sbs.reconciliation.grid-size (partitions, which is
+ * also the number of worker threads) and sbs.reconciliation.chunk-size (page and commit size).
+ */
+@Configuration
+public class ReconciliationJobConfig {
+
+    public static final String JOB_NAME = "ledgerReconciliationJob";
+    public static final String RUN_DATE_PARAMETER = "runDate";
+
+    private static final String SETTLED = "t.sender_acc <> t.receiver_acc AND t.status IN ('APPROVED', 'COMPLETED')";
+
+    @Value("${sbs.reconciliation.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${sbs.reconciliation.grid-size:8}")
+    private int gridSize;
+
+    @Bean
+    public Job ledgerReconciliationJob(JobRepository jobRepository, Step reconciliationManagerStep) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .start(reconciliationManagerStep)
+                .build();
+    }
+
+    @Bean
+    public Step reconciliationManagerStep(JobRepository jobRepository, Step reconciliationWorkerStep, JdbcTemplate jdbcTemplate) {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("reconcile-");
+        taskExecutor.setConcurrencyLimit(gridSize);
+        return new StepBuilder("reconciliationManagerStep", jobRepository)
+                .partitioner("reconciliationWorkerStep", new AccountRangePartitioner(jdbcTemplate))
+                .step(reconciliationWorkerStep)
+                .gridSize(gridSize)
+                .taskExecutor(taskExecutor)
+                .build();
+    }
+
+    @Bean
+    public Step reconciliationWorkerStep(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+                                         JdbcPagingItemReader<ReconciliationAccountRow> reconciliationReader,
+                                         LedgerReconciliationProcessor reconciliationProcessor,
+                                         JdbcBatchItemWriter<LedgerReconciliation> reconciliationWriter) {
+        return new StepBuilder("reconciliationWorkerStep", jobRepository)
+                .<ReconciliationAccountRow, LedgerReconciliation>chunk(chunkSize, transactionManager)
+                .reader(reconciliationReader)
+                .processor(reconciliationProcessor)
+                .writer(reconciliationWriter)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public JdbcPagingItemReader<ReconciliationAccountRow> reconciliationReader(
+            DataSource dataSource,
+            @Value("#{stepExecutionContext['minId']}") Long minId,
+            @Value("#{stepExecutionContext['maxId']}") Long maxId) {
+        PostgresPagingQueryProvider queryProvider = new PostgresPagingQueryProvider();
+        // Wrapped in a derived table so the paging sort key is an unqualified column name;
+        // Postgres flattens it, so the id range still drives the accounts index scan
+        queryProvider.setSelectClause("account_id, balance, opening_balance, credits, debits");
+        queryProvider.setFromClause("(SELECT a.account_id, a.balance, a.opening_balance, " +
+                "COALESCE(c.total, 0) AS credits, COALESCE(d.total, 0) AS debits FROM accounts a " +
+                "LEFT JOIN LATERAL (SELECT SUM(t.amount) AS total FROM transactions t " +
+                "WHERE t.receiver_acc = a.account_id AND " + SETTLED + ") c ON TRUE " +
+                "LEFT JOIN LATERAL (SELECT SUM(t.amount) AS total FROM transactions t " +
+                "WHERE t.sender_acc = a.account_id AND " + SETTLED + ") d ON TRUE) ledger");
+        queryProvider.setWhereClause("account_id BETWEEN :minId AND :maxId");
+        queryProvider.setSortKeys(Map.of("account_id", Order.ASCENDING));
+
+        return new JdbcPagingItemReaderBuilder<ReconciliationAccountRow>()
+                .name("reconciliationReader")
+                .dataSource(dataSource)
+                .queryProvider(queryProvider)
+                .parameterValues(Map.of("minId", minId, "maxId", maxId))
+                .pageSize(chunkSize)
+                .rowMapper((rs, rowNum) -> new ReconciliationAccountRow(
+                        rs.getLong("account_id"),
+                        rs.getBigDecimal("balance"),
+                        rs.getBigDecimal("opening_balance"),
+                        rs.getBigDecimal("credits"),
+                        rs.getBigDecimal("debits")))
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public LedgerReconciliationProcessor reconciliationProcessor(
+            @Value("#{stepExecution}") StepExecution stepExecution) {
+        return new LedgerReconciliationProcessor(stepExecution.getJobExecutionId(), stepExecution.getExecutionContext());
+    }
+
+    @Bean
+    public JdbcBatchItemWriter<LedgerReconciliation> reconciliationWriter(DataSource dataSource) {
+        return new JdbcBatchItemWriterBuilder<LedgerReconciliation>()
+                .dataSource(dataSource)
+                .sql("INSERT INTO ledger_reconciliations (job_execution_id, account_id, recorded_balance, " +
+                        "computed_balance, drift, checked_at) VALUES (?, ?, ?, ?, ?, ?)")
+                .itemPreparedStatementSetter((reconciliation, ps) -> {
+                    ps.setLong(1, reconciliation.getJobExecutionId());
+                    ps.setLong(2, reconciliation.getAccountId());
+                    ps.setBigDecimal(3, reconciliation.getRecordedBalance().toBigDecimal());
+                    ps.setBigDecimal(4, reconciliation.getComputedBalance().toBigDecimal());
+                    ps.setBigDecimal(5, reconciliation.getDrift().toBigDecimal());
+                    ps.setTimestamp(6, Timestamp.valueOf(reconciliation.getCheckedAt()));
+                })
+                .assertUpdates(false)
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.securebanking.sbs.core.config;
+
+import com.securebanking.sbs.core.resilience.Bulkhead;
+import com.securebanking.sbs.core.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Isolation for the external dependencies called while serving requests. Redis calls from
+ * the request path go through their own bulkhead; SMTP is already off the request path
+ * (mail goes through the outbox), so it only needs a circuit breaker in front of the
+ * dispatcher's worker pool.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public Bulkhead redisBulkhead(MeterRegistry meterRegistry,
+                                  @Value("${sbs.resilience.redis.threads:16}") int threads,
+                                  @Value("${sbs.resilience.redis.queue-capacity:200}") int queueCapacity,
+                                  @Value("${sbs.resilience.redis.timeout:PT0.3S}") Duration timeout,
+                                  @Value("${sbs.resilience.redis.failure-threshold:5}") int failureThreshold,
+                                  @Value("${sbs.resilience.redis.open-duration:PT10S}") Duration openDuration) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("redis", failureThreshold, openDuration, meterRegistry);
+        return new Bulkhead("redis", threads, queueCapacity, timeout, circuitBreaker, meterRegistry);
+    }
+
+    @Bean
+    public CircuitBreaker smtpCircuitBreaker(MeterRegistry meterRegistry,
+                                             @Value("${sbs.resilience.smtp.failure-threshold:5}") int failureThreshold,
+                                             @Value("${sbs.resilience.smtp.open-duration:PT30S}") Duration openDuration) {
+        return new CircuitBreaker("smtp", failureThreshold, openDuration, meterRegistry);
+    }
+}
@@ -0,0 +1,10 @@
+package com.securebanking.sbs.core.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background pollers (email outbox, ...) run on Boot's scheduler; pool size is spring.task.scheduling.pool.size
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
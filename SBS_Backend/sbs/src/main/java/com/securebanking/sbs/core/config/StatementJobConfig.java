@@ -0,0 +1,193 @@
+package com.securebanking.sbs.core.config;
+
+import com.securebanking.sbs.infrastructure.batch.AccountRangePartitioner;
+import com.securebanking.sbs.infrastructure.batch.StatementAccountRow;
+import com.securebanking.sbs.infrastructure.batch.StatementItemProcessor;
+import com.securebanking.sbs.modules.customer.model.Statement;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
+import org.springframework.batch.item.database.support.PostgresPagingQueryProvider;
+import org.springframework.batch.item.file.FlatFileItemWriter;
+import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
+import org.springframework.batch.item.support.CompositeItemWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Monthly statement generation. A manager step splits accounts into id ranges; each worker
+ * step pages through its range, builds a statement per account and writes it both to the
+ * statements table and to a per-partition CSV. Reader and file writer keep their position
+ * in the step execution context, so a failed run restarted with the same "period"
+ * parameter resumes from the last committed chunk of each partition.
+ */
+@Configuration
+public class StatementJobConfig {
+
+    public static final String JOB_NAME = "statementJob";
+    public static final String PERIOD_PARAMETER = "period";
+
+    // Re-running a period replaces its rows rather than duplicating them
+    private static final String UPSERT_SQL =
+            "INSERT INTO statements (account_id, account_number, user_id, period_start, period_end, opening_balance, " +
+            "closing_balance, total_credits, total_debits, credit_count, debit_count, generated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (account_id, period_start) DO UPDATE SET account_number = EXCLUDED.account_number, " +
+            "user_id = EXCLUDED.user_id, period_end = EXCLUDED.period_end, opening_balance = EXCLUDED.opening_balance, " +
+            "closing_balance = EXCLUDED.closing_balance, total_credits = EXCLUDED.total_credits, " +
+            "total_debits = EXCLUDED.total_debits, credit_count = EXCLUDED.credit_count, " +
+            "debit_count = EXCLUDED.debit_count, generated_at = EXCLUDED.generated_at";
+
+    @Value("${sbs.statements.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${sbs.statements.partitions:4}")
+    private int partitions;
+
+    @Value("${sbs.statements.output-dir:}")
+    private String outputDir;
+
+    @Bean
+    public Job statementJob(JobRepository jobRepository, Step statementManagerStep) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .start(statementManagerStep)
+                .build();
+    }
+
+    @Bean
+    public Step statementManagerStep(JobRepository jobRepository, Step statementWorkerStep, JdbcTemplate jdbcTemplate) {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("statement-");
+        taskExecutor.setConcurrencyLimit(partitions);
+        return new StepBuilder("statementManagerStep", jobRepository)
+                .partitioner("statementWorkerStep", new AccountRangePartitioner(jdbcTemplate))
+                .step(statementWorkerStep)
+                .gridSize(partitions)
+                .taskExecutor(taskExecutor)
+                .build();
+    }
+
+    @Bean
+    public Step statementWorkerStep(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+                                    JdbcPagingItemReader<StatementAccountRow> statementAccountReader,
+                                    StatementItemProcessor statementItemProcessor,
+                                    CompositeItemWriter<Statement> statementWriter) {
+        return new StepBuilder("statementWorkerStep", jobRepository)
+                .<StatementAccountRow, Statement>chunk(chunkSize, transactionManager)
+                .reader(statementAccountReader)
+                .processor(statementItemProcessor)
+                .writer(statementWriter)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public JdbcPagingItemReader<StatementAccountRow> statementAccountReader(
+            DataSource dataSource,
+            @Value("#{stepExecutionContext['minId']}") Long minId,
+            @Value("#{stepExecutionContext['maxId']}") Long maxId) {
+        PostgresPagingQueryProvider queryProvider = new PostgresPagingQueryProvider();
+        queryProvider.setSelectClause("account_id, account_number, user_id");
+        queryProvider.setFromClause("accounts");
+        queryProvider.setWhereClause("account_id BETWEEN :minId AND :maxId");
+        queryProvider.setSortKeys(Map.of("account_id", Order.ASCENDING));
+
+        return new JdbcPagingItemReaderBuilder<StatementAccountRow>()
+                .name("statementAccountReader")
+                .dataSource(dataSource)
+                .queryProvider(queryProvider)
+                .parameterValues(Map.of("minId", minId, "maxId", maxId))
+                .pageSize(chunkSize)
+                .rowMapper((rs, rowNum) -> new StatementAccountRow(
+                        rs.getLong("account_id"),
+                        rs.getString("account_number"),
+                        (Integer) rs.getObject("user_id")))
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public StatementItemProcessor statementItemProcessor(
+            JdbcTemplate jdbcTemplate,
+            @Value("#{jobParameters['" + PERIOD_PARAMETER + "']}") String period) {
+        YearMonth month = YearMonth.parse(period);
+        return new StatementItemProcessor(jdbcTemplate, month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+    @Bean
+    @StepScope
+    public CompositeItemWriter<Statement> statementWriter(
+            DataSource dataSource,
+            @Value("#{jobParameters['" + PERIOD_PARAMETER + "']}") String period,
+            @Value("#{stepExecutionContext['partition']}") Integer partition) {
+        JdbcBatchItemWriter<Statement> tableWriter = new JdbcBatchItemWriterBuilder<Statement>()
+                .dataSource(dataSource)
+                .sql(UPSERT_SQL)
+                .itemPreparedStatementSetter((statement, ps) -> {
+                    ps.setLong(1, statement.getAccountId());
+                    ps.setString(2, statement.getAccountNumber());
+                    ps.setObject(3, statement.getUserId());
+                    ps.setDate(4, Date.valueOf(statement.getPeriodStart()));
+                    ps.setDate(5, Date.valueOf(statement.getPeriodEnd()));
+                    ps.setBigDecimal(6, statement.getOpeningBalance().toBigDecimal());
+                    ps.setBigDecimal(7, statement.getClosingBalance().toBigDecimal());
+                    ps.setBigDecimal(8, statement.getTotalCredits().toBigDecimal());
+                    ps.setBigDecimal(9, statement.getTotalDebits().toBigDecimal());
+                    ps.setInt(10, statement.getCreditCount());
+                    ps.setInt(11, statement.getDebitCount());
+                    ps.setTimestamp(12, Timestamp.valueOf(statement.getGeneratedAt()));
+                })
+                .assertUpdates(false)
+                .build();
+        tableWriter.afterPropertiesSet();
+
+        FlatFileItemWriter<Statement> fileWriter = new FlatFileItemWriterBuilder<Statement>()
+                .name("statementFileWriter")
+                .resource(new FileSystemResource(outputDir().resolve("statements-" + period + "-part" + partition + ".csv")))
+                .headerCallback(writer -> writer.write("account_id,account_number,user_id,period_start,period_end," +
+                        "opening_balance,closing_balance,total_credits,total_debits,credit_count,debit_count"))
+                .delimited()
+                .delimiter(",")
+                .fieldExtractor(statement -> new Object[] {
+                        statement.getAccountId(), statement.getAccountNumber(), statement.getUserId(),
+                        statement.getPeriodStart(), statement.getPeriodEnd(),
+                        statement.getOpeningBalance(), statement.getClosingBalance(),
+                        statement.getTotalCredits(), statement.getTotalDebits(),
+                        statement.getCreditCount(), statement.getDebitCount()
+                })
+                .build();
+
+        CompositeItemWriter<Statement> writer = new CompositeItemWriter<>();
+        writer.setDelegates(List.of(tableWriter, fileWriter));
+        return writer;
+    }
+
+    // A relative path would land on whatever the working directory is, which in the container is thrown away
+    private Path outputDir() {
+        if (outputDir == null || outputDir.isBlank() || !Paths.get(outputDir).isAbsolute()) {
+            throw new IllegalStateException("sbs.statements.output-dir must be an absolute path on durable storage");
+        }
+        return Paths.get(outputDir);
+    }
+}
@@ -1,5 +1,6 @@
 package com.securebanking.sbs.core.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -27,4 +28,11 @@ public class Exeptions {
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(Map.of("error", "User role not found", "message", e.getMessage()));
     }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Map<String, String>> handleServiceBusy(ServiceBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", "Service busy", "message", e.getMessage()));
+    }
 }
@@ -0,0 +1,109 @@
+package com.securebanking.sbs.core.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the blocking calls to one external dependency on its own bounded pool, with a
+ * deadline and a circuit breaker. A request thread waits at most the timeout; when the pool
+ * is saturated, the call times out or fails, or the circuit is open, the caller's fallback
+ * answers instead. A slow dependency therefore uses up only its own threads.
+ */
+public class Bulkhead {
+
+    private static final Logger logger = LoggerFactory.getLogger(Bulkhead.class);
+
+    private final String name;
+    private final long timeoutNanos;
+    private final CircuitBreaker circuitBreaker;
+    private final ThreadPoolExecutor pool;
+
+    private final Counter rejectedCounter;
+    private final Counter timeoutCounter;
+    private final Counter failureCounter;
+
+    public Bulkhead(String name, int threads, int queueCapacity, Duration timeout,
+                    CircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.timeoutNanos = timeout.toNanos();
+        this.circuitBreaker = circuitBreaker;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+                r -> {
+                    Thread t = new Thread(r, name + "-io-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        Tags tags = Tags.of("dependency", name);
+        this.rejectedCounter = meterRegistry.counter("sbs.bulkhead.rejected", tags);
+        this.timeoutCounter = meterRegistry.counter("sbs.bulkhead.timeouts", tags);
+        this.failureCounter = meterRegistry.counter("sbs.bulkhead.failures", tags);
+        meterRegistry.gauge("sbs.bulkhead.queue_depth", tags, pool, p -> p.getQueue().size());
+        meterRegistry.gauge("sbs.bulkhead.active", tags, pool, ThreadPoolExecutor::getActiveCount);
+    }
+
+    /**
+     * Runs the task on this dependency's pool and returns its result, or the fallback's if
+     * the task cannot run or does not complete successfully within the timeout.
+     */
+    public <T> T call(Callable<T> task, Supplier<T> fallback) {
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        if (permit == null) {
+            return fallback.get();
+        }
+        Future<T> future;
+        try {
+            future = pool.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            // A full queue says nothing about the dependency itself
+            permit.release();
+            return fallback.get();
+        }
+        try {
+            T result = future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            permit.onSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeoutCounter.increment();
+            permit.onFailure();
+            logger.warn("{} call timed out after {} ms", name, TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+        } catch (ExecutionException e) {
+            failureCounter.increment();
+            permit.onFailure();
+            logger.warn("{} call failed: {}", name, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            permit.release();
+            Thread.currentThread().interrupt();
+        }
+        return fallback.get();
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void shutdown() throws InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,151 @@
+package com.securebanking.sbs.core.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Consecutive-failure circuit breaker for one external dependency. After failureThreshold
+ * failures in a row the circuit opens and callers go straight to their fallback; once
+ * openDuration has passed a single trial call is let through, which closes the circuit on
+ * success and reopens it on failure. Outcomes are reported on the permit a call was made
+ * under, so a call that started before the circuit opened cannot close or count against it.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    // Bumped each time the circuit opens; permits from an earlier epoch no longer count
+    private final AtomicLong epoch = new AtomicLong();
+    private volatile long openedAt;
+
+    private final Counter openedCounter;
+    private final Counter shortCircuitedCounter;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.failureThreshold = Math.max(failureThreshold, 1);
+        this.openDurationNanos = openDuration.toNanos();
+        this.openedCounter = meterRegistry.counter("sbs.circuit.opened", "dependency", name);
+        this.shortCircuitedCounter = meterRegistry.counter("sbs.circuit.short_circuited", "dependency", name);
+        meterRegistry.gauge("sbs.circuit.state", Tags.of("dependency", name),
+                state, s -> s.get().ordinal());
+    }
+
+    /**
+     * A permit to call the dependency now, or null if the circuit is open. Every permit must
+     * be settled with onSuccess, onFailure or release.
+     */
+    public Permit tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return new Permit(epoch.get(), false);
+        }
+        if (current == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            logger.info("Circuit {} half-open, sending a trial call", name);
+            return new Permit(epoch.get(), true);
+        }
+        shortCircuitedCounter.increment();
+        return null;
+    }
+
+    private void succeeded(Permit permit) {
+        if (permit.trial) {
+            if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+                consecutiveFailures.set(0);
+                logger.info("Circuit {} closed", name);
+            }
+        } else if (permit.epoch == epoch.get() && state.get() == State.CLOSED) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    private void failed(Permit permit) {
+        if (permit.trial) {
+            if (state.compareAndSet(State.HALF_OPEN, State.OPEN)) {
+                opened("its trial call failed");
+            }
+            return;
+        }
+        if (permit.epoch != epoch.get()) {
+            return;
+        }
+        int failures = consecutiveFailures.incrementAndGet();
+        if (failures >= failureThreshold && state.compareAndSet(State.CLOSED, State.OPEN)) {
+            opened(failures + " consecutive failures");
+        }
+    }
+
+    private void opened(String reason) {
+        epoch.incrementAndGet();
+        openedAt = System.nanoTime();
+        openedCounter.increment();
+        logger.warn("Circuit {} opened after {}", name, reason);
+    }
+
+    // A trial that reached no verdict hands the circuit back open, so the next caller makes the trial instead
+    private void released(Permit permit) {
+        if (permit.trial) {
+            state.compareAndSet(State.HALF_OPEN, State.OPEN);
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Leave to call the dependency, handed out by tryAcquire. A closed circuit's permit may
+     * report several outcomes, one per call made under it; a trial permit reports one.
+     */
+    public final class Permit {
+
+        private final long epoch;
+        private final boolean trial;
+
+        private Permit(long epoch, boolean trial) {
+            this.epoch = epoch;
+            this.trial = trial;
+        }
+
+        public boolean isTrial() {
+            return trial;
+        }
+
+        public void onSuccess() {
+            succeeded(this);
+        }
+
+        public void onFailure() {
+            failed(this);
+        }
+
+        /**
+         * Gives the permit back when its call never reached the dependency, or when the
+         * outcome says nothing about the dependency either way.
+         */
+        public void release() {
+            released(this);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.securebanking.sbs.core.security;
+
+import com.securebanking.sbs.core.util.TokenClaims;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+/**
+ * The caller as described by their verified token. It is built from the claims alone, so
+ * reading it never touches the database; it reflects the user as of token issue.
+ */
+public final class AuthenticatedUser {
+
+    private final Long userId;
+    private final String username;
+    private final String email;
+    private final Integer roleId;
+    private final String firstName;
+    private final String lastName;
+
+    AuthenticatedUser(TokenClaims claims) {
+        this.userId = claims.getUserId();
+        this.username = claims.getUsername();
+        this.email = claims.getEmail();
+        this.roleId = claims.getRoleId();
+        this.firstName = claims.getFirstName();
+        this.lastName = claims.getLastName();
+    }
+
+    /**
+     * The user authenticated for the current request, if the request carried a valid token.
+     */
+    public static Optional<AuthenticatedUser> current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return Optional.of(user);
+        }
+        return Optional.empty();
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Integer getRoleId() {
+        return roleId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
@@ -1,12 +1,25 @@
 package com.securebanking.sbs.core.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 
 @Service
@@ -18,6 +31,43 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private int expirationTime;
 
+    @Value("${sbs.security.jwt.claims-cache-size:10000}")
+    private long claimsCacheSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Verified tokens by SHA-256 of the token; an entry lives until the token's own exp
+    private Cache<String, TokenClaims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new Expiry<String, TokenClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, TokenClaims claims, long currentTime) {
+                        Instant expiresAt = claims.getExpiresAt() != null
+                                ? claims.getExpiresAt()
+                                : Instant.now().plusMillis(expirationTime);
+                        return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, TokenClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, TokenClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwtClaims");
+    }
+
     public String generateToken(String username, Integer userId, String email, Integer role, String firstName, String lastName) {
         return Jwts.builder()
                 .claim("userId", userId)
@@ -36,33 +86,52 @@ public class JwtUtil {
         return generateToken(username, userId, email, role, null, null);
     }
 
+    /**
+     * Verifies the token and returns its claims. The signature is checked once per token on
+     * this node; later calls with the same token are served from the cache until it expires.
+     * Invalid or expired tokens throw the jjwt exception, as parsing does, and are not cached.
+     */
+    public TokenClaims parseToken(String token) {
+        String key = tokenHash(token);
+        TokenClaims claims = verifiedTokens.get(key, k -> TokenClaims.from(extractClaims(token)));
+        if (claims.isExpired(Instant.now())) {
+            // Expired between the cache's last sweep and now; parsing again throws ExpiredJwtException
+            verifiedTokens.invalidate(key);
+            return TokenClaims.from(extractClaims(token));
+        }
+        return claims;
+    }
+
     public String extractUsername(String token) {
-        return extractClaims(token).getSubject();
+        return parseToken(token).getUsername();
     }
 
+    /**
+     * Parses and verifies without the cache. Prefer parseToken, which verifies once per token.
+     */
     public Claims extractClaims(String token) {
         return Jwts.parser().setSigningKey(secretKey).parseClaimsJws(token).getBody();
     }
 
     public boolean validateToken(String token, String username) {
-        return (username.equals(extractUsername(token)) && !isTokenExpired(token));
+        TokenClaims claims = parseToken(token);
+        return username.equals(claims.getUsername()) && !claims.isExpired(Instant.now());
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaims(token).getExpiration().before(new Date());
-    }
     public Long extractUserId(String token) {
-        Object userIdObj = extractClaims(token).get("userId");
-        if (userIdObj instanceof Integer) {
-            return ((Integer) userIdObj).longValue();
-        } else if (userIdObj instanceof Long) {
-            return (Long) userIdObj;
-        } else {
-            throw new RuntimeException("Invalid userId type in token: " + userIdObj.getClass());
-        }
+        return parseToken(token).getUserId();
     }
 
     public String extractEmail(String token) {
-        return (String) extractClaims(token).get("email");
+        return parseToken(token).getEmail();
+    }
+
+    private static String tokenHash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+package com.securebanking.sbs.core.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.StaleStateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in its own transaction and re-runs it with exponential backoff
+ * when it loses an optimistic-lock race. When a transaction is already active the work
+ * runs once in it, since only the outermost caller can start a fresh attempt.
+ */
+@Component
+public class OptimisticLockRetry {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticLockRetry.class);
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sbs.retry.optimistic.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${sbs.retry.optimistic.initial-backoff-ms:25}")
+    private long initialBackoffMs;
+
+    @Value("${sbs.retry.optimistic.max-backoff-ms:500}")
+    private long maxBackoffMs;
+
+    public <T> T execute(String operation, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+
+        long backoff = initialBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (RuntimeException e) {
+                if (!isOptimisticLockFailure(e)) {
+                    throw e;
+                }
+                counter("sbs.optimistic_lock.conflicts", operation).increment();
+                if (attempt >= maxAttempts) {
+                    counter("sbs.optimistic_lock.exhausted", operation).increment();
+                    logger.warn("{} gave up after {} optimistic lock conflicts", operation, attempt);
+                    throw e;
+                }
+                counter("sbs.optimistic_lock.retries", operation).increment();
+                logger.debug("{} hit an optimistic lock conflict, retry {} in ~{}ms", operation, attempt, backoff);
+                sleep(backoff);
+                backoff = Math.min(backoff * 2, maxBackoffMs);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable work) {
+        execute(operation, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // Services wrap persistence errors in their own RuntimeExceptions, so look down the cause chain
+    static boolean isOptimisticLockFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OptimisticLockingFailureException
+                    || t instanceof OptimisticLockException
+                    || t instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Counter counter(String name, String operation) {
+        return meterRegistry.counter(name, "operation", operation);
+    }
+
+    // Jitter keeps competing writers from retrying in lockstep
+    private void sleep(long backoff) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off", ie);
+        }
+    }
+}
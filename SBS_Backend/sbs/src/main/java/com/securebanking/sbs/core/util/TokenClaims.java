@@ -0,0 +1,88 @@
+package com.securebanking.sbs.core.util;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * The claims of a verified token, copied out of the mutable jjwt Claims map so the same
+ * instance can be cached and shared between requests.
+ */
+public final class TokenClaims {
+
+    private final String username;
+    private final Long userId;
+    private final String email;
+    private final Integer roleId;
+    private final String firstName;
+    private final String lastName;
+    private final Instant expiresAt;
+
+    private TokenClaims(String username, Long userId, String email, Integer roleId,
+                        String firstName, String lastName, Instant expiresAt) {
+        this.username = username;
+        this.userId = userId;
+        this.email = email;
+        this.roleId = roleId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.expiresAt = expiresAt;
+    }
+
+    static TokenClaims from(Claims claims) {
+        return new TokenClaims(
+                claims.getSubject(),
+                toLong(claims.get("userId")),
+                claims.get("email", String.class),
+                toInteger(claims.get("role")),
+                claims.get("firstName", String.class),
+                claims.get("lastName", String.class),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+
+    private static Long toLong(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Integer || value instanceof Long) {
+            return ((Number) value).longValue();
+        }
+        throw new RuntimeException("Invalid userId type in token: " + value.getClass());
+    }
+
+    private static Integer toInteger(Object value) {
+        return value instanceof Number number ? number.intValue() : null;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Integer getRoleId() {
+        return roleId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
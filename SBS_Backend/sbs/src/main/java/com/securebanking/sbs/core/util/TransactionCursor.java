@@ -0,0 +1,47 @@
+package com.securebanking.sbs.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position in the (created_time, transactionId) ordering used by the
+ * paginated transaction endpoints. Clients only ever see the opaque token.
+ */
+public class TransactionCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdtime;
+    private final Integer transactionId;
+
+    public TransactionCursor(LocalDateTime createdtime, Integer transactionId) {
+        this.createdtime = createdtime;
+        this.transactionId = transactionId;
+    }
+
+    public LocalDateTime getCreatedtime() {
+        return createdtime;
+    }
+
+    public Integer getTransactionId() {
+        return transactionId;
+    }
+
+    public String encode() {
+        String raw = createdtime + SEPARATOR + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            return new TransactionCursor(
+                    LocalDateTime.parse(raw.substring(0, split)),
+                    Integer.valueOf(raw.substring(split + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+}
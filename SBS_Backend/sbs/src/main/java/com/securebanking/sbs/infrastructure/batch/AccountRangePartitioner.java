@@ -0,0 +1,42 @@
+package com.securebanking.sbs.infrastructure.batch;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Splits the accounts table into contiguous account_id ranges, one per worker step.
+ * Ranges are by id rather than by row count, which is close enough while ids are dense.
+ */
+public class AccountRangePartitioner implements Partitioner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccountRangePartitioner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, Object> bounds = jdbcTemplate.queryForMap(
+                "SELECT COALESCE(MIN(account_id), 0) AS min_id, COALESCE(MAX(account_id), 0) AS max_id FROM accounts");
+        long min = ((Number) bounds.get("min_id")).longValue();
+        long max = ((Number) bounds.get("max_id")).longValue();
+        long span = Math.max(1, (max - min + gridSize) / gridSize);
+
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        int index = 0;
+        for (long start = min; start <= max; start += span) {
+            ExecutionContext context = new ExecutionContext();
+            context.putLong("minId", start);
+            context.putLong("maxId", Math.min(start + span - 1, max));
+            context.putInt("partition", index);
+            partitions.put("partition" + index, context);
+            index++;
+        }
+        return partitions;
+    }
+}
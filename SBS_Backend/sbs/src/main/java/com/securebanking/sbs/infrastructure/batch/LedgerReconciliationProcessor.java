@@ -0,0 +1,57 @@
+package com.securebanking.sbs.infrastructure.batch;
+
+import com.securebanking.sbs.infrastructure.model.LedgerReconciliation;
+import com.securebanking.sbs.shared.model.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemProcessor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compares an account's stored balance with opening balance + credits - debits. Returns
+ * null, which filters the item out, when they agree. An account with no opening balance
+ * cannot be checked at all; it is filtered too, but counted in the step's execution
+ * context under {@link #MISSING_OPENING_BALANCE} and logged so the run reports it.
+ */
+public class LedgerReconciliationProcessor implements ItemProcessor<ReconciliationAccountRow, LedgerReconciliation> {
+
+    public static final String MISSING_OPENING_BALANCE = "missingOpeningBalanceCount";
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerReconciliationProcessor.class);
+
+    private final Long jobExecutionId;
+    private final ExecutionContext stepContext;
+
+    public LedgerReconciliationProcessor(Long jobExecutionId, ExecutionContext stepContext) {
+        this.jobExecutionId = jobExecutionId;
+        this.stepContext = stepContext;
+    }
+
+    @Override
+    public LedgerReconciliation process(ReconciliationAccountRow row) {
+        if (row.getOpeningBalance() == null) {
+            logger.warn("Account {} has no opening balance and cannot be reconciled", row.getAccountId());
+            stepContext.putLong(MISSING_OPENING_BALANCE, stepContext.getLong(MISSING_OPENING_BALANCE, 0) + 1);
+            return null;
+        }
+        Money recorded = Money.of(row.getRecordedBalance());
+        Money computed = Money.of(row.getOpeningBalance())
+                .plus(Money.of(row.getCredits()))
+                .minus(Money.of(row.getDebits()));
+        Money drift = recorded.minus(computed);
+        if (drift.isZero()) {
+            return null;
+        }
+
+        LedgerReconciliation reconciliation = new LedgerReconciliation();
+        reconciliation.setJobExecutionId(jobExecutionId);
+        reconciliation.setAccountId(row.getAccountId());
+        reconciliation.setRecordedBalance(recorded);
+        reconciliation.setComputedBalance(computed);
+        reconciliation.setDrift(drift);
+        reconciliation.setCheckedAt(LocalDateTime.now());
+        return reconciliation;
+    }
+}
@@ -0,0 +1,45 @@
+package com.securebanking.sbs.infrastructure.batch;
+
+import java.math.BigDecimal;
+
+/**
+ * An account's stored balance alongside the totals needed to recompute it, as read in a
+ * single paged query by the reconciliation job.
+ */
+public class ReconciliationAccountRow {
+
+    private final Long accountId;
+    private final BigDecimal recordedBalance;
+    private final BigDecimal openingBalance;
+    private final BigDecimal credits;
+    private final BigDecimal debits;
+
+    public ReconciliationAccountRow(Long accountId, BigDecimal recordedBalance, BigDecimal openingBalance,
+                                    BigDecimal credits, BigDecimal debits) {
+        this.accountId = accountId;
+        this.recordedBalance = recordedBalance;
+        this.openingBalance = openingBalance;
+        this.credits = credits;
+        this.debits = debits;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public BigDecimal getRecordedBalance() {
+        return recordedBalance;
+    }
+
+    public BigDecimal getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public BigDecimal getCredits() {
+        return credits;
+    }
+
+    public BigDecimal getDebits() {
+        return debits;
+    }
+}
@@ -0,0 +1,29 @@
+package com.securebanking.sbs.infrastructure.batch;
+
+/**
+ * Account row read by the statement job: just what is needed to build a statement.
+ */
+public class StatementAccountRow {
+
+    private final Long accountId;
+    private final String accountNumber;
+    private final Integer userId;
+
+    public StatementAccountRow(Long accountId, String accountNumber, Integer userId) {
+        this.accountId = accountId;
+        this.accountNumber = accountNumber;
+        this.userId = userId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+}
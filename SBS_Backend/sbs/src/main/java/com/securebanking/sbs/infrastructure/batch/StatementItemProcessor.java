@@ -0,0 +1,82 @@
+package com.securebanking.sbs.infrastructure.batch;
+
+import com.securebanking.sbs.modules.customer.model.Statement;
+import com.securebanking.sbs.shared.model.Money;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Builds one account's statement for [periodStart, periodEnd). Credits and debits are the
+ * transfers into and out of the account that settled in the period, plus any balance set by
+ * hand in it. The closing balance is derived backwards from the current balance by undoing
+ * everything booked since the period ended; balance and movements are read by one statement,
+ * so they come from the same snapshot.
+ */
+public class StatementItemProcessor implements ItemProcessor<StatementAccountRow, Statement> {
+
+    // The transfer branches are served by the partial (receiver|sender)_acc, settled_time indexes
+    private static final String TOTALS_SQL =
+            "SELECT " +
+            " COALESCE(SUM(CASE WHEN dir = 'C' AND booked_at < ? THEN amount END), 0) AS credits, " +
+            " COUNT(CASE WHEN dir = 'C' AND booked_at < ? THEN 1 END) AS credit_count, " +
+            " COALESCE(SUM(CASE WHEN dir = 'D' AND booked_at < ? THEN amount END), 0) AS debits, " +
+            " COUNT(CASE WHEN dir = 'D' AND booked_at < ? THEN 1 END) AS debit_count, " +
+            " COALESCE(SUM(CASE WHEN booked_at >= ? THEN CASE WHEN dir = 'C' THEN amount ELSE -amount END END), 0) AS net_after, " +
+            " (SELECT balance FROM accounts WHERE account_id = ?) AS balance " +
+            "FROM (" +
+            " SELECT 'C' AS dir, amount, settled_time AS booked_at FROM transactions " +
+            "  WHERE receiver_acc = ? AND sender_acc <> receiver_acc AND settled_time >= ? AND status IN ('APPROVED', 'COMPLETED') " +
+            " UNION ALL " +
+            " SELECT 'D' AS dir, amount, settled_time AS booked_at FROM transactions " +
+            "  WHERE sender_acc = ? AND sender_acc <> receiver_acc AND settled_time >= ? AND status IN ('APPROVED', 'COMPLETED') " +
+            " UNION ALL " +
+            " SELECT CASE WHEN amount > 0 THEN 'C' ELSE 'D' END AS dir, ABS(amount), adjusted_at AS booked_at " +
+            "  FROM account_balance_adjustments WHERE account_id = ? AND adjusted_at >= ?" +
+            ") movements";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalDate periodStart;
+    private final LocalDate periodEnd;
+
+    public StatementItemProcessor(JdbcTemplate jdbcTemplate, LocalDate periodStart, LocalDate periodEnd) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.periodStart = periodStart;
+        this.periodEnd = periodEnd;
+    }
+
+    @Override
+    public Statement process(StatementAccountRow account) {
+        Timestamp start = Timestamp.valueOf(periodStart.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(periodEnd.atStartOfDay());
+
+        return jdbcTemplate.queryForObject(TOTALS_SQL, (rs, rowNum) -> {
+            Money credits = Money.of(rs.getBigDecimal("credits"));
+            Money debits = Money.of(rs.getBigDecimal("debits"));
+            Money netAfter = Money.of(rs.getBigDecimal("net_after"));
+            BigDecimal balance = rs.getBigDecimal("balance");
+            Money current = Money.of(balance != null ? balance : BigDecimal.ZERO);
+            Money closing = current.minus(netAfter);
+
+            Statement statement = new Statement();
+            statement.setAccountId(account.getAccountId());
+            statement.setAccountNumber(account.getAccountNumber());
+            statement.setUserId(account.getUserId());
+            statement.setPeriodStart(periodStart);
+            statement.setPeriodEnd(periodEnd);
+            statement.setTotalCredits(credits);
+            statement.setTotalDebits(debits);
+            statement.setCreditCount(rs.getInt("credit_count"));
+            statement.setDebitCount(rs.getInt("debit_count"));
+            statement.setClosingBalance(closing);
+            statement.setOpeningBalance(closing.minus(credits).plus(debits));
+            statement.setGeneratedAt(LocalDateTime.now());
+            return statement;
+        }, end, end, end, end, end, account.getAccountId(),
+                account.getAccountId(), start, account.getAccountId(), start, account.getAccountId(), start);
+    }
+}
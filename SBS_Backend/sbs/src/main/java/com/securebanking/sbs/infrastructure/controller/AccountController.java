@@ -2,6 +2,8 @@ package com.securebanking.sbs.infrastructure.controller;
 
 import com.securebanking.sbs.infrastructure.service.AccountService;
 import com.securebanking.sbs.infrastructure.service.RequestService;
+import com.securebanking.sbs.infrastructure.service.StatementService;
+import com.securebanking.sbs.modules.customer.model.Statement;
 import com.securebanking.sbs.shared.dto.AccountDto;
 import com.securebanking.sbs.shared.dto.TransactionDto;
 import com.securebanking.sbs.infrastructure.repository.AccountRepo;
@@ -31,6 +33,9 @@ public class AccountController {
 
     @Autowired
     private RequestService requestService;
+
+    @Autowired
+    private StatementService statementService;
     
     @PostMapping("/account/createAccount")
     public ResponseEntity<?> createAccount(@RequestBody AccountDto accountDto) {
@@ -112,6 +117,16 @@ public class AccountController {
         }
     }
 
+    // Precomputed monthly statements, newest first (see StatementService)
+    @GetMapping("/account/{accountId}/statements")
+    public ResponseEntity<Map<String, Object>> getAccountStatements(@PathVariable Long accountId) {
+        List<Statement> statements = statementService.getStatements(accountId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("statements", statements);
+        response.put("totalCount", statements.size());
+        return ResponseEntity.ok(response);
+    }
+
     //Request Types - TransferFunds, Credit, Debit and delete
     @PostMapping("/account/{transactionType}/request")
     public ResponseEntity<String> transactionRequest(@RequestBody TransactionDto transactionDto) {
@@ -1,18 +1,27 @@
 package com.securebanking.sbs.infrastructure.controller;
 
 import com.securebanking.sbs.infrastructure.service.ApprovalWorkflowService;
+import com.securebanking.sbs.infrastructure.service.PendingQueueTracker;
+import com.securebanking.sbs.infrastructure.service.ReferenceDataService;
 import com.securebanking.sbs.shared.dto.AccountRequestDto;
+import com.securebanking.sbs.shared.dto.BatchTransactionDecisionDto;
+import com.securebanking.sbs.shared.dto.BatchTransactionResultDto;
 import com.securebanking.sbs.shared.dto.ProfileUpdateRequestDto;
-import com.securebanking.sbs.core.util.JwtUtil;
+import com.securebanking.sbs.shared.event.PendingQueueEvent;
+import com.securebanking.sbs.core.security.AuthenticatedUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.Map;
 import java.util.List;
+import java.util.LinkedHashMap;
 import com.securebanking.sbs.core.exception.ResourceNotFoundException;
 
 @RestController
@@ -25,11 +34,11 @@ public class ApprovalWorkflowController {
     @Autowired
     private ApprovalWorkflowService approvalWorkflowService;
     
-    @Autowired
-    private JwtUtil jwtUtil;
-    
     @Autowired
     private com.securebanking.sbs.infrastructure.repository.UserRepo userRepo;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
     
     // Test endpoint without authentication
     @GetMapping("/test")
@@ -146,29 +155,41 @@ public class ApprovalWorkflowController {
     
     // Get all pending requests for the logged-in approver
     @GetMapping("/pending")
-    public ResponseEntity<ApprovalWorkflowService.PendingRequestsDto> getPendingRequests(HttpServletRequest request) {
+    public ResponseEntity<ApprovalWorkflowService.PendingRequestsDto> getPendingRequests(HttpServletRequest request,
+                                                                                        WebRequest webRequest) {
         logger.info("Received request for pending approvals");
         
         try {
-            // Extract and validate token
-            String token = extractToken(request);
-            if (token == null) {
+            // JwtAuthenticationFilter has verified the token; its claims carry the id and role
+            AuthenticatedUser caller = AuthenticatedUser.current().orElse(null);
+            if (caller == null) {
                 logger.error("No valid authorization token found");
                 return ResponseEntity.status(401).body(null);
             }
-            
-            // Extract user ID from JWT token
-            Long userIdLong = jwtUtil.extractUserId(token);
-            if (userIdLong == null) {
+            if (caller.getUserId() == null) {
                 logger.error("Could not extract user ID from token");
                 return ResponseEntity.status(401).body(null);
             }
             
-            Integer approverId = userIdLong.intValue();
+            Integer approverId = caller.getUserId().intValue();
             logger.info("Approver ID extracted from token: {}", approverId);
             
+            if (caller.getRoleId() != null) {
+                if (!approvalWorkflowService.isApproverRole(caller.getRoleId())) {
+                    logger.error("User {} does not have approval privileges", caller.getUsername());
+                    return ResponseEntity.status(403).body(null);
+                }
+                // Version before the lists, so a change made while they load is not masked
+                String version = approvalWorkflowService.getPendingQueueState().getVersion();
+                if (webRequest.checkNotModified(version)) {
+                    return null;
+                }
+                return ResponseEntity.ok().eTag(version).body(approvalWorkflowService.getPendingRequests());
+            }
+            
+            // Tokens without a role claim fall back to checking the stored role
             // Verify user exists and has proper role
-            var user = userRepo.findById(approverId);
+            var user = referenceDataService.findUser(approverId);
             if (!user.isPresent()) {
                 logger.error("User not found with ID: {}", approverId);
                 return ResponseEntity.status(404).body(null);
@@ -186,6 +207,11 @@ public class ApprovalWorkflowController {
                 return ResponseEntity.status(403).body(null);
             }
             
+            String version = approvalWorkflowService.getPendingQueueState().getVersion();
+            if (webRequest.checkNotModified(version)) {
+                return null;
+            }
+
             // Get pending requests
             logger.info("Getting pending requests for user: {}", user.get().getUsername());
             ApprovalWorkflowService.PendingRequestsDto pendingRequests = 
@@ -195,7 +221,7 @@ public class ApprovalWorkflowController {
                        pendingRequests.getAccountRequests().size(), 
                        pendingRequests.getProfileRequests().size());
             
-            return ResponseEntity.ok(pendingRequests);
+            return ResponseEntity.ok().eTag(version).body(pendingRequests);
             
         } catch (ResourceNotFoundException e) {
             logger.error("Resource not found: {}", e.getMessage());
@@ -209,16 +235,58 @@ public class ApprovalWorkflowController {
         }
     }
     
+    // Queue sizes and version for dashboards that poll; answered from memory, 304 while unchanged
+    @GetMapping("/pending/summary")
+    public ResponseEntity<Map<String, Object>> getPendingSummary(WebRequest webRequest) {
+        HttpStatus denied = checkApprover();
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+
+        PendingQueueTracker.QueueState state = approvalWorkflowService.getPendingQueueState();
+        if (webRequest.checkNotModified(state.getVersion())) {
+            return null;
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("version", state.getVersion());
+        summary.put("accountRequests", state.getCounts().get(PendingQueueEvent.Queue.ACCOUNT_REQUESTS));
+        summary.put("profileRequests", state.getCounts().get(PendingQueueEvent.Queue.PROFILE_REQUESTS));
+        summary.put("transactionRequests", state.getCounts().get(PendingQueueEvent.Queue.TRANSACTIONS));
+        return ResponseEntity.ok().eTag(state.getVersion()).body(summary);
+    }
+
+    // Only what changed after the version given as ?since= or If-None-Match (the ETag of an
+    // earlier /pending, /pending/summary or /pending/changes response); 304 if nothing has
+    @GetMapping("/pending/changes")
+    public ResponseEntity<ApprovalWorkflowService.PendingChangesDto> getPendingChanges(
+            @RequestParam(value = "since", required = false) String since,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        HttpStatus denied = checkApprover();
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+
+        String sinceVersion = since != null ? since : ifNoneMatch;
+        String current = approvalWorkflowService.getPendingQueueState().getVersion();
+        if (sinceVersion != null && current.equals(sinceVersion.replace("W/", "").replace("\"", "").trim())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+        }
+        ApprovalWorkflowService.PendingChangesDto changes = approvalWorkflowService.getPendingChanges(sinceVersion);
+        return ResponseEntity.ok().eTag(changes.getVersion()).body(changes);
+    }
+
     // Approve account creation request
     @PostMapping("/account/approve/{requestId}")
     public ResponseEntity<AccountRequestDto> approveAccountRequest(
-            @PathVariable Integer requestId,
-            HttpServletRequest httpRequest) {
+            @PathVariable Integer requestId) {
+        HttpStatus denied = checkApprover();
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
         try {
             logger.info("=== Account approval request received for request ID: {} ===", requestId);
             
-            String token = extractToken(httpRequest);
-            Integer approverId = jwtUtil.extractUserId(token).intValue();
+            Integer approverId = approverId();
             
             logger.info("Approver ID: {}", approverId);
             
@@ -236,11 +304,13 @@ public class ApprovalWorkflowController {
     @PostMapping("/account/reject/{requestId}")
     public ResponseEntity<AccountRequestDto> rejectAccountRequest(
             @PathVariable Integer requestId,
-            @RequestBody(required = false) Map<String, String> requestBody,
-            HttpServletRequest httpRequest) {
+            @RequestBody(required = false) Map<String, String> requestBody) {
+        HttpStatus denied = checkApprover();
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
         try {
-            String token = extractToken(httpRequest);
-            Integer approverId = jwtUtil.extractUserId(token).intValue();
+            Integer approverId = approverId();
             
             String reason = requestBody != null ? requestBody.get("reason") : null;
             AccountRequestDto rejectedRequest = approvalWorkflowService.rejectAccountRequest(requestId, approverId, reason);
@@ -253,13 +323,15 @@ public class ApprovalWorkflowController {
     // Approve profile update request
     @PostMapping("/profile/approve/{requestId}")
     public ResponseEntity<ProfileUpdateRequestDto> approveProfileRequest(
-            @PathVariable Integer requestId,
-            HttpServletRequest httpRequest) {
+            @PathVariable Integer requestId) {
+        HttpStatus denied = checkApprover();
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
         try {
             logger.info("=== Profile approval request received for request ID: {} ===", requestId);
             
-            String token = extractToken(httpRequest);
-            Integer approverId = jwtUtil.extractUserId(token).intValue();
+            Integer approverId = approverId();
             
             logger.info("Approver ID: {}", approverId);
             
@@ -277,13 +349,15 @@ public class ApprovalWorkflowController {
     @PostMapping("/profile/reject/{requestId}")
     public ResponseEntity<ProfileUpdateRequestDto> rejectProfileRequest(
             @PathVariable Integer requestId,
-            @RequestBody(required = false) Map<String, String> requestBody,
-            HttpServletRequest httpRequest) {
+            @RequestBody(required = false) Map<String, String> requestBody) {
+        HttpStatus denied = checkApprover();
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
         try {
             logger.info("=== Profile rejection request received for request ID: {} ===", requestId);
             
-            String token = extractToken(httpRequest);
-            Integer approverId = jwtUtil.extractUserId(token).intValue();
+            Integer approverId = approverId();
             
             logger.info("Approver ID: {}", approverId);
             
@@ -300,13 +374,15 @@ public class ApprovalWorkflowController {
 
     @PostMapping("/transaction/approve/{transactionId}")
     public ResponseEntity<Map<String, Object>> approveTransaction(
-            @PathVariable Integer transactionId,
-            HttpServletRequest httpRequest) {
+            @PathVariable Integer transactionId) {
+        HttpStatus denied = checkApprover();
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
         try {
             logger.info("=== Transaction approval request received for transaction ID: {} ===", transactionId);
             
-            String token = extractToken(httpRequest);
-            Integer approverId = jwtUtil.extractUserId(token).intValue();
+            Integer approverId = approverId();
             
             logger.info("Approver ID: {}", approverId);
             
@@ -323,13 +399,15 @@ public class ApprovalWorkflowController {
     @PostMapping("/transaction/reject/{transactionId}")
     public ResponseEntity<Map<String, Object>> rejectTransaction(
             @PathVariable Integer transactionId,
-            @RequestBody(required = false) Map<String, String> requestBody,
-            HttpServletRequest httpRequest) {
+            @RequestBody(required = false) Map<String, String> requestBody) {
+        HttpStatus denied = checkApprover();
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
         try {
             logger.info("=== Transaction rejection request received for transaction ID: {} ===", transactionId);
             
-            String token = extractToken(httpRequest);
-            Integer approverId = jwtUtil.extractUserId(token).intValue();
+            Integer approverId = approverId();
             
             logger.info("Approver ID: {}", approverId);
             
@@ -344,27 +422,65 @@ public class ApprovalWorkflowController {
         }
     }
     
-    // Helper method to extract token from request
-    private String extractToken(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        
-        if (bearerToken == null) {
-            logger.warn("No Authorization header found");
-            return null;
+    @PostMapping("/transaction/approve/batch")
+    public ResponseEntity<?> approveTransactions(
+            @RequestBody BatchTransactionDecisionDto request) {
+        HttpStatus denied = checkApprover();
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
         }
-        
-        if (!bearerToken.startsWith("Bearer ")) {
-            logger.warn("Invalid Authorization header format. Expected 'Bearer <token>'");
-            return null;
+        try {
+            Integer approverId = approverId();
+
+            BatchTransactionResultDto result = approvalWorkflowService.approveTransactions(request.getTransactionIds(), approverId);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error in batch transaction approval: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().build();
         }
-        
-        String token = bearerToken.substring(7);
-        if (token.trim().isEmpty()) {
-            logger.warn("Empty token in Authorization header");
-            return null;
+    }
+
+    @PostMapping("/transaction/reject/batch")
+    public ResponseEntity<?> rejectTransactions(
+            @RequestBody BatchTransactionDecisionDto request) {
+        HttpStatus denied = checkApprover();
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
         }
-        
-        logger.info("Token extracted successfully: {}", token.substring(0, Math.min(20, token.length())) + "...");
-        return token;
+        try {
+            Integer approverId = approverId();
+
+            BatchTransactionResultDto result = approvalWorkflowService.rejectTransactions(
+                    request.getTransactionIds(), approverId, request.getReason());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error in batch transaction rejection: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Null when the caller may read the approval queues, otherwise the status to answer with
+    private HttpStatus checkApprover() {
+        AuthenticatedUser caller = AuthenticatedUser.current().orElse(null);
+        if (caller == null || caller.getUserId() == null) {
+            return HttpStatus.UNAUTHORIZED;
+        }
+        if (caller.getRoleId() != null) {
+            return approvalWorkflowService.isApproverRole(caller.getRoleId()) ? null : HttpStatus.FORBIDDEN;
+        }
+        var user = referenceDataService.findUser(caller.getUserId().intValue());
+        if (user.isEmpty()) {
+            return HttpStatus.NOT_FOUND;
+        }
+        return approvalWorkflowService.isApprover(user.get()) ? null : HttpStatus.FORBIDDEN;
+    }
+
+    // The caller's id from their token; only after checkApprover has let the request through
+    private Integer approverId() {
+        return AuthenticatedUser.current().orElseThrow().getUserId().intValue();
     }
-} 
\ No newline at end of file
+}
@@ -1,18 +1,20 @@
 package com.securebanking.sbs.infrastructure.controller;
 
+import com.securebanking.sbs.core.security.AuthenticatedUser;
 import com.securebanking.sbs.infrastructure.service.ActivityLogService;
-import com.securebanking.sbs.infrastructure.service.AccountService;
-import com.securebanking.sbs.infrastructure.service.TransactionService;
+import com.securebanking.sbs.infrastructure.service.ApprovalWorkflowService;
+import com.securebanking.sbs.infrastructure.service.DashboardSummaryService;
+import com.securebanking.sbs.infrastructure.model.UserDashboardSummary;
 import com.securebanking.sbs.shared.dto.AccountDto;
-import com.securebanking.sbs.shared.dto.TransactionDto;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
-import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 @RestController
 @RequestMapping("/api/v1/dashboard")
@@ -23,32 +25,24 @@ public class DashboardController {
     private ActivityLogService activityLogService;
     
     @Autowired
-    private AccountService accountService;
-    
+    private DashboardSummaryService dashboardSummaryService;
+
     @Autowired
-    private TransactionService transactionService;
+    private ApprovalWorkflowService approvalWorkflowService;
 
     @GetMapping("/{userId}")
     public ResponseEntity<Map<String, Object>> getDashboardStats(@PathVariable Integer userId) {
         try {
-            // Get user's accounts
-            List<AccountDto> userAccounts = accountService.getAllAccountsForUser(userId);
-            
-            // Calculate total balance
-            double totalBalance = userAccounts.stream()
-                .mapToDouble(account -> {
-                    String balance = account.getBalance();
-                    return balance != null ? Double.parseDouble(balance) : 0.0;
-                })
-                .sum();
-            
-            // Get recent transactions count
-            List<TransactionDto> recentTransactions = transactionService.getTransactionHistory(userId);
+            // One primary-key read of the maintained summary (see DashboardSummaryService)
+            UserDashboardSummary summary = dashboardSummaryService.getSummary(userId);
+            if (summary == null) {
+                return ResponseEntity.notFound().build();
+            }
             
             Map<String, Object> stats = new HashMap<>();
-            stats.put("totalAccounts", userAccounts.size());
-            stats.put("totalBalance", String.format("%.2f", totalBalance));
-            stats.put("recentTransactions", recentTransactions.size());
+            stats.put("totalAccounts", summary.getAccountCount());
+            stats.put("totalBalance", summary.getTotalBalance().toBigDecimal().setScale(2, RoundingMode.HALF_EVEN).toPlainString());
+            stats.put("recentTransactions", summary.getRecentTransactionCount());
             
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
@@ -58,6 +52,34 @@ public class DashboardController {
         }
     }
 
+    // Repair commands: recompute summaries from accounts and transactions. Staff only, since
+    // a full rebuild rescans every account.
+    @PostMapping("/{userId}/summary/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildDashboardSummary(@PathVariable Integer userId) {
+        HttpStatus denied = checkStaff();
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+        dashboardSummaryService.rebuild(userId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Dashboard summary rebuilt");
+        response.put("userId", userId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/summary/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildAllDashboardSummaries() {
+        HttpStatus denied = checkStaff();
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+        int rebuilt = dashboardSummaryService.rebuildAll();
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Dashboard summaries rebuilt");
+        response.put("rebuilt", rebuilt);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/activity/logs")
     public ResponseEntity<List<Map<String, Object>>> getActivityLogs() {
         try {
@@ -98,6 +120,14 @@ public class DashboardController {
         }
     }
     
+    private HttpStatus checkStaff() {
+        AuthenticatedUser caller = AuthenticatedUser.current().orElse(null);
+        if (caller == null) {
+            return HttpStatus.UNAUTHORIZED;
+        }
+        return approvalWorkflowService.isApproverRole(caller.getRoleId()) ? null : HttpStatus.FORBIDDEN;
+    }
+
     /**
      * Create sample activity logs for demonstration
      */
@@ -1,15 +1,26 @@
 package com.securebanking.sbs.infrastructure.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.securebanking.sbs.infrastructure.service.TransactionService;
 import com.securebanking.sbs.shared.dto.TransactionDto;
+import com.securebanking.sbs.shared.dto.TransactionPageDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.function.Consumer;
 import com.securebanking.sbs.modules.customer.model.Transaction;
 
 @RestController
@@ -17,19 +28,34 @@ import com.securebanking.sbs.modules.customer.model.Transaction;
 @CrossOrigin(origins = "*")
 public class TransactionController {
 
+    private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
+
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/history/{userId}")
-    public ResponseEntity<List<TransactionDto>> getTransactionHistory(@PathVariable Integer userId) {
+    public ResponseEntity<?> getTransactionHistory(@PathVariable Integer userId,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer limit) {
         try {
-            System.out.println("=== Getting transaction history for user ID: " + userId + " ===");
+            // Keyset mode when the client asks for a page; full list otherwise
+            if (cursor != null || limit != null) {
+                TransactionPageDto page = transactionService.getTransactionHistoryPage(userId, cursor, limit);
+                return ResponseEntity.ok(page);
+            }
             List<TransactionDto> transactions = transactionService.getTransactionHistory(userId);
-            System.out.println("=== Found " + transactions.size() + " transactions for user " + userId + " ===");
+            logger.debug("Found {} transactions for user {}", transactions.size(), userId);
             return ResponseEntity.ok(transactions);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Invalid pagination request");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
-            System.err.println("=== Error in getTransactionHistory for user " + userId + ": " + e.getMessage() + " ===");
-            e.printStackTrace();
+            logger.error("Error in getTransactionHistory for user {}: {}", userId, e.getMessage(), e);
             return ResponseEntity.status(500).build();
         }
     }
@@ -45,26 +71,91 @@ public class TransactionController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Map<String, Object>> getAllTransactions() {
+    public ResponseEntity<?> getAllTransactions(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit) {
+        if (cursor != null || limit != null) {
+            try {
+                TransactionPageDto page = transactionService.getAllTransactionsPage(cursor, limit);
+                Map<String, Object> response = new HashMap<>();
+                response.put("transactions", page.getTransactions());
+                response.put("nextCursor", page.getNextCursor());
+                response.put("hasMore", page.isHasMore());
+                response.put("count", page.getTransactions().size());
+                return ResponseEntity.ok(response);
+            } catch (Exception e) {
+                logger.error("Error in getAllTransactions: {}", e.getMessage(), e);
+
+                // Return a proper error response instead of just bad request
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("error", "Failed to retrieve transactions");
+                errorResponse.put("message", e.getMessage());
+                errorResponse.put("transactions", new ArrayList<>());
+                errorResponse.put("count", 0);
+                return ResponseEntity.ok(errorResponse); // Return 200 with error info instead of 400
+            }
+        }
+        // Unpaged: the same envelope as before, written row by row from a DB cursor
+        // instead of being collected into a list first
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator json = objectMapper.createGenerator(outputStream);
+            json.writeStartObject();
+            json.writeStringField("message", "All transactions retrieved successfully");
+            json.writeArrayFieldStart("transactions");
+            long count = streamAll("/all", dto -> {
+                try {
+                    json.writeObject(dto);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            json.writeEndArray();
+            json.writeNumberField("count", count);
+            json.writeEndObject();
+            json.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // Newline-delimited JSON export for admin tooling; rows are streamed straight from a DB cursor
+    @GetMapping(value = "/all/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportAllTransactions() {
+        StreamingResponseBody body = outputStream -> {
+            streamAll("/all/export", dto -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(dto));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Feeds every transaction to the writer. Once rows are on the wire the 200 cannot be taken
+     * back, so a failure part way through is logged and rethrown instead of letting the body
+     * be closed off: the container then drops the connection before the final chunk, and the
+     * client sees a truncated response rather than a well-formed list that is missing rows.
+     */
+    private long streamAll(String endpoint, Consumer<TransactionDto> writer) {
+        long[] written = {0};
         try {
-            List<TransactionDto> transactions = transactionService.getAllTransactions();
-            Map<String, Object> response = new HashMap<>();
-            response.put("transactions", transactions);
-            response.put("message", "All transactions retrieved successfully");
-            response.put("count", transactions.size());
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            // Log the exception for debugging
-            System.err.println("Error in getAllTransactions: " + e.getMessage());
-            e.printStackTrace();
-            
-            // Return a proper error response instead of just bad request
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Failed to retrieve transactions");
-            errorResponse.put("message", e.getMessage());
-            errorResponse.put("transactions", new ArrayList<>());
-            errorResponse.put("count", 0);
-            return ResponseEntity.ok(errorResponse); // Return 200 with error info instead of 400
+            return transactionService.streamAllTransactions(dto -> {
+                writer.accept(dto);
+                written[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            logger.warn("Client stopped reading {} after {} transactions: {}", endpoint, written[0], e.getMessage());
+            throw e;
+        } catch (RuntimeException e) {
+            logger.error("Streaming {} failed after {} transactions, aborting the response", endpoint, written[0], e);
+            throw new IllegalStateException("Aborted " + endpoint + " after " + written[0] + " transactions", e);
         }
     }
 
@@ -0,0 +1,98 @@
+package com.securebanking.sbs.infrastructure.model;
+
+import com.securebanking.sbs.shared.model.Money;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One account whose stored balance disagrees with its opening balance plus settled
+ * transaction history, as found by a run of the ledger reconciliation job. Accounts that
+ * reconcile cleanly are not recorded.
+ */
+@Entity
+@Table(name = "ledger_reconciliations", indexes = {
+        @Index(name = "idx_ledger_reconciliations_execution", columnList = "job_execution_id"),
+        @Index(name = "idx_ledger_reconciliations_account", columnList = "account_id, checked_at")
+})
+public class LedgerReconciliation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_execution_id", nullable = false)
+    private Long jobExecutionId;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private Money recordedBalance;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private Money computedBalance;
+
+    // recorded - computed; positive means the account holds more than its history explains
+    @Column(nullable = false, precision = 19, scale = 4)
+    private Money drift;
+
+    @Column(name = "checked_at", nullable = false)
+    private LocalDateTime checkedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getJobExecutionId() {
+        return jobExecutionId;
+    }
+
+    public void setJobExecutionId(Long jobExecutionId) {
+        this.jobExecutionId = jobExecutionId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public Money getRecordedBalance() {
+        return recordedBalance;
+    }
+
+    public void setRecordedBalance(Money recordedBalance) {
+        this.recordedBalance = recordedBalance;
+    }
+
+    public Money getComputedBalance() {
+        return computedBalance;
+    }
+
+    public void setComputedBalance(Money computedBalance) {
+        this.computedBalance = computedBalance;
+    }
+
+    public Money getDrift() {
+        return drift;
+    }
+
+    public void setDrift(Money drift) {
+        this.drift = drift;
+    }
+
+    public LocalDateTime getCheckedAt() {
+        return checkedAt;
+    }
+
+    public void setCheckedAt(LocalDateTime checkedAt) {
+        this.checkedAt = checkedAt;
+    }
+}
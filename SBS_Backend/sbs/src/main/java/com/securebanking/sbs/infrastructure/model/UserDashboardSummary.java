@@ -0,0 +1,73 @@
+package com.securebanking.sbs.infrastructure.model;
+
+import com.securebanking.sbs.shared.model.Money;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model behind the customer dashboard, one row per user. It is kept current by
+ * DashboardSummaryService as accounts are opened and money moves, and can be rebuilt
+ * from accounts and transactions at any time.
+ */
+@Entity
+@Table(name = "user_dashboard_summary")
+public class UserDashboardSummary {
+
+    @Id
+    @Column(name = "user_id")
+    private Integer userId;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private Money totalBalance;
+
+    @Column(nullable = false)
+    private int accountCount;
+
+    // Transactions created in the last 30 days, see user_daily_transaction_counts
+    @Column(nullable = false)
+    private int recentTransactionCount;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public Money getTotalBalance() {
+        return totalBalance;
+    }
+
+    public void setTotalBalance(Money totalBalance) {
+        this.totalBalance = totalBalance;
+    }
+
+    public int getAccountCount() {
+        return accountCount;
+    }
+
+    public void setAccountCount(int accountCount) {
+        this.accountCount = accountCount;
+    }
+
+    public int getRecentTransactionCount() {
+        return recentTransactionCount;
+    }
+
+    public void setRecentTransactionCount(int recentTransactionCount) {
+        this.recentTransactionCount = recentTransactionCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
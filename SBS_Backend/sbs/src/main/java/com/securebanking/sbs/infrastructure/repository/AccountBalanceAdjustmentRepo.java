@@ -0,0 +1,9 @@
+package com.securebanking.sbs.infrastructure.repository;
+
+import com.securebanking.sbs.modules.customer.model.AccountBalanceAdjustment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountBalanceAdjustmentRepo extends JpaRepository<AccountBalanceAdjustment, Long> {
+}
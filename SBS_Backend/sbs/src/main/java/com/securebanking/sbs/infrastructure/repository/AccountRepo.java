@@ -2,11 +2,17 @@ package com.securebanking.sbs.infrastructure.repository;
 
 import com.securebanking.sbs.modules.customer.model.Account;
 import com.securebanking.sbs.shared.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,4 +23,33 @@ public interface AccountRepo extends JpaRepository<Account, Long> {
 
     @Query("SELECT a FROM Account a WHERE a.accountNumber = :accountNumber")
     Account findbyaccountnumber(@Param("accountNumber") String accountNumber);
+
+    @Query("SELECT a.accountId FROM Account a WHERE a.accountNumber = :accountNumber")
+    Long findIdByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    @Query(value = "SELECT COALESCE(SUM(balance), 0) FROM accounts WHERE user_id = :userId", nativeQuery = true)
+    BigDecimal sumBalanceByUserId(@Param("userId") Integer userId);
+
+    @Query("SELECT COUNT(a) FROM Account a WHERE a.user.userId = :userId")
+    long countByUserId(@Param("userId") Integer userId);
+
+    @Query("SELECT a.user.userId FROM Account a WHERE a.accountId = :accountId")
+    Integer findUserIdByAccountId(@Param("accountId") Long accountId);
+
+    // Row locks in ascending id order; FOR UPDATE locks rows as the sort hands them out
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(value = "SELECT account_id FROM accounts WHERE account_id IN (:accountIds) ORDER BY account_id FOR UPDATE", nativeQuery = true)
+    List<Long> lockInIdOrder(@Param("accountIds") Collection<Long> accountIds);
+
+    // Single-statement balance moves; the returned row count tells the caller whether the guard held.
+    // They touch only accounts, so pending entity changes are left for the commit's flush.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(value = "UPDATE accounts SET balance = balance - :amount, version = version + 1 WHERE account_id = :accountId AND balance >= :amount", nativeQuery = true)
+    int debitIfSufficient(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(value = "UPDATE accounts SET balance = balance + :amount, version = version + 1 WHERE account_id = :accountId", nativeQuery = true)
+    int credit(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount);
 }
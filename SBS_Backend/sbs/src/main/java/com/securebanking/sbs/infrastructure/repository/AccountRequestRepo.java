@@ -1,18 +1,23 @@
 package com.securebanking.sbs.infrastructure.repository;
 
 import com.securebanking.sbs.modules.internal_user.model.AccountRequest;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AccountRequestRepo extends JpaRepository<AccountRequest, Integer> {
     
     // Find all requests for a specific user
+    @EntityGraph(attributePaths = "user")
     List<AccountRequest> findByUserIdOrderByTimestampDesc(Integer userId);
     
-    // Find all pending requests
+    // Find all pending requests; the DTO shows the requester's name, so load the user in the same query
+    @EntityGraph(attributePaths = "user")
     List<AccountRequest> findByStatusOrderByTimestampDesc(String status);
     
     // Find all requests for a specific user with a specific status
@@ -20,6 +25,14 @@ public interface AccountRequestRepo extends JpaRepository<AccountRequest, Intege
     
     // Count pending requests
     long countByStatus(String status);
+
+    // Ids only, for PendingQueueTracker's resync
+    @Query("SELECT a.id FROM AccountRequest a WHERE a.status = 'Pending'")
+    List<Integer> findPendingIds();
+
+    // The requests an approver's change feed reports as added, if they are still pending
+    @EntityGraph(attributePaths = "user")
+    List<AccountRequest> findByIdInAndStatus(Collection<Integer> ids, String status);
     
     // Find requests by user ID and account type
     List<AccountRequest> findByUserIdAndAccountTypeOrderByTimestampDesc(Integer userId, String accountType);
@@ -15,11 +15,15 @@ public interface ActivityLogRepo extends JpaRepository<ActivityLog, Integer> {
     @Query("SELECT a FROM ActivityLog a WHERE a.userId = :userId ORDER BY a.timestamp DESC")
     List<ActivityLog> findByUserIdOrderByTimestampDesc(@Param("userId") Integer userId);
     
-    @Query("SELECT a FROM ActivityLog a WHERE a.userId = :userId ORDER BY a.timestamp DESC LIMIT :limit")
-    List<ActivityLog> findRecentByUserIdOrderByTimestampDesc(@Param("userId") Integer userId, @Param("limit") int limit);
+    // The "recent" queries take a lower timestamp bound so only hot monthly partitions are scanned
+    @Query("SELECT a FROM ActivityLog a WHERE a.userId = :userId AND a.timestamp >= :since ORDER BY a.timestamp DESC LIMIT :limit")
+    List<ActivityLog> findRecentByUserIdOrderByTimestampDesc(@Param("userId") Integer userId, @Param("since") LocalDateTime since, @Param("limit") int limit);
     
-    @Query("SELECT a FROM ActivityLog a ORDER BY a.timestamp DESC LIMIT :limit")
-    List<ActivityLog> findRecentOrderByTimestampDesc(@Param("limit") int limit);
+    @Query("SELECT a FROM ActivityLog a WHERE a.timestamp >= :since ORDER BY a.timestamp DESC LIMIT :limit")
+    List<ActivityLog> findRecentOrderByTimestampDesc(@Param("since") LocalDateTime since, @Param("limit") int limit);
+    
+    @Query("SELECT a FROM ActivityLog a WHERE a.action = :action AND a.userId = :userId AND a.timestamp >= :since ORDER BY a.timestamp DESC LIMIT 1")
+    List<ActivityLog> findLatestByActionAndUserIdSince(@Param("action") String action, @Param("userId") Integer userId, @Param("since") LocalDateTime since);
     
     @Query("SELECT a FROM ActivityLog a WHERE a.action = :action AND a.userId = :userId ORDER BY a.timestamp DESC")
     List<ActivityLog> findByActionAndUserIdOrderByTimestampDesc(@Param("action") String action, @Param("userId") Integer userId);
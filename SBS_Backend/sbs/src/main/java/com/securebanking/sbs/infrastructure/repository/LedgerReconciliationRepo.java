@@ -0,0 +1,16 @@
+package com.securebanking.sbs.infrastructure.repository;
+
+import com.securebanking.sbs.infrastructure.model.LedgerReconciliation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LedgerReconciliationRepo extends JpaRepository<LedgerReconciliation, Long> {
+
+    @Query("SELECT r FROM LedgerReconciliation r WHERE r.jobExecutionId = :jobExecutionId ORDER BY r.accountId")
+    List<LedgerReconciliation> findByJobExecutionId(@Param("jobExecutionId") Long jobExecutionId);
+}
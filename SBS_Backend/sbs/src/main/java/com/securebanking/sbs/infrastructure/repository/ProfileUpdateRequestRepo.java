@@ -1,20 +1,24 @@
 package com.securebanking.sbs.infrastructure.repository;
 
 import com.securebanking.sbs.modules.internal_user.model.ProfileUpdateRequest;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProfileUpdateRequestRepo extends JpaRepository<ProfileUpdateRequest, Integer> {
     
     // Find all requests for a specific user
+    @EntityGraph(attributePaths = "user")
     List<ProfileUpdateRequest> findByUserIdOrderByTimestampDesc(Integer userId);
     
-    // Find all pending requests
+    // Find all pending requests; the DTO shows the requester's name, so load the user in the same query
+    @EntityGraph(attributePaths = "user")
     List<ProfileUpdateRequest> findByStatusOrderByTimestampDesc(String status);
     
     // Find all requests for a specific user with a specific status
@@ -22,6 +26,14 @@ public interface ProfileUpdateRequestRepo extends JpaRepository<ProfileUpdateReq
     
     // Count pending requests
     long countByStatus(String status);
+
+    // Ids only, for PendingQueueTracker's resync
+    @Query("SELECT p.id FROM ProfileUpdateRequest p WHERE p.status = 'Pending'")
+    List<Integer> findPendingIds();
+
+    // The requests an approver's change feed reports as added, if they are still pending
+    @EntityGraph(attributePaths = "user")
+    List<ProfileUpdateRequest> findByIdInAndStatus(Collection<Integer> ids, String status);
     
     // Find requests by user ID and request type
     List<ProfileUpdateRequest> findByUserIdAndRequestTypeOrderByTimestampDesc(Integer userId, String requestType);
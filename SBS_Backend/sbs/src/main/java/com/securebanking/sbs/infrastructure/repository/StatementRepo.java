@@ -0,0 +1,21 @@
+package com.securebanking.sbs.infrastructure.repository;
+
+import com.securebanking.sbs.modules.customer.model.Statement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StatementRepo extends JpaRepository<Statement, Long> {
+
+    @Query("SELECT s FROM Statement s WHERE s.accountId = :accountId ORDER BY s.periodStart DESC")
+    List<Statement> findByAccountIdOrderByPeriodStartDesc(@Param("accountId") Long accountId);
+
+    @Query("SELECT s FROM Statement s WHERE s.accountId = :accountId AND s.periodStart = :periodStart")
+    Optional<Statement> findByAccountIdAndPeriodStart(@Param("accountId") Long accountId, @Param("periodStart") LocalDate periodStart);
+}
@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +15,7 @@ public interface TransactionAuthorizationRepo extends JpaRepository<TransactionA
     
     @Query("SELECT ta FROM TransactionAuthorization ta WHERE ta.transaction.transactionId = :transactionId")
     Optional<TransactionAuthorization> findByTransactionTransactionId(@Param("transactionId") Integer transactionId);
+
+    @Query("SELECT ta FROM TransactionAuthorization ta LEFT JOIN FETCH ta.user WHERE ta.transaction.transactionId IN :transactionIds")
+    List<TransactionAuthorization> findByTransactionIds(@Param("transactionIds") Collection<Integer> transactionIds);
 }
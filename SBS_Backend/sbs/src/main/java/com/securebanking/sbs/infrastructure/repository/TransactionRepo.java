@@ -2,19 +2,99 @@ package com.securebanking.sbs.infrastructure.repository;
 
 import com.securebanking.sbs.modules.customer.model.Account;
 import com.securebanking.sbs.modules.customer.model.Transaction;
+import com.securebanking.sbs.shared.enums.RequestStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepo extends JpaRepository<Transaction, Integer> {
 
     @Query("SELECT t FROM Transaction t WHERE t.senderAcc = :account AND t.status = :status")
-    List<Transaction> findByAccountAndStatus(@Param("account") Account account, @Param("status") String status);
+    List<Transaction> findByAccountAndStatus(@Param("account") Account account, @Param("status") RequestStatus status);
     
+    @EntityGraph(Transaction.WITH_PARTIES)
     @Query("SELECT t FROM Transaction t WHERE t.status = :status ORDER BY t.createdtime DESC")
-    List<Transaction> findByStatusOrderByCreatedtimeDesc(@Param("status") String status);
+    List<Transaction> findByStatusOrderByCreatedtimeDesc(@Param("status") RequestStatus status);
+
+    @EntityGraph(Transaction.WITH_PARTIES)
+    @Query("SELECT t FROM Transaction t WHERE t.user.userId = :userId ORDER BY t.createdtime DESC")
+    List<Transaction> findByUserIdOrderByCreatedtimeDesc(@Param("userId") Integer userId);
+
+    @EntityGraph(Transaction.WITH_PARTIES)
+    @Query("SELECT t FROM Transaction t WHERE t.user.userId = :userId AND t.createdtime > :since ORDER BY t.createdtime DESC")
+    List<Transaction> findByUserIdAndCreatedtimeAfterOrderByCreatedtimeDesc(@Param("userId") Integer userId, @Param("since") LocalDateTime since);
+
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.user.userId = :userId AND t.createdtime > :since")
+    long countByUserIdAndCreatedtimeAfter(@Param("userId") Integer userId, @Param("since") LocalDateTime since);
+
+    @EntityGraph(Transaction.WITH_PARTIES)
+    @Query("SELECT t FROM Transaction t WHERE t.user.userId = :userId AND t.status = :status ORDER BY t.createdtime DESC")
+    List<Transaction> findByUserIdAndStatusOrderByCreatedtimeDesc(@Param("userId") Integer userId, @Param("status") RequestStatus status);
+
+    @EntityGraph(Transaction.WITH_PARTIES)
+    @Query("SELECT t FROM Transaction t WHERE (t.senderAcc.accountId = :accountId OR t.receiverAcc.accountId = :accountId) " +
+           "AND t.createdtime > :since ORDER BY t.createdtime DESC")
+    List<Transaction> findByAccountIdAndCreatedtimeAfterOrderByCreatedtimeDesc(@Param("accountId") Long accountId, @Param("since") LocalDateTime since);
+
+    // Keyset pages ordered by (created_time, transactionId) descending
+    @EntityGraph(Transaction.WITH_PARTIES)
+    @Query("SELECT t FROM Transaction t WHERE t.user.userId = :userId ORDER BY t.createdtime DESC, t.transactionId DESC")
+    List<Transaction> findHistoryPage(@Param("userId") Integer userId, Pageable pageable);
+
+    @EntityGraph(Transaction.WITH_PARTIES)
+    @Query("SELECT t FROM Transaction t WHERE t.user.userId = :userId " +
+           "AND (t.createdtime < :createdtime OR (t.createdtime = :createdtime AND t.transactionId < :transactionId)) " +
+           "ORDER BY t.createdtime DESC, t.transactionId DESC")
+    List<Transaction> findHistoryPageAfter(@Param("userId") Integer userId,
+                                           @Param("createdtime") LocalDateTime createdtime,
+                                           @Param("transactionId") Integer transactionId,
+                                           Pageable pageable);
+
+    @EntityGraph(Transaction.WITH_PARTIES)
+    @Query("SELECT t FROM Transaction t ORDER BY t.createdtime DESC, t.transactionId DESC")
+    List<Transaction> findAllPage(Pageable pageable);
+
+    @EntityGraph(Transaction.WITH_PARTIES)
+    @Query("SELECT t FROM Transaction t " +
+           "WHERE t.createdtime < :createdtime OR (t.createdtime = :createdtime AND t.transactionId < :transactionId) " +
+           "ORDER BY t.createdtime DESC, t.transactionId DESC")
+    List<Transaction> findAllPageAfter(@Param("createdtime") LocalDateTime createdtime,
+                                       @Param("transactionId") Integer transactionId,
+                                       Pageable pageable);
+
+    // Server-side cursor; must be consumed inside a transaction and closed by the caller
+    @EntityGraph(Transaction.WITH_PARTIES)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t FROM Transaction t ORDER BY t.createdtime DESC, t.transactionId DESC")
+    Stream<Transaction> streamAllOrderByCreatedtimeDesc();
+
+    // Approver queue. The status is a literal rather than a bind parameter so the planner can
+    // always match the partial index idx_transactions_pending_created (see post-schema-migrations.sql)
+    @EntityGraph(Transaction.WITH_PARTIES)
+    @Query("SELECT t FROM Transaction t " +
+           "WHERE t.status = com.securebanking.sbs.shared.enums.RequestStatus.PENDING " +
+           "ORDER BY t.createdtime DESC, t.transactionId DESC")
+    List<Transaction> findPendingQueue();
+
+    // Ids only, for PendingQueueTracker's resync
+    @Query("SELECT t.transactionId FROM Transaction t " +
+           "WHERE t.status = com.securebanking.sbs.shared.enums.RequestStatus.PENDING")
+    List<Integer> findPendingIds();
+
+    // Batch approvals load every row they touch up front instead of one lookup per item
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.user JOIN FETCH t.senderAcc LEFT JOIN FETCH t.receiverAcc " +
+           "WHERE t.transactionId IN :transactionIds")
+    List<Transaction> findAllWithAccountsByTransactionIdIn(@Param("transactionIds") Collection<Integer> transactionIds);
 }
@@ -0,0 +1,67 @@
+package com.securebanking.sbs.infrastructure.repository;
+
+import com.securebanking.sbs.infrastructure.model.UserDashboardSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Repository
+public interface UserDashboardSummaryRepo extends JpaRepository<UserDashboardSummary, Integer> {
+
+    // Increments only touch existing rows; a missing row is built from scratch on first read
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE user_dashboard_summary SET total_balance = total_balance + :balanceDelta, " +
+            "account_count = account_count + :accountDelta, updated_at = now() WHERE user_id = :userId", nativeQuery = true)
+    int applyDelta(@Param("userId") Integer userId, @Param("balanceDelta") BigDecimal balanceDelta,
+                   @Param("accountDelta") int accountDelta);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE user_dashboard_summary SET recent_transaction_count = recent_transaction_count + 1, " +
+            "updated_at = now() WHERE user_id = :userId", nativeQuery = true)
+    int incrementRecentTransactions(@Param("userId") Integer userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_daily_transaction_counts (user_id, day, tx_count) VALUES (:userId, :day, 1) " +
+            "ON CONFLICT (user_id, day) DO UPDATE SET tx_count = user_daily_transaction_counts.tx_count + 1", nativeQuery = true)
+    int incrementDailyTransactions(@Param("userId") Integer userId, @Param("day") LocalDate day);
+
+    // Days that fell out of the window are deleted and subtracted from the rolling count
+    @Modifying
+    @Query(value = "WITH expired AS (DELETE FROM user_daily_transaction_counts WHERE day < :windowStart " +
+            "RETURNING user_id, tx_count) " +
+            "UPDATE user_dashboard_summary s SET recent_transaction_count = GREATEST(s.recent_transaction_count - e.total, 0), " +
+            "updated_at = now() FROM (SELECT user_id, SUM(tx_count) AS total FROM expired GROUP BY user_id) e " +
+            "WHERE s.user_id = e.user_id", nativeQuery = true)
+    int expireDailyTransactions(@Param("windowStart") LocalDate windowStart);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_dashboard_summary (user_id, total_balance, account_count, recent_transaction_count, updated_at) " +
+            "SELECT u.user_id, " +
+            " COALESCE((SELECT SUM(a.balance) FROM accounts a WHERE a.user_id = u.user_id), 0), " +
+            " (SELECT COUNT(*) FROM accounts a WHERE a.user_id = u.user_id), " +
+            " (SELECT COUNT(*) FROM transactions t WHERE t.sender_id = u.user_id AND t.created_time >= :windowStart), " +
+            " now() " +
+            "FROM users u WHERE (CAST(:userId AS INTEGER) IS NULL OR u.user_id = :userId) " +
+            "ON CONFLICT (user_id) DO UPDATE SET total_balance = EXCLUDED.total_balance, " +
+            "account_count = EXCLUDED.account_count, recent_transaction_count = EXCLUDED.recent_transaction_count, " +
+            "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int rebuildSummaries(@Param("userId") Integer userId, @Param("windowStart") LocalDateTime windowStart);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_daily_transaction_counts WHERE (CAST(:userId AS INTEGER) IS NULL OR user_id = :userId)", nativeQuery = true)
+    int deleteDailyTransactions(@Param("userId") Integer userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_daily_transaction_counts (user_id, day, tx_count) " +
+            "SELECT t.sender_id, CAST(t.created_time AS DATE), COUNT(*) FROM transactions t " +
+            "WHERE t.sender_id IS NOT NULL AND t.created_time >= :windowStart " +
+            "AND (CAST(:userId AS INTEGER) IS NULL OR t.sender_id = :userId) " +
+            "GROUP BY t.sender_id, CAST(t.created_time AS DATE)", nativeQuery = true)
+    int rebuildDailyTransactions(@Param("userId") Integer userId, @Param("windowStart") LocalDateTime windowStart);
+}
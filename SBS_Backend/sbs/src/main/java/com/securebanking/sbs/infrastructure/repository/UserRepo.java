@@ -1,11 +1,15 @@
 package com.securebanking.sbs.infrastructure.repository;
 
+import com.securebanking.sbs.core.config.CacheConfig;
 import com.securebanking.sbs.modules.customer.model.Account;
 import com.securebanking.sbs.shared.model.User;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,4 +21,25 @@ public interface UserRepo extends JpaRepository<User, Integer> {
 
     @Query("SELECT u FROM User u")
     List<User> findAllUsers();
+
+    // Role is fetched with the user so the cached copy can be read outside a session
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.role WHERE u.userId = :userId")
+    Optional<User> findWithRoleById(@Param("userId") Integer userId);
+
+    // Every user write goes through here, so the user caches never serve a stale status or role
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.USERS, CacheConfig.USER_PROFILES}, key = "#p0.userId", condition = "#p0.userId != null")
+    <S extends User> S save(S user);
+
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.USERS, CacheConfig.USER_PROFILES}, key = "#p0.userId", condition = "#p0.userId != null")
+    void delete(User user);
+
+    // Compare-and-set so a background rehash never overwrites a password changed in the meantime
+    @Transactional
+    @Modifying
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#p0")
+    @Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.userId = :userId AND u.passwordHash = :oldHash")
+    int replacePasswordHash(@Param("userId") Integer userId, @Param("oldHash") String oldHash,
+                            @Param("newHash") String newHash);
 }
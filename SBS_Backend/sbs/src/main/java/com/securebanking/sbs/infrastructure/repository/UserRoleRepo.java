@@ -1,9 +1,15 @@
 package com.securebanking.sbs.infrastructure.repository;
 
+import com.securebanking.sbs.core.config.CacheConfig;
 import com.securebanking.sbs.shared.model.UserRole;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface UserRoleRepo extends JpaRepository<UserRole, Integer> {
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.ROLES, key = "#p0.roleId", condition = "#p0.roleId != null")
+    <S extends UserRole> S save(S userRole);
 }
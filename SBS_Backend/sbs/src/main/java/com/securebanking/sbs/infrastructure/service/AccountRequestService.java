@@ -2,6 +2,9 @@ package com.securebanking.sbs.infrastructure.service;
 
 import com.securebanking.sbs.shared.dto.AccountRequestDto;
 import com.securebanking.sbs.shared.event.NotificationEvent;
+import com.securebanking.sbs.shared.event.DomainEventBus;
+import com.securebanking.sbs.shared.event.PendingQueueEvent;
+import com.securebanking.sbs.shared.event.PendingQueueEvent.Queue;
 import com.securebanking.sbs.modules.internal_user.model.AccountRequest;
 import com.securebanking.sbs.shared.model.User;
 import com.securebanking.sbs.infrastructure.repository.AccountRequestRepo;
@@ -28,6 +31,9 @@ public class AccountRequestService {
     
     @Autowired
     private ActivityLogService activityLogService;
+
+    @Autowired
+    private DomainEventBus eventBus;
     
     // Submit a new account request
     @Transactional
@@ -46,6 +52,7 @@ public class AccountRequestService {
         
         // Save the request
         AccountRequest savedRequest = accountRequestRepo.save(request);
+        eventBus.publish(PendingQueueEvent.added(Queue.ACCOUNT_REQUESTS, savedRequest.getId()));
         
         // Log activity
         activityLogService.logActivity(
@@ -86,6 +93,7 @@ public class AccountRequestService {
         // Update the request status
         request.setStatus("Approved");
         AccountRequest savedRequest = accountRequestRepo.save(request);
+        eventBus.publish(PendingQueueEvent.removed(Queue.ACCOUNT_REQUESTS, requestId));
         
         // Create the actual account (you would implement this based on your account creation logic)
         createAccountFromRequest(request);
@@ -113,6 +121,7 @@ public class AccountRequestService {
         // Update the request status
         request.setStatus("Rejected");
         AccountRequest savedRequest = accountRequestRepo.save(request);
+        eventBus.publish(PendingQueueEvent.removed(Queue.ACCOUNT_REQUESTS, requestId));
         
         // Log activity
         activityLogService.logActivity(
@@ -2,27 +2,40 @@ package com.securebanking.sbs.infrastructure.service;
 
 import com.securebanking.sbs.shared.dto.AccountDto;
 import com.securebanking.sbs.shared.dto.TransactionDto;
-import com.securebanking.sbs.shared.enums.ApprovalStatus;
+import com.securebanking.sbs.shared.enums.RequestStatus;
 import com.securebanking.sbs.core.exception.DatabaseOperationException;
+import com.securebanking.sbs.core.exception.InsufficientFundsException;
 import com.securebanking.sbs.core.exception.NoAccountsFoundException;
 import com.securebanking.sbs.core.exception.ResourceNotFoundException;
+import com.securebanking.sbs.core.config.CacheConfig;
+import com.securebanking.sbs.core.util.OptimisticLockRetry;
 import com.securebanking.sbs.modules.customer.model.Account;
+import com.securebanking.sbs.modules.customer.model.AccountBalanceAdjustment;
 import com.securebanking.sbs.modules.customer.model.Transaction;
+import com.securebanking.sbs.shared.model.Money;
 import com.securebanking.sbs.shared.model.User;
+import com.securebanking.sbs.infrastructure.repository.AccountBalanceAdjustmentRepo;
 import com.securebanking.sbs.infrastructure.repository.AccountRepo;
 import com.securebanking.sbs.infrastructure.repository.TransactionRepo;
 import com.securebanking.sbs.infrastructure.repository.UserRepo;
 import com.securebanking.sbs.infrastructure.repository.UserRoleRepo;
 import com.securebanking.sbs.infrastructure.service.ActivityLogService;
 import com.securebanking.sbs.infrastructure.service.NotificationService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,15 +54,30 @@ public class AccountService {
     @Autowired
     private UserRepo userRepo;
 
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
     @Autowired
     private TransactionRepo transactionRepo;
 
+    @Autowired
+    private AccountBalanceAdjustmentRepo balanceAdjustmentRepo;
+
     @Autowired
     private ActivityLogService activityLogService;
 
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @Autowired
+    private DashboardSummaryService dashboardSummaryService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private static final Logger logger = LoggerFactory.getLogger(AccountService.class);
 
     public AccountDto createAccount(AccountDto accountDto) {
@@ -65,7 +93,8 @@ public class AccountService {
             Account account = new Account();
             account.setAccountNumber(generateUniqueAccountNumber());
             account.setAccountType(accountDto.getAccountType());
-            account.setBalance(accountDto.getBalance());
+            account.setBalance(Money.parse(accountDto.getBalance()));
+            account.setOpeningBalance(account.getBalance());
             account.setStatus(accountDto.getStatus());
             account.setUser(user);
             
@@ -73,6 +102,8 @@ public class AccountService {
                        account.getAccountNumber(), account.getAccountType(), account.getBalance(), account.getStatus());
 
             Account savedAccount = accountRepo.save(account);
+            dashboardSummaryService.accountOpened(user.getUserId(), savedAccount.getBalance());
+            referenceDataService.evictAccountsForUser(user.getUserId());
             
             logger.info("Account saved successfully with ID: {}", savedAccount.getAccountId());
             
@@ -91,25 +122,51 @@ public class AccountService {
         return String.valueOf(System.currentTimeMillis()) + (int)(Math.random() * 10000);
     }
     public void updateAccount(Long accountId, AccountDto accountDto) {
-        // Fetch the existing account
-        Account account = accountRepo.findById(accountId)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found with id " + accountId));
-
-        // Update the account details
-        updateAccountDetails(account, accountDto);
-        // Save the updated account
-        accountRepo.save(account);
+        optimisticLockRetry.run("updateAccount", () -> {
+            // Fetch the existing account
+            Account account = accountRepo.findById(accountId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Account not found with id " + accountId));
+
+            Money previousBalance = account.getBalance();
+
+            // Update the account details
+            updateAccountDetails(account, accountDto);
+            // Save the updated account
+            accountRepo.save(account);
+            referenceDataService.evictAccountNumber(account.getAccountNumber());
+
+            // Either side may be null on a legacy row; a missing balance counts as zero
+            Money balanceChange = Objects.equals(previousBalance, account.getBalance()) ? null
+                    : Objects.requireNonNullElse(account.getBalance(), Money.ZERO)
+                            .minus(Objects.requireNonNullElse(previousBalance, Money.ZERO));
+
+            // Booked like a transfer, so statements can tell when the balance changed
+            if (balanceChange != null) {
+                balanceAdjustmentRepo.save(new AccountBalanceAdjustment(accountId, balanceChange, LocalDateTime.now()));
+            }
+
+            if (account.getUser() != null) {
+                referenceDataService.evictAccountsForUser(account.getUser().getUserId());
+                if (balanceChange != null) {
+                    dashboardSummaryService.applyBalanceDeltas(Map.of(account.getUser().getUserId(), balanceChange));
+                }
+            }
+        });
     }
 
     public void updateAccountStatus(Long accountId, String status) {
         logger.info("Updating account {} status to: {}", accountId, status);
         
-        Account account = accountRepo.findById(accountId)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found with id " + accountId));
-
-        String previousStatus = account.getStatus();
-        account.setStatus(status);
-        accountRepo.save(account);
+        String[] previousStatusHolder = new String[1];
+        Account account = optimisticLockRetry.execute("updateAccountStatus", () -> {
+            Account current = accountRepo.findById(accountId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Account not found with id " + accountId));
+            previousStatusHolder[0] = current.getStatus();
+            current.setStatus(status);
+            return accountRepo.save(current);
+        });
+        String previousStatus = previousStatusHolder[0];
+        referenceDataService.evictAccountsForUser(account.getUser().getUserId());
         
         logger.info("Account {} status updated successfully to: {}", accountId, status);
         
@@ -145,6 +202,7 @@ public class AccountService {
             logger.error("Failed to log activity or send notification for account {} status change: {}", accountId, e.getMessage());
         }
     }
+    @Cacheable(cacheNames = CacheConfig.ACCOUNTS_BY_USER)
     public List<AccountDto> getAllAccountsForUser(Integer userId) {
         User user = userRepo.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
@@ -157,6 +215,15 @@ public class AccountService {
                 .collect(Collectors.toList());
     }
 
+    // Summed in the database over the NUMERIC column
+    public Money getTotalBalanceForUser(Integer userId) {
+        return Money.of(accountRepo.sumBalanceByUserId(userId));
+    }
+
+    public long getAccountCountForUser(Integer userId) {
+        return accountRepo.countByUserId(userId);
+    }
+
     public List<AccountDto> getAllAccounts() {
         try {
             List<Account> allAccounts = accountRepo.findAll();
@@ -188,62 +255,123 @@ public class AccountService {
 
 
     public void transferFunds(Transaction transaction) {
-        BigDecimal amount = new BigDecimal(transaction.getAmount());
+        optimisticLockRetry.run("transferFunds", () -> {
+            Transaction current = currentTransaction(transaction);
+            moveFunds(current.getSenderAcc(), current.getReceiverAcc(), current.getAmount());
+            current.setStatus(RequestStatus.COMPLETED); // use the appropriate status
+            current.setSettledtime(LocalDateTime.now());
+            transactionRepo.save(current);
+        });
+    }
+
+    public void executeTransaction(Transaction transaction) {
+        optimisticLockRetry.run("executeTransaction", () -> {
+            Transaction current = currentTransaction(transaction);
+            moveFunds(current.getSenderAcc(), current.getReceiverAcc(), current.getAmount());
+
+            // Update transaction status
+            current.setStatus(RequestStatus.COMPLETED);
+            current.setSettledtime(LocalDateTime.now());
+            transactionRepo.save(current);
+        });
+    }
 
-        Account senderAccount = transaction.getSenderAcc();
-        Account receiverAccount = transaction.getReceiverAcc();
+    /**
+     * Move money between two accounts with conditional single-row UPDATEs instead of
+     * read-modify-write on the entities. Rows are touched in ascending account id so
+     * concurrent transfers over the same pair always lock in the same order.
+     */
+    @Transactional
+    public void applyTransfer(Long senderAccountId, Long receiverAccountId, Money amount) {
+        moveBalances(senderAccountId, receiverAccountId, amount);
+        Integer senderUserId = accountRepo.findUserIdByAccountId(senderAccountId);
+        Integer receiverUserId = accountRepo.findUserIdByAccountId(receiverAccountId);
+        dashboardSummaryService.balanceMoved(senderUserId, receiverUserId, amount);
+        referenceDataService.evictAccountsForUser(senderUserId);
+        referenceDataService.evictAccountsForUser(receiverUserId);
+    }
 
-        BigDecimal senderBalance = new BigDecimal(senderAccount.getBalance());
-        if (senderBalance.compareTo(amount) < 0) {
-            throw new RuntimeException("Insufficient funds in the sender account");
+    /**
+     * The balance UPDATEs of applyTransfer without its dashboard and cache upkeep, for callers
+     * that do that once for many transfers. Not transactional itself: a failure is left to the
+     * caller's transaction, which can roll back to a savepoint and carry on.
+     */
+    public void moveBalances(Long senderAccountId, Long receiverAccountId, Money amount) {
+        if (amount == null || amount.isNegative() || amount.isZero()) {
+            throw new IllegalArgumentException("Transfer amount must be positive");
+        }
+        if (senderAccountId.equals(receiverAccountId)) {
+            throw new IllegalArgumentException("Sender and receiver accounts must differ");
         }
 
-        BigDecimal newSenderBalance = senderBalance.subtract(amount);
-        BigDecimal newReceiverBalance = new BigDecimal(receiverAccount.getBalance()).add(amount);
+        BigDecimal value = amount.toBigDecimal();
+        if (senderAccountId < receiverAccountId) {
+            debit(senderAccountId, value);
+            credit(receiverAccountId, value);
+        } else {
+            credit(receiverAccountId, value);
+            debit(senderAccountId, value);
+        }
+    }
 
-        senderAccount.setBalance(newSenderBalance.toString());
-        receiverAccount.setBalance(newReceiverBalance.toString());
-        accountRepo.save(senderAccount);
-        accountRepo.save(receiverAccount);
-        transaction.setStatus(ApprovalStatus.COMPLETED.toString()); // use the appropriate status
-        transactionRepo.save(transaction);
+    /**
+     * Locks the accounts' rows in ascending id order, the order applyTransfer takes its pair
+     * in, so a caller moving money among many accounts cannot deadlock with single transfers.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void lockAccounts(Collection<Long> accountIds) {
+        if (!accountIds.isEmpty()) {
+            accountRepo.lockInIdOrder(accountIds);
+        }
     }
 
-    @Transactional
-    public void executeTransaction(Transaction transaction) {
-        Account senderAccount = transaction.getSenderAcc();
-        Account receiverAccount = transaction.getReceiverAcc();
-        BigDecimal amount = new BigDecimal(transaction.getAmount());
-
-        // Ensure there are sufficient funds
-        BigDecimal senderBalance = new BigDecimal(senderAccount.getBalance());
-        if (senderBalance.compareTo(amount) < 0) {
-            throw new RuntimeException("Insufficient funds");
+    private void moveFunds(Account senderAccount, Account receiverAccount, Money amount) {
+        applyTransfer(senderAccount.getAccountId(), receiverAccount.getAccountId(), amount);
+
+        // The UPDATEs bypassed the persistence context; reload any managed copies
+        refreshIfManaged(senderAccount);
+        refreshIfManaged(receiverAccount);
+    }
+
+    private void debit(Long accountId, BigDecimal amount) {
+        if (accountRepo.debitIfSufficient(accountId, amount) != 1) {
+            if (!accountRepo.existsById(accountId)) {
+                throw new ResourceNotFoundException("Account not found with id " + accountId);
+            }
+            throw new InsufficientFundsException("Insufficient funds in account " + accountId);
         }
+    }
 
-        // Debit from sender
-        BigDecimal newSenderBalance = senderBalance.subtract(amount);
-        senderAccount.setBalance(newSenderBalance.toPlainString());
-        accountRepo.save(senderAccount);
+    private void credit(Long accountId, BigDecimal amount) {
+        if (accountRepo.credit(accountId, amount) != 1) {
+            throw new ResourceNotFoundException("Account not found with id " + accountId);
+        }
+    }
 
-        // Credit to receiver
-        BigDecimal receiverBalance = new BigDecimal(receiverAccount.getBalance());
-        BigDecimal newReceiverBalance = receiverBalance.add(amount);
-        receiverAccount.setBalance(newReceiverBalance.toPlainString());
-        accountRepo.save(receiverAccount);
+    private void refreshIfManaged(Account account) {
+        if (entityManager.contains(account)) {
+            entityManager.refresh(account);
+        }
+    }
 
-        // Update transaction status
-        transaction.setStatus(ApprovalStatus.COMPLETED.toString());
-        transactionRepo.save(transaction);
+    // A retried attempt must start from the row as it is now, not the caller's stale copy
+    private Transaction currentTransaction(Transaction transaction) {
+        if (transaction.getTransactionId() == null || entityManager.contains(transaction)) {
+            return transaction;
+        }
+        return transactionRepo.findById(transaction.getTransactionId())
+                .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id " + transaction.getTransactionId()));
     }
 
-    @Transactional
     public void delete(Transaction transaction) {
+        optimisticLockRetry.run("deleteAccount", () -> deleteAccount(currentTransaction(transaction)));
+    }
+
+    private void deleteAccount(Transaction transaction) {
         Account accountToDelete = transaction.getSenderAcc(); // Assuming the account to delete is the sender
 
         // Check if the account has a zero balance before proceeding
-        BigDecimal balance = new BigDecimal(accountToDelete.getBalance());
-        if (balance.compareTo(BigDecimal.ZERO) != 0) {
+        if (!accountToDelete.getBalance().isZero()) {
             throw new RuntimeException("Account balance must be zero to delete");
         }
         // Optionally, check for no pending transactions
@@ -255,9 +383,14 @@ public class AccountService {
 //        }
         // Proceed with account deletion
         accountRepo.delete(accountToDelete);
+        referenceDataService.evictAccountNumber(accountToDelete.getAccountNumber());
+        if (accountToDelete.getUser() != null) {
+            dashboardSummaryService.accountClosed(accountToDelete.getUser().getUserId(), accountToDelete.getBalance());
+            referenceDataService.evictAccountsForUser(accountToDelete.getUser().getUserId());
+        }
 
         // Optionally, update the transaction to reflect the account deletion
-        transaction.setStatus(ApprovalStatus.DELETED.toString());
+        transaction.setStatus(RequestStatus.DELETED);
         transactionRepo.save(transaction);
     }
 
@@ -310,14 +443,14 @@ public class AccountService {
         dto.setUserId(account.getUser().getId()); // This assumes a getter exists in the User class
         dto.setAccountNumber(account.getAccountNumber());
         dto.setAccountType(account.getAccountType());
-        dto.setBalance(account.getBalance());
+        dto.setBalance(account.getBalance() != null ? account.getBalance().toString() : null);
         dto.setStatus(account.getStatus());
         return dto;
     }
 
     private void updateAccountDetails(Account account, AccountDto accountDto){
         account.setAccountType(accountDto.getAccountType());
-        account.setBalance(accountDto.getBalance());
+        account.setBalance(Money.parse(accountDto.getBalance()));
         account.setStatus(accountDto.getStatus());
     }
 }
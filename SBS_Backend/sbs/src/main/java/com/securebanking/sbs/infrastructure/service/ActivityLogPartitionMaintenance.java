@@ -0,0 +1,234 @@
+package com.securebanking.sbs.infrastructure.service;
+
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the monthly partitions of activity_logs in shape. Upcoming months are created ahead
+ * of time so inserts rarely fall into the default partition, and months older than the
+ * retention window are exported to a gzip CSV under the archive directory, then detached
+ * and dropped. The export is written to a temporary file and renamed into place before the
+ * partition goes, so a failure part-way leaves the partition in the table.
+ * <p>
+ * The archive directory must be an absolute path on durable storage. Without one nothing
+ * is dropped: expired partitions stay in the table until a location is configured.
+ */
+@Service
+public class ActivityLogPartitionMaintenance {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogPartitionMaintenance.class);
+
+    private static final String PARENT_TABLE = "activity_logs";
+    private static final String PARTITION_PREFIX = "activity_logs_p";
+    private static final String DEFAULT_PARTITION = "activity_logs_default";
+    private static final String COLUMNS = "id, user_id, action, description, details, timestamp, ip_address, user_agent";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${sbs.activity-log.partitions.months-ahead:2}")
+    private int monthsAhead;
+
+    @Value("${sbs.activity-log.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${sbs.activity-log.archive.dir:}")
+    private String archiveDir;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        runQuietly();
+    }
+
+    @Scheduled(cron = "${sbs.activity-log.partitions.cron:0 15 2 * * *}")
+    public void runScheduled() {
+        runQuietly();
+    }
+
+    private void runQuietly() {
+        try {
+            ensureUpcomingPartitions();
+            archiveExpiredPartitions();
+        } catch (Exception e) {
+            logger.error("Activity log partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    public void ensureUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                ensurePartition(month);
+            } catch (RuntimeException e) {
+                // Its rows stay in the default partition; the next run tries the month again
+                logger.error("Skipping activity log partition {}: {}", partitionName(month), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Creates the month's partition. Postgres refuses to create a partition while the default
+     * partition holds rows in its range, so any such rows are moved into it in the same
+     * transaction: taken out of the default partition, the partition created, and the rows
+     * inserted back through the parent. New rows for the default partition wait on its lock
+     * meanwhile, so none can land there between the two steps.
+     */
+    public void ensurePartition(YearMonth month) {
+        if (partitionExists(month)) {
+            return;
+        }
+        String partition = partitionName(month);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        Long moved = transactionTemplate.execute(status -> {
+            long rows = 0;
+            if (defaultPartitionExists()) {
+                jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN SHARE ROW EXCLUSIVE MODE");
+                jdbcTemplate.execute("CREATE TEMPORARY TABLE activity_logs_moving ON COMMIT DROP AS " +
+                        "SELECT " + COLUMNS + " FROM " + DEFAULT_PARTITION + " WITH NO DATA");
+                rows = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                        " WHERE timestamp >= ? AND timestamp < ? RETURNING " + COLUMNS + ") " +
+                        "INSERT INTO activity_logs_moving SELECT * FROM moved", from, to);
+            }
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                    partition, PARENT_TABLE, from, to));
+            if (rows > 0) {
+                jdbcTemplate.update("INSERT INTO " + PARENT_TABLE + " (" + COLUMNS + ") " +
+                        "SELECT " + COLUMNS + " FROM activity_logs_moving");
+            }
+            return rows;
+        });
+        if (moved != null && moved > 0) {
+            logger.info("Created activity log partition {} and moved {} rows into it from {}",
+                    partition, moved, DEFAULT_PARTITION);
+        } else {
+            logger.info("Created activity log partition {}", partition);
+        }
+    }
+
+    /**
+     * Archives and drops every monthly partition that ends before the retention cutoff.
+     * Returns the archive files written.
+     */
+    public List<Path> archiveExpiredPartitions() throws IOException {
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+        List<YearMonth> expired = listPartitions().stream().filter(month -> month.isBefore(cutoff)).toList();
+        if (!expired.isEmpty() && archiveDir().isEmpty()) {
+            logger.warn("Keeping {} expired activity log partitions: sbs.activity-log.archive.dir is not set to an " +
+                    "absolute path, so they cannot be archived before being dropped", expired.size());
+            return List.of();
+        }
+        List<Path> archived = new ArrayList<>();
+        for (YearMonth month : expired) {
+            archived.add(archivePartition(month));
+        }
+        return archived;
+    }
+
+    public Path archivePartition(YearMonth month) throws IOException {
+        String partition = partitionName(month);
+        Path dir = archiveDir().orElseThrow(() -> new IllegalStateException(
+                "Refusing to drop " + partition + ": sbs.activity-log.archive.dir must be an absolute path on durable storage"));
+        Files.createDirectories(dir);
+        Path target = dir.resolve(partition + ".csv.gz");
+        Path temp = dir.resolve(partition + ".csv.gz.tmp");
+
+        long rows;
+        try (Connection connection = dataSource.getConnection();
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+            CopyManager copyManager = new CopyManager(connection.unwrap(BaseConnection.class));
+            rows = copyManager.copyOut("COPY (SELECT " + COLUMNS + " FROM " + partition +
+                    " ORDER BY timestamp, id) TO STDOUT WITH (FORMAT csv, HEADER)", out);
+        } catch (SQLException e) {
+            Files.deleteIfExists(temp);
+            throw new IllegalStateException("Failed to export " + partition + ": " + e.getMessage(), e);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+        });
+        logger.info("Archived {} rows from {} to {}", rows, partition, target);
+        return target;
+    }
+
+    // A relative path would land in the working directory, which does not outlive a container
+    private Optional<Path> archiveDir() {
+        if (archiveDir == null || archiveDir.isBlank()) {
+            return Optional.empty();
+        }
+        Path dir = Paths.get(archiveDir.trim());
+        return dir.isAbsolute() ? Optional.of(dir) : Optional.empty();
+    }
+
+    private boolean partitionExists(YearMonth month) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, partitionName(month));
+        return Boolean.TRUE.equals(exists);
+    }
+
+    private boolean defaultPartitionExists() {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, DEFAULT_PARTITION);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    private List<YearMonth> listPartitions() {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ? AND c.relname LIKE ? ORDER BY c.relname",
+                String.class, PARENT_TABLE, PARTITION_PREFIX + "%");
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : names) {
+            try {
+                months.add(YearMonth.parse(name.substring(PARTITION_PREFIX.length()), SUFFIX));
+            } catch (RuntimeException e) {
+                logger.warn("Ignoring unexpected activity log partition {}", name);
+            }
+        }
+        return months;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(SUFFIX);
+    }
+}
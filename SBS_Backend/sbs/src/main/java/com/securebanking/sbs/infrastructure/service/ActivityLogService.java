@@ -3,6 +3,7 @@ package com.securebanking.sbs.infrastructure.service;
 import com.securebanking.sbs.infrastructure.model.ActivityLog;
 import com.securebanking.sbs.infrastructure.repository.ActivityLogRepo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -17,33 +18,40 @@ public class ActivityLogService {
     @Autowired
     private ActivityLogRepo activityLogRepo;
     
+    @Autowired
+    private ActivityLogWriteBuffer writeBuffer;
+    
+    @Value("${sbs.activity-log.hot-window-days:90}")
+    private int hotWindowDays;
+    
     /**
-     * Log an activity for a user
+     * Log an activity for a user. The row is buffered and written in the next batch.
      */
     public void logActivity(Integer userId, String action, String description) {
-        ActivityLog activityLog = new ActivityLog(userId, action, description);
-        activityLogRepo.save(activityLog);
+        writeBuffer.add(new ActivityLog(userId, action, description));
     }
     
     /**
      * Log an activity for a user with additional details
      */
     public void logActivity(Integer userId, String action, String description, String details) {
-        ActivityLog activityLog = new ActivityLog(userId, action, description, details);
-        activityLogRepo.save(activityLog);
+        writeBuffer.add(new ActivityLog(userId, action, description, details));
     }
     
     /**
-     * Get recent activity logs for a specific user
+     * Get recent activity logs for a specific user. Reads flush the write buffer first so
+     * callers always see their own activity.
      */
     public List<ActivityLog> getUserActivityLogs(Integer userId, int limit) {
-        return activityLogRepo.findRecentByUserIdOrderByTimestampDesc(userId, limit);
+        writeBuffer.flush();
+        return activityLogRepo.findRecentByUserIdOrderByTimestampDesc(userId, hotWindowStart(), limit);
     }
     
     /**
      * Get all activity logs for a specific user
      */
     public List<ActivityLog> getUserActivityLogs(Integer userId) {
+        writeBuffer.flush();
         return activityLogRepo.findByUserIdOrderByTimestampDesc(userId);
     }
     
@@ -51,8 +59,9 @@ public class ActivityLogService {
      * Get activity logs for a user since their last login
      */
     public List<ActivityLog> getUserActivityLogsSinceLastLogin(Integer userId) {
+        writeBuffer.flush();
         // Find the last login activity for this user
-        List<ActivityLog> loginActivities = activityLogRepo.findByActionAndUserIdOrderByTimestampDesc("User Login", userId);
+        List<ActivityLog> loginActivities = activityLogRepo.findLatestByActionAndUserIdSince("User Login", userId, hotWindowStart());
         
         if (loginActivities.isEmpty()) {
             // If no login activity found, return recent activities (last 24 hours)
@@ -71,16 +80,23 @@ public class ActivityLogService {
      * Get recent activity logs for all users
      */
     public List<ActivityLog> getRecentActivityLogs(int limit) {
-        return activityLogRepo.findRecentOrderByTimestampDesc(limit);
+        writeBuffer.flush();
+        return activityLogRepo.findRecentOrderByTimestampDesc(hotWindowStart(), limit);
     }
     
     /**
      * Get activity logs by action for a specific user
      */
     public List<ActivityLog> getActivityLogsByAction(Integer userId, String action) {
+        writeBuffer.flush();
         return activityLogRepo.findByActionAndUserIdOrderByTimestampDesc(action, userId);
     }
     
+    // Dashboard feeds only look this far back, which keeps them on the hot partitions
+    private LocalDateTime hotWindowStart() {
+        return LocalDateTime.now().minusDays(hotWindowDays);
+    }
+    
     /**
      * Convert ActivityLog to Map for API response
      */
@@ -0,0 +1,257 @@
+package com.securebanking.sbs.infrastructure.service;
+
+import com.securebanking.sbs.infrastructure.model.ActivityLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for activity_logs. Callers only enqueue; a background flusher writes
+ * the accumulated rows with one JDBC batch per flush, either every flush interval or as soon
+ * as a full batch is waiting. When the buffer is at capacity the caller waits up to the
+ * offer timeout for the flusher to make room, so a slow database pushes back on producers
+ * without growing the heap; a row that still finds no room is dropped and counted.
+ *
+ * A batch the database rejects as a whole is retried one row at a time, and rows it rejects
+ * on their own (too long, null where not allowed) are logged and dropped, so one bad row can
+ * never hold up the rest. Any other failure, such as the database being unreachable, puts
+ * the rows back for the next flush. Neither add() nor flush() throws.
+ */
+@Component
+public class ActivityLogWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogWriteBuffer.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO activity_logs (user_id, action, description, details, timestamp, ip_address, user_agent) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sbs.activity-log.buffer.capacity:10000}")
+    private int capacity;
+
+    @Value("${sbs.activity-log.buffer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${sbs.activity-log.buffer.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${sbs.activity-log.buffer.offer-timeout-ms:200}")
+    private long offerTimeoutMs;
+
+    private final ConcurrentLinkedQueue<ActivityLog> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Producers blocked on a full buffer wait here; signalled whenever rows are written or dropped
+    private final ReentrantLock spaceLock = new ReentrantLock();
+    private final Condition spaceAvailable = spaceLock.newCondition();
+
+    private ScheduledExecutorService flusher;
+    private Counter writtenCounter;
+    private Counter backpressureCounter;
+    private Counter failedCounter;
+    private Counter rejectedCounter;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    void init() {
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "activity-log-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        writtenCounter = meterRegistry.counter("sbs.activity_log.written");
+        backpressureCounter = meterRegistry.counter("sbs.activity_log.backpressure");
+        failedCounter = meterRegistry.counter("sbs.activity_log.write_failures");
+        rejectedCounter = meterRegistry.counter("sbs.activity_log.rejected");
+        droppedCounter = meterRegistry.counter("sbs.activity_log.dropped");
+        meterRegistry.gauge("sbs.activity_log.buffered", size);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        // Whatever is left goes out on the shutdown thread
+        flushQuietly();
+        if (size.get() > 0) {
+            logger.error("Discarding {} buffered activity log rows at shutdown", size.get());
+        }
+    }
+
+    public void add(ActivityLog activityLog) {
+        if (size.get() >= capacity) {
+            backpressureCounter.increment();
+            requestFlush();
+            if (!awaitSpace()) {
+                droppedCounter.increment();
+                logger.warn("Activity log buffer full, dropped {} row for user {}",
+                        activityLog.getAction(), activityLog.getUserId());
+                return;
+            }
+        }
+        queue.offer(activityLog);
+        if (size.incrementAndGet() >= batchSize) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * Writes everything buffered so far. Returns the number of rows written; rows that could
+     * not be written stay buffered, or are dropped if the database rejects them outright.
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            int written = 0;
+            List<ActivityLog> batch;
+            while (!(batch = drain()).isEmpty()) {
+                try {
+                    insert(batch);
+                    written += batch.size();
+                    writtenCounter.increment(batch.size());
+                    release(batch.size());
+                } catch (DataIntegrityViolationException e) {
+                    int rowsWritten = insertOneByOne(batch);
+                    if (rowsWritten < 0) {
+                        break;
+                    }
+                    written += rowsWritten;
+                } catch (RuntimeException e) {
+                    failedCounter.increment();
+                    requeue(batch);
+                    logger.error("Activity log flush failed, {} rows still buffered: {}", size.get(), e.getMessage());
+                    break;
+                }
+            }
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Returns the rows written, or -1 if a failure other than a rejected row stopped it
+    private int insertOneByOne(List<ActivityLog> batch) {
+        int written = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            ActivityLog activityLog = batch.get(i);
+            try {
+                insert(List.of(activityLog));
+                written++;
+                writtenCounter.increment();
+                release(1);
+            } catch (DataIntegrityViolationException e) {
+                rejectedCounter.increment();
+                release(1);
+                logger.error("Dropping activity log row the database rejected (user {}, action {}): {}",
+                        activityLog.getUserId(), activityLog.getAction(), e.getMostSpecificCause().getMessage());
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                requeue(batch.subList(i, batch.size()));
+                logger.error("Activity log flush failed, {} rows still buffered: {}", size.get(), e.getMessage());
+                return -1;
+            }
+        }
+        return written;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("Activity log flush failed, {} rows still buffered: {}", size.get(), e.getMessage());
+        }
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    private boolean awaitSpace() {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        spaceLock.lock();
+        try {
+            while (size.get() >= capacity) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = spaceAvailable.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            spaceLock.unlock();
+        }
+    }
+
+    private List<ActivityLog> drain() {
+        List<ActivityLog> batch = new ArrayList<>(Math.min(batchSize, Math.max(size.get(), 1)));
+        ActivityLog next;
+        while (batch.size() < batchSize && (next = queue.poll()) != null) {
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    // Rows count against capacity until they are written or dropped, not just drained
+    private void release(int rows) {
+        size.addAndGet(-rows);
+        spaceLock.lock();
+        try {
+            spaceAvailable.signalAll();
+        } finally {
+            spaceLock.unlock();
+        }
+    }
+
+    private void requeue(List<ActivityLog> batch) {
+        // Order is lost on requeue, but each row keeps the timestamp it was logged with
+        for (ActivityLog activityLog : batch) {
+            queue.offer(activityLog);
+        }
+    }
+
+    private void insert(List<ActivityLog> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, log) -> {
+            ps.setObject(1, log.getUserId());
+            ps.setString(2, log.getAction());
+            ps.setString(3, log.getDescription());
+            ps.setString(4, log.getDetails());
+            ps.setTimestamp(5, Timestamp.valueOf(log.getTimestamp()));
+            ps.setString(6, log.getIpAddress());
+            ps.setString(7, log.getUserAgent());
+        });
+    }
+}
@@ -1,20 +1,35 @@
 package com.securebanking.sbs.infrastructure.service;
 
 import com.securebanking.sbs.shared.dto.AccountRequestDto;
+import com.securebanking.sbs.shared.dto.BatchTransactionResultDto;
 import com.securebanking.sbs.shared.dto.ProfileUpdateRequestDto;
+import com.securebanking.sbs.shared.event.ActivityEvent;
+import com.securebanking.sbs.shared.event.DomainEventBus;
 import com.securebanking.sbs.shared.event.NotificationEvent;
+import com.securebanking.sbs.shared.event.PendingQueueEvent;
+import com.securebanking.sbs.shared.event.PendingQueueEvent.Queue;
 import com.securebanking.sbs.modules.internal_user.model.AccountRequest;
 import com.securebanking.sbs.modules.internal_user.model.ProfileUpdateRequest;
+import com.securebanking.sbs.shared.model.Money;
 import com.securebanking.sbs.shared.model.User;
 import com.securebanking.sbs.infrastructure.repository.AccountRequestRepo;
 import com.securebanking.sbs.infrastructure.repository.ProfileUpdateRequestRepo;
 import com.securebanking.sbs.infrastructure.repository.UserRepo;
+import com.securebanking.sbs.core.exception.InsufficientFundsException;
 import com.securebanking.sbs.core.exception.ResourceNotFoundException;
+import com.securebanking.sbs.core.util.OptimisticLockRetry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -28,13 +43,22 @@ import com.securebanking.sbs.modules.customer.model.TransactionAuthorization;
 
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import com.securebanking.sbs.shared.dto.TransactionDto;
+import com.securebanking.sbs.shared.enums.ApprovalStatus;
 import com.securebanking.sbs.shared.enums.RequestStatus;
 
 @Service
 public class ApprovalWorkflowService {
     
     private static final Logger logger = LoggerFactory.getLogger(ApprovalWorkflowService.class);
+
+    private static final int BATCH_CHUNK_SIZE = 200;
+    private static final int MAX_BATCH_ITEMS = 5000;
     
     @Autowired
     private AccountRequestRepo accountRequestRepo;
@@ -44,15 +68,16 @@ public class ApprovalWorkflowService {
     
     @Autowired
     private UserRepo userRepo;
-    
+
     @Autowired
-    private NotificationService notificationService;
+    private ReferenceDataService referenceDataService;
     
+    @Autowired
+    private DomainEventBus eventBus;
+
     @Autowired
     private EmailService emailService;
     
-    // KafkaEventService removed for Render deployment
-    
     @Autowired
     private ProfileUpdateRequestService profileUpdateRequestService;
 
@@ -66,7 +91,30 @@ public class ApprovalWorkflowService {
     private TransactionAuthorizationRepo transactionAuthorizationRepo;
     
     @Autowired
-    private ActivityLogService activityLogService;
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @Autowired
+    private PendingQueueTracker pendingQueueTracker;
+
+    @Autowired
+    private DashboardSummaryService dashboardSummaryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sbs.approval.batch.lock-attempts:3}")
+    private int batchLockAttempts;
+
+    private TransactionTemplate itemSavepoint;
+
+    @PostConstruct
+    void init() {
+        itemSavepoint = new TransactionTemplate(transactionManager);
+        itemSavepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
     
     // Get all pending requests for Admin and InternalUser roles
     public PendingRequestsDto getPendingRequestsForApprover(Integer approverId) {
@@ -79,7 +127,7 @@ public class ApprovalWorkflowService {
                 throw new RuntimeException("Approver ID is null");
             }
             
-            User approver = userRepo.findById(approverId)
+            User approver = referenceDataService.findUser(approverId)
                     .orElseThrow(() -> new ResourceNotFoundException("Approver not found with ID: " + approverId));
             
             logger.info("Found approver: {} (ID: {})", approver.getUsername(), approver.getUserId());
@@ -94,16 +142,7 @@ public class ApprovalWorkflowService {
             
             logger.info("User {} has approval privileges", approver.getUsername());
             
-            List<AccountRequestDto> pendingAccountRequests = getPendingAccountRequests();
-            List<ProfileUpdateRequestDto> pendingProfileRequests = getPendingProfileRequests();
-            
-            // Get pending transaction requests with robust error handling
-            List<TransactionDto> pendingTransactionRequests = getPendingTransactionRequests();
-            
-            logger.info("Retrieved {} account requests, {} profile requests, and {} transaction requests", 
-                       pendingAccountRequests.size(), pendingProfileRequests.size(), pendingTransactionRequests.size());
-            
-            return new PendingRequestsDto(pendingAccountRequests, pendingProfileRequests, pendingTransactionRequests);
+            return getPendingRequests();
         } catch (ResourceNotFoundException e) {
             logger.error("Resource not found: {}", e.getMessage());
             throw e;
@@ -116,6 +155,89 @@ public class ApprovalWorkflowService {
         }
     }
     
+    // All pending requests; the caller has already checked that the approver may see them
+    public PendingRequestsDto getPendingRequests() {
+        List<AccountRequestDto> pendingAccountRequests = getPendingAccountRequests();
+        List<ProfileUpdateRequestDto> pendingProfileRequests = getPendingProfileRequests();
+        
+        // Get pending transaction requests with robust error handling
+        List<TransactionDto> pendingTransactionRequests = getPendingTransactionRequests();
+        
+        logger.info("Retrieved {} account requests, {} profile requests, and {} transaction requests", 
+                   pendingAccountRequests.size(), pendingProfileRequests.size(), pendingTransactionRequests.size());
+        
+        return new PendingRequestsDto(pendingAccountRequests, pendingProfileRequests, pendingTransactionRequests);
+    }
+
+    // Version and sizes of the pending queues, answered from memory
+    public PendingQueueTracker.QueueState getPendingQueueState() {
+        return pendingQueueTracker.state();
+    }
+
+    // What changed in the pending queues after the given version. Only items added since are
+    // loaded; a version the tracker cannot answer for gets the full lists, marked as such.
+    public PendingChangesDto getPendingChanges(String sinceVersion) {
+        Optional<PendingQueueTracker.Delta> delta = pendingQueueTracker.changesSince(sinceVersion);
+        if (delta.isEmpty()) {
+            // Version first, so anything that changes while the lists load is sent again next time
+            String version = pendingQueueTracker.state().getVersion();
+            PendingRequestsDto all = getPendingRequests();
+            return new PendingChangesDto(version, true, all.getAccountRequests(), all.getProfileRequests(),
+                    all.getTransactionRequests(), Map.of(
+                            "accountRequests", all.getAccountRequests().size(),
+                            "profileRequests", all.getProfileRequests().size(),
+                            "transactionRequests", all.getTransactionRequests().size()));
+        }
+
+        PendingQueueTracker.Delta changes = delta.get();
+        PendingChangesDto result = new PendingChangesDto(changes.getVersion(), false,
+                loadPendingAccountRequests(changes.getAdded(Queue.ACCOUNT_REQUESTS)),
+                loadPendingProfileRequests(changes.getAdded(Queue.PROFILE_REQUESTS)),
+                loadPendingTransactions(changes.getAdded(Queue.TRANSACTIONS)),
+                Map.of(
+                        "accountRequests", changes.getCounts().get(Queue.ACCOUNT_REQUESTS),
+                        "profileRequests", changes.getCounts().get(Queue.PROFILE_REQUESTS),
+                        "transactionRequests", changes.getCounts().get(Queue.TRANSACTIONS)));
+        result.setRemovedAccountRequestIds(changes.getRemoved(Queue.ACCOUNT_REQUESTS));
+        result.setRemovedProfileRequestIds(changes.getRemoved(Queue.PROFILE_REQUESTS));
+        result.setRemovedTransactionIds(changes.getRemoved(Queue.TRANSACTIONS));
+        return result;
+    }
+
+    private List<AccountRequestDto> loadPendingAccountRequests(Set<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return accountRequestRepo.findByIdInAndStatus(ids, "Pending").stream()
+                .map(this::convertAccountRequestToDto)
+                .collect(Collectors.toList());
+    }
+
+    private List<ProfileUpdateRequestDto> loadPendingProfileRequests(Set<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return profileUpdateRequestRepo.findByIdInAndStatus(ids, "Pending").stream()
+                .map(this::convertProfileRequestToDto)
+                .collect(Collectors.toList());
+    }
+
+    private List<TransactionDto> loadPendingTransactions(Set<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return transactionRepo.findAllWithAccountsByTransactionIdIn(ids).stream()
+                .filter(transaction -> transaction.getStatus() == RequestStatus.PENDING)
+                .map(this::convertTransactionToDto)
+                .collect(Collectors.toList());
+    }
+    
+    // Admin (roleId = 1) and InternalUser (roleId = 3) approve requests. Works from the role id
+    // in the caller's token, so no user or role row has to be loaded.
+    public boolean isApproverRole(Integer roleId) {
+        return roleId != null && (roleId == 1 || roleId == 3);
+    }
+    
     // Check if user is an approver (Admin or InternalUser)
     public boolean isApprover(User user) {
         if (user.getRole() == null) {
@@ -128,7 +250,7 @@ public class ApprovalWorkflowService {
         logger.info("Checking if user {} with role '{}' (ID: {}) is an approver", user.getUsername(), roleName, roleId);
         
         // Check for Admin role (roleId = 1) or InternalUser role (roleId = 3)
-        if (roleId != null && (roleId == 1 || roleId == 3)) {
+        if (isApproverRole(roleId)) {
             logger.info("User {} is an approver (role: {})", user.getUsername(), roleName);
             return true;
         }
@@ -163,48 +285,12 @@ public class ApprovalWorkflowService {
 
     // Get pending transaction requests
     public List<TransactionDto> getPendingTransactionRequests() {
-        try {
-            logger.info("Getting pending transaction requests...");
-            
-            // Get all transactions and filter for pending ones manually to avoid database query issues
-            List<Transaction> allTransactions = transactionRepo.findAll();
-            logger.info("Found {} total transactions in database", allTransactions.size());
-            
-            List<Transaction> pendingTransactions = new ArrayList<>();
-            for (Transaction transaction : allTransactions) {
-                String status = transaction.getStatus();
-                if (status != null && (status.equalsIgnoreCase("PENDING") || 
-                                      status.equalsIgnoreCase("Pending") || 
-                                      status.equalsIgnoreCase("pending"))) {
-                    pendingTransactions.add(transaction);
-                }
-            }
-            
-            logger.info("Found {} pending transactions after filtering", pendingTransactions.size());
-            
-            List<TransactionDto> dtos = new ArrayList<>();
-            for (Transaction transaction : pendingTransactions) {
-                try {
-                    logger.info("Converting transaction ID: {} with status: {}", 
-                               transaction.getTransactionId(), transaction.getStatus());
-                    TransactionDto dto = convertTransactionToDto(transaction);
-                    dtos.add(dto);
-                    logger.info("Successfully converted transaction ID: {}", transaction.getTransactionId());
-                } catch (Exception e) {
-                    logger.error("Error converting transaction ID {}: {}", 
-                                transaction.getTransactionId(), e.getMessage(), e);
-                    // Continue with other transactions instead of failing completely
-                    logger.warn("Skipping transaction ID {} due to conversion error", transaction.getTransactionId());
-                }
-            }
-            
-            logger.info("Successfully converted {} transactions to DTOs", dtos.size());
-            return dtos;
-        } catch (Exception e) {
-            logger.error("Error in getPendingTransactionRequests: {}", e.getMessage(), e);
-            // Return empty list instead of throwing exception to prevent 500 errors
-            return new ArrayList<>();
-        }
+        // Served by the partial index on pending rows, accounts fetched in the same query
+        List<Transaction> pendingTransactions = transactionRepo.findPendingQueue();
+        logger.debug("Found {} pending transactions", pendingTransactions.size());
+        return pendingTransactions.stream()
+                .map(this::convertTransactionToDto)
+                .collect(Collectors.toList());
     }
     
     // Approve account creation request
@@ -213,7 +299,7 @@ public class ApprovalWorkflowService {
         AccountRequest request = accountRequestRepo.findById(requestId)
                 .orElseThrow(() -> new ResourceNotFoundException("Account request not found"));
         
-        User approver = userRepo.findById(approverId)
+        User approver = referenceDataService.findUser(approverId)
                 .orElseThrow(() -> new ResourceNotFoundException("Approver not found"));
         
         // Update request status
@@ -221,6 +307,7 @@ public class ApprovalWorkflowService {
         request.setApproverId(approverId);
         request.setApprovalDate(LocalDateTime.now());
         AccountRequest savedRequest = accountRequestRepo.save(request);
+        eventBus.publish(PendingQueueEvent.removed(Queue.ACCOUNT_REQUESTS, requestId));
         
         // Create account
         createAccountFromRequest(request);
@@ -241,7 +328,7 @@ public class ApprovalWorkflowService {
         AccountRequest request = accountRequestRepo.findById(requestId)
                 .orElseThrow(() -> new ResourceNotFoundException("Account request not found"));
         
-        User approver = userRepo.findById(approverId)
+        User approver = referenceDataService.findUser(approverId)
                 .orElseThrow(() -> new ResourceNotFoundException("Approver not found"));
         
         // Update request status
@@ -250,6 +337,7 @@ public class ApprovalWorkflowService {
         request.setApprovalDate(LocalDateTime.now());
         request.setRejectionReason(reason);
         AccountRequest savedRequest = accountRequestRepo.save(request);
+        eventBus.publish(PendingQueueEvent.removed(Queue.ACCOUNT_REQUESTS, requestId));
         
         // Send notifications
         sendAccountApprovalNotifications(request, approver, false, reason);
@@ -272,7 +360,7 @@ public class ApprovalWorkflowService {
         logger.info("ProfileUpdateRequestService.approveProfileRequest completed for request ID: {}", requestId);
         
         // Get the approver for logging
-        User approver = userRepo.findById(approverId)
+        User approver = referenceDataService.findUser(approverId)
                 .orElseThrow(() -> new ResourceNotFoundException("Approver not found"));
         
         // Log activity
@@ -292,12 +380,13 @@ public class ApprovalWorkflowService {
             ProfileUpdateRequest request = profileUpdateRequestRepo.findById(requestId)
                     .orElseThrow(() -> new ResourceNotFoundException("Profile update request not found with id: " + requestId));
             
-            User approver = userRepo.findById(approverId)
+            User approver = referenceDataService.findUser(approverId)
                     .orElseThrow(() -> new ResourceNotFoundException("Approver not found with id: " + approverId));
             
             // Update request status
             request.setStatus("REJECTED");
             ProfileUpdateRequest savedRequest = profileUpdateRequestRepo.save(request);
+            eventBus.publish(PendingQueueEvent.removed(Queue.PROFILE_REQUESTS, requestId));
             
             // Send notifications
             sendProfileApprovalNotifications(request, approver, false, reason);
@@ -313,15 +402,18 @@ public class ApprovalWorkflowService {
         }
     }
 
-    @Transactional
     public Map<String, Object> approveTransaction(Integer transactionId, Integer approverId) {
+        return optimisticLockRetry.execute("approveTransaction", () -> doApproveTransaction(transactionId, approverId));
+    }
+
+    private Map<String, Object> doApproveTransaction(Integer transactionId, Integer approverId) {
         try {
             logger.info("Approving transaction ID: {} by approver ID: {}", transactionId, approverId);
             
             Transaction transaction = transactionRepo.findById(transactionId)
                     .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + transactionId));
             
-            User approver = userRepo.findById(approverId)
+            User approver = referenceDataService.findUser(approverId)
                     .orElseThrow(() -> new ResourceNotFoundException("Approver not found with id: " + approverId));
             
             // Find the transaction authorization
@@ -329,12 +421,12 @@ public class ApprovalWorkflowService {
                     .orElseThrow(() -> new ResourceNotFoundException("Transaction authorization not found for transaction: " + transactionId));
             
             // Check if transaction is pending
-            if (!"PENDING".equals(transaction.getStatus()) || !"PENDING".equals(authorization.getStatus())) {
+            if (transaction.getStatus() != RequestStatus.PENDING || authorization.getStatus() != ApprovalStatus.PENDING) {
                 throw new RuntimeException("Transaction is not in pending status");
             }
             
             // Update authorization status
-            authorization.setStatus("APPROVED");
+            authorization.setStatus(ApprovalStatus.APPROVED);
             authorization.setUser(approver);
             authorization.setLastModifiedtime(LocalDateTime.now());
             transactionAuthorizationRepo.save(authorization);
@@ -343,9 +435,10 @@ public class ApprovalWorkflowService {
             accountService.executeTransaction(transaction);
             
             // Update transaction status
-            transaction.setStatus("APPROVED");
+            transaction.setStatus(RequestStatus.APPROVED);
             transaction.setLastModifiedtime(LocalDateTime.now());
             Transaction savedTransaction = transactionRepo.save(transaction);
+            eventBus.publish(PendingQueueEvent.removed(Queue.TRANSACTIONS, transactionId));
             
             // Send notifications
             sendTransactionApprovalNotifications(transaction, approver, true);
@@ -366,15 +459,18 @@ public class ApprovalWorkflowService {
         }
     }
 
-    @Transactional
     public Map<String, Object> rejectTransaction(Integer transactionId, Integer approverId, String reason) {
+        return optimisticLockRetry.execute("rejectTransaction", () -> doRejectTransaction(transactionId, approverId, reason));
+    }
+
+    private Map<String, Object> doRejectTransaction(Integer transactionId, Integer approverId, String reason) {
         try {
             logger.info("Rejecting transaction ID: {} by approver ID: {} with reason: {}", transactionId, approverId, reason);
             
             Transaction transaction = transactionRepo.findById(transactionId)
                     .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + transactionId));
             
-            User approver = userRepo.findById(approverId)
+            User approver = referenceDataService.findUser(approverId)
                     .orElseThrow(() -> new ResourceNotFoundException("Approver not found with id: " + approverId));
             
             // Find the transaction authorization
@@ -382,21 +478,22 @@ public class ApprovalWorkflowService {
                     .orElseThrow(() -> new ResourceNotFoundException("Transaction authorization not found for transaction: " + transactionId));
             
             // Check if transaction is pending
-            if (!"PENDING".equals(transaction.getStatus()) || !"PENDING".equals(authorization.getStatus())) {
+            if (transaction.getStatus() != RequestStatus.PENDING || authorization.getStatus() != ApprovalStatus.PENDING) {
                 throw new RuntimeException("Transaction is not in pending status");
             }
             
             // Update authorization status
-            authorization.setStatus("REJECTED");
+            authorization.setStatus(ApprovalStatus.REJECTED);
             authorization.setUser(approver);
             authorization.setDenialReason(reason);
             authorization.setLastModifiedtime(LocalDateTime.now());
             transactionAuthorizationRepo.save(authorization);
             
             // Update transaction status
-            transaction.setStatus("REJECTED");
+            transaction.setStatus(RequestStatus.REJECTED);
             transaction.setLastModifiedtime(LocalDateTime.now());
             Transaction savedTransaction = transactionRepo.save(transaction);
+            eventBus.publish(PendingQueueEvent.removed(Queue.TRANSACTIONS, transactionId));
             
             // Send notifications
             sendTransactionApprovalNotifications(transaction, approver, false, reason);
@@ -418,6 +515,208 @@ public class ApprovalWorkflowService {
         }
     }
     
+    public BatchTransactionResultDto approveTransactions(List<Integer> transactionIds, Integer approverId) {
+        return decideTransactions(transactionIds, approverId, true, null);
+    }
+
+    public BatchTransactionResultDto rejectTransactions(List<Integer> transactionIds, Integer approverId, String reason) {
+        return decideTransactions(transactionIds, approverId, false, reason);
+    }
+
+    // Works through the ids in chunks, each chunk one transaction with a single flush; an item
+    // that cannot be decided is reported back without failing the rest of its chunk, and a
+    // chunk that cannot be committed at all is reported back without failing the rest of the
+    // batch. Must be called outside a transaction, since each chunk commits on its own.
+    private BatchTransactionResultDto decideTransactions(List<Integer> transactionIds, Integer approverId,
+                                                         boolean approve, String reason) {
+        if (transactionIds == null || transactionIds.isEmpty()) {
+            throw new IllegalArgumentException("No transaction ids supplied");
+        }
+        List<Integer> ids = transactionIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (ids.size() > MAX_BATCH_ITEMS) {
+            throw new IllegalArgumentException("A batch may contain at most " + MAX_BATCH_ITEMS + " transactions");
+        }
+
+        User approver = referenceDataService.findUser(approverId)
+                .orElseThrow(() -> new ResourceNotFoundException("Approver not found with id: " + approverId));
+        ApprovalStatus decision = approve ? ApprovalStatus.APPROVED : ApprovalStatus.REJECTED;
+        logger.info("Batch {} of {} transactions by approver ID: {}", decision, ids.size(), approverId);
+
+        BatchTransactionResultDto result = new BatchTransactionResultDto();
+        result.setRequested(ids.size());
+        for (int from = 0; from < ids.size(); from += BATCH_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + BATCH_CHUNK_SIZE, ids.size()));
+            BatchChunkOutcome outcome = runChunk(chunk, approverId, approve, reason);
+
+            for (Integer id : chunk) {
+                String failure = outcome.failures.get(id);
+                if (failure != null) {
+                    result.addFailure(id, failure);
+                } else {
+                    result.addSuccess(id, decision.name());
+                }
+            }
+
+            for (Transaction transaction : outcome.decided) {
+                logActivity(approve ? "TRANSACTION_APPROVED" : "TRANSACTION_REJECTED", approverId,
+                        "Transaction " + transaction.getTransactionId() + " " + decision.name().toLowerCase()
+                                + " in a batch by " + approver.getUsername());
+            }
+        }
+
+        logger.info("Batch {} finished: {} succeeded, {} failed", decision, result.getSucceeded(), result.getFailed());
+        return result;
+    }
+
+    // A chunk that loses a lock wait, such as a deadlock with another decision on one of its
+    // accounts, is rolled back and run again. Anything else that stops the chunk from
+    // committing, such as running out of optimistic-lock retries, fails only this chunk.
+    private BatchChunkOutcome runChunk(List<Integer> chunk, Integer approverId, boolean approve, String reason) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return optimisticLockRetry.execute(approve ? "approveTransactions" : "rejectTransactions",
+                        () -> decideChunk(chunk, approverId, approve, reason));
+            } catch (RuntimeException e) {
+                if (isLockWaitFailure(e) && attempt < batchLockAttempts) {
+                    meterRegistry.counter("sbs.approval.batch.lock_retries").increment();
+                    logger.warn("Batch chunk of {} transactions lost a lock wait, retry {}: {}",
+                            chunk.size(), attempt, e.getMessage());
+                    continue;
+                }
+                logger.error("Batch chunk of {} transactions failed: {}", chunk.size(), e.getMessage(), e);
+                BatchChunkOutcome failed = new BatchChunkOutcome();
+                chunk.forEach(id -> failed.failures.put(id, "Could not be decided: " + e.getMessage()));
+                return failed;
+            }
+        }
+    }
+
+    static boolean isLockWaitFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof PessimisticLockingFailureException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private BatchChunkOutcome decideChunk(List<Integer> chunk, Integer approverId, boolean approve, String reason) {
+        BatchChunkOutcome outcome = new BatchChunkOutcome();
+
+        // One query for the transactions with both accounts, one for their authorizations
+        Map<Integer, Transaction> transactions = transactionRepo.findAllWithAccountsByTransactionIdIn(chunk).stream()
+                .collect(Collectors.toMap(Transaction::getTransactionId, t -> t));
+        Map<Integer, TransactionAuthorization> authorizations = transactionAuthorizationRepo.findByTransactionIds(chunk).stream()
+                .collect(Collectors.toMap(ta -> ta.getTransaction().getTransactionId(), ta -> ta, (a, b) -> a));
+        User approver = userRepo.getReferenceById(approverId);
+        LocalDateTime now = LocalDateTime.now();
+
+        // Oldest first, so competing debits against one account resolve in submission order
+        List<Integer> ordered = new ArrayList<>();
+        for (Integer id : new TreeSet<>(chunk)) {
+            Transaction transaction = transactions.get(id);
+            TransactionAuthorization authorization = authorizations.get(id);
+            if (transaction == null) {
+                outcome.failures.put(id, "Transaction not found");
+                continue;
+            }
+            if (authorization == null) {
+                outcome.failures.put(id, "Transaction authorization not found");
+                continue;
+            }
+            if (transaction.getStatus() != RequestStatus.PENDING || authorization.getStatus() != ApprovalStatus.PENDING) {
+                outcome.failures.put(id, "Transaction is not in pending status");
+                continue;
+            }
+            String failure = approve ? transferProblem(transaction) : null;
+            if (failure != null) {
+                outcome.failures.put(id, failure);
+                continue;
+            }
+            ordered.add(id);
+        }
+
+        Map<Integer, Money> balanceDeltas = new TreeMap<>();
+        if (approve) {
+            // Every account the chunk moves money between is locked before any balance changes
+            Set<Long> accountIds = new TreeSet<>();
+            for (Integer id : ordered) {
+                accountIds.add(transactions.get(id).getSenderAcc().getAccountId());
+                accountIds.add(transactions.get(id).getReceiverAcc().getAccountId());
+            }
+            accountService.lockAccounts(accountIds);
+        }
+
+        for (Integer id : ordered) {
+            Transaction transaction = transactions.get(id);
+            TransactionAuthorization authorization = authorizations.get(id);
+            if (approve) {
+                // A savepoint per transfer, so one that cannot be made is undone on its own
+                try {
+                    itemSavepoint.executeWithoutResult(status -> accountService.moveBalances(
+                            transaction.getSenderAcc().getAccountId(), transaction.getReceiverAcc().getAccountId(),
+                            transaction.getAmount()));
+                } catch (InsufficientFundsException | ResourceNotFoundException | IllegalArgumentException e) {
+                    outcome.failures.put(id, e.getMessage());
+                    continue;
+                }
+                addBalanceDelta(balanceDeltas, transaction.getSenderAcc().getUser().getUserId(),
+                        Money.ZERO.minus(transaction.getAmount()));
+                addBalanceDelta(balanceDeltas, transaction.getReceiverAcc().getUser().getUserId(),
+                        transaction.getAmount());
+            }
+
+            authorization.setStatus(approve ? ApprovalStatus.APPROVED : ApprovalStatus.REJECTED);
+            authorization.setUser(approver);
+            authorization.setLastModifiedtime(now);
+            if (!approve) {
+                authorization.setDenialReason(reason);
+            }
+            transaction.setStatus(approve ? RequestStatus.APPROVED : RequestStatus.REJECTED);
+            transaction.setLastModifiedtime(now);
+            if (approve) {
+                transaction.setSettledtime(now);
+            }
+            outcome.decided.add(transaction);
+            eventBus.publish(PendingQueueEvent.removed(Queue.TRANSACTIONS, id));
+            sendTransactionApprovalNotifications(transaction, approver, approve, reason);
+        }
+
+        // Dashboard rows once per user for the whole chunk, in user id order like the accounts
+        if (!balanceDeltas.isEmpty()) {
+            dashboardSummaryService.applyBalanceDeltas(balanceDeltas);
+            balanceDeltas.keySet().forEach(referenceDataService::evictAccountsForUser);
+        }
+        return outcome;
+    }
+
+    private static void addBalanceDelta(Map<Integer, Money> deltas, Integer userId, Money delta) {
+        if (userId != null) {
+            deltas.merge(userId, delta, Money::plus);
+        }
+    }
+
+    // Checks that need no write, so a bad item is skipped before anything is locked;
+    // funds are checked by the conditional debit under the item's savepoint
+    private String transferProblem(Transaction transaction) {
+        Money amount = transaction.getAmount();
+        if (transaction.getReceiverAcc() == null) {
+            return "Transaction has no receiver account";
+        }
+        if (amount == null || amount.isNegative() || amount.isZero()) {
+            return "Transfer amount must be positive";
+        }
+        if (transaction.getSenderAcc().getAccountId().equals(transaction.getReceiverAcc().getAccountId())) {
+            return "Sender and receiver accounts must differ";
+        }
+        return null;
+    }
+
+    private static class BatchChunkOutcome {
+        private final Map<Integer, String> failures = new HashMap<>();
+        private final List<Transaction> decided = new ArrayList<>();
+    }
+
     // Create account from approved request
     private void createAccountFromRequest(AccountRequest request) {
         logger.info("Creating account for user {} with type {} and initial balance {}", 
@@ -449,7 +748,7 @@ public class ApprovalWorkflowService {
     
     // Send account approval notifications
     private void sendAccountApprovalNotifications(AccountRequest request, User approver, boolean approved, String... reason) {
-        User requester = userRepo.findById(request.getUserId())
+        User requester = referenceDataService.findUser(request.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("Requester not found"));
         
         String action = approved ? "approved" : "denied";
@@ -465,36 +764,20 @@ public class ApprovalWorkflowService {
             }
         }
         
-        // Create in-app notification
-        notificationService.createNotification(
-            request.getUserId(),
-            "account_request",
-            title,
-            message,
-            request.getId()
-        );
-        
-        // Send email notification
-        try {
-            emailService.sendNotificationEmail(requester.getEmailAddress(), title, message);
-        } catch (Exception e) {
-            logger.error("Failed to send email notification", e);
-        }
-        
-        // Publish to Kafka for async processing
-        NotificationEvent event = new NotificationEvent(
+        // The email is queued in the decision's transaction; the in-app notification follows the commit
+        queueNotificationEmail(requester, title, message);
+        eventBus.publish(new NotificationEvent(
             request.getUserId(),
             "account_request",
             title,
             message,
             request.getId()
-        );
-        // Kafka event publishing removed for Render deployment
+        ));
     }
     
     // Send profile approval notifications
     private void sendProfileApprovalNotifications(ProfileUpdateRequest request, User approver, boolean approved, String... reason) {
-        User requester = userRepo.findById(request.getUserId())
+        User requester = referenceDataService.findUser(request.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("Requester not found"));
         
         String action = approved ? "approved" : "denied";
@@ -505,31 +788,15 @@ public class ApprovalWorkflowService {
             message += ". Reason: " + reason[0];
         }
         
-        // Create in-app notification
-        notificationService.createNotification(
-            request.getUserId(),
-            "profile_update",
-            title,
-            message,
-            request.getId()
-        );
-        
-        // Send email notification
-        try {
-            emailService.sendNotificationEmail(requester.getEmailAddress(), title, message);
-        } catch (Exception e) {
-            logger.error("Failed to send email notification", e);
-        }
-        
-        // Publish to Kafka for async processing
-        NotificationEvent event = new NotificationEvent(
+        // The email is queued in the decision's transaction; the in-app notification follows the commit
+        queueNotificationEmail(requester, title, message);
+        eventBus.publish(new NotificationEvent(
             request.getUserId(),
             "profile_update",
             title,
             message,
             request.getId()
-        );
-        // Kafka event publishing removed for Render deployment
+        ));
     }
 
     private void sendTransactionApprovalNotifications(Transaction transaction, User approver, boolean approved, String... reason) {
@@ -552,41 +819,28 @@ public class ApprovalWorkflowService {
             }
         }
 
-        // Create in-app notification
-        notificationService.createNotification(
-            requester.getUserId(),
-            "transaction_request",
-            title,
-            message,
-            transaction.getTransactionId()
-        );
-
-        // Send email notification
-        try {
-            emailService.sendNotificationEmail(requester.getEmailAddress(), title, message);
-        } catch (Exception e) {
-            logger.error("Failed to send email notification", e);
-        }
-
-        // Publish to Kafka for async processing
-        NotificationEvent event = new NotificationEvent(
+        // The email is queued in the decision's transaction; the in-app notification follows the commit
+        queueNotificationEmail(requester, title, message);
+        eventBus.publish(new NotificationEvent(
             requester.getUserId(),
             "transaction_request",
             title,
             message,
             transaction.getTransactionId()
-        );
-        // Kafka event publishing removed for Render deployment
+        ));
     }
     
+    private void queueNotificationEmail(User requester, String title, String message) {
+        if (requester.getEmailAddress() == null || requester.getEmailAddress().isBlank()) {
+            return;
+        }
+        emailService.sendNotificationEmail(requester.getEmailAddress(), title, message);
+    }
+
     // Log activity
     private void logActivity(String action, Integer userId, String details) {
         logger.info("Activity: {} - User: {} - Details: {}", action, userId, details);
-        try {
-            activityLogService.logActivity(userId, action, details);
-        } catch (Exception e) {
-            logger.error("Failed to log activity to database: {}", e.getMessage());
-        }
+        eventBus.publish(new ActivityEvent(userId, action, details));
     }
     
     // Convert AccountRequest to DTO
@@ -635,16 +889,9 @@ public class ApprovalWorkflowService {
         dto.setSenderAcc(transaction.getSenderAcc());
         dto.setReceiverAcc(transaction.getReceiverAcc());
         dto.setTransactionType(transaction.getTransactionType());
-        dto.setAmount(transaction.getAmount());
+        dto.setAmount(transaction.getAmount() != null ? transaction.getAmount().toString() : null);
         
-        // Handle enum conversion with error handling
-        try {
-            dto.setStatus(RequestStatus.valueOf(transaction.getStatus()));
-        } catch (IllegalArgumentException e) {
-            logger.error("Unknown status '{}' for transaction {}, defaulting to PENDING", 
-                        transaction.getStatus(), transaction.getTransactionId());
-            dto.setStatus(RequestStatus.PENDING);
-        }
+        dto.setStatus(transaction.getStatus());
         
         return dto;
     }
@@ -668,4 +915,42 @@ public class ApprovalWorkflowService {
         public List<TransactionDto> getTransactionRequests() { return transactionRequests; }
         public void setTransactionRequests(List<TransactionDto> transactionRequests) { this.transactionRequests = transactionRequests; }
     }
-} 
\ No newline at end of file
+
+    // Change feed for the approver dashboard. With full set the lists are the whole queues and
+    // replace what the client holds; otherwise they are items added since the requested version.
+    public static class PendingChangesDto {
+        private final String version;
+        private final boolean full;
+        private final List<AccountRequestDto> accountRequests;
+        private final List<ProfileUpdateRequestDto> profileRequests;
+        private final List<TransactionDto> transactionRequests;
+        private final Map<String, Integer> counts;
+        private Set<Integer> removedAccountRequestIds = Set.of();
+        private Set<Integer> removedProfileRequestIds = Set.of();
+        private Set<Integer> removedTransactionIds = Set.of();
+
+        public PendingChangesDto(String version, boolean full, List<AccountRequestDto> accountRequests,
+                                 List<ProfileUpdateRequestDto> profileRequests, List<TransactionDto> transactionRequests,
+                                 Map<String, Integer> counts) {
+            this.version = version;
+            this.full = full;
+            this.accountRequests = accountRequests;
+            this.profileRequests = profileRequests;
+            this.transactionRequests = transactionRequests;
+            this.counts = counts;
+        }
+
+        public String getVersion() { return version; }
+        public boolean isFull() { return full; }
+        public List<AccountRequestDto> getAccountRequests() { return accountRequests; }
+        public List<ProfileUpdateRequestDto> getProfileRequests() { return profileRequests; }
+        public List<TransactionDto> getTransactionRequests() { return transactionRequests; }
+        public Map<String, Integer> getCounts() { return counts; }
+        public Set<Integer> getRemovedAccountRequestIds() { return removedAccountRequestIds; }
+        public void setRemovedAccountRequestIds(Set<Integer> removedAccountRequestIds) { this.removedAccountRequestIds = removedAccountRequestIds; }
+        public Set<Integer> getRemovedProfileRequestIds() { return removedProfileRequestIds; }
+        public void setRemovedProfileRequestIds(Set<Integer> removedProfileRequestIds) { this.removedProfileRequestIds = removedProfileRequestIds; }
+        public Set<Integer> getRemovedTransactionIds() { return removedTransactionIds; }
+        public void setRemovedTransactionIds(Set<Integer> removedTransactionIds) { this.removedTransactionIds = removedTransactionIds; }
+    }
+}
@@ -1,12 +1,22 @@
 package com.securebanking.sbs.infrastructure.service;
 
+import com.securebanking.sbs.interceptor.RateLimitInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class CorsConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private RateLimitInterceptor rateLimitInterceptor;
+
+    @Value("${rate.limiting.enabled:true}")
+    private boolean rateLimitingEnabled;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -17,12 +27,13 @@ public class CorsConfig implements WebMvcConfigurer {
                 .maxAge(3600); // Max age of the CORS Preflight request
     }
 
-    // Rate limiting temporarily disabled for Kafka focus
-    // @Override
-    // public void addInterceptors(InterceptorRegistry registry) {
-    //     registry.addInterceptor(rateLimitInterceptor)
-    //             .addPathPatterns("/api/**")
-    //             .excludePathPatterns("/actuator/**", "/health");
-    // }
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (rateLimitingEnabled) {
+            registry.addInterceptor(rateLimitInterceptor)
+                    .addPathPatterns("/api/**")
+                    .excludePathPatterns("/actuator/**", "/health");
+        }
+    }
 }
 
@@ -0,0 +1,123 @@
+package com.securebanking.sbs.infrastructure.service;
+
+import com.securebanking.sbs.infrastructure.model.UserDashboardSummary;
+import com.securebanking.sbs.infrastructure.repository.UserDashboardSummaryRepo;
+import com.securebanking.sbs.shared.model.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains user_dashboard_summary. Writers call the delta methods inside the transaction
+ * that changes the underlying data, so the summary commits or rolls back with it. Deltas
+ * for several users are applied in ascending user id, the same rule AccountService uses for
+ * account rows, so concurrent transfers cannot deadlock on summary rows.
+ */
+@Service
+public class DashboardSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardSummaryService.class);
+
+    public static final int RECENT_WINDOW_DAYS = 30;
+
+    @Autowired
+    private UserDashboardSummaryRepo summaryRepo;
+
+    /**
+     * The user's summary; built on first access.
+     */
+    @Transactional
+    public UserDashboardSummary getSummary(Integer userId) {
+        return summaryRepo.findById(userId).orElseGet(() -> {
+            rebuild(userId);
+            return summaryRepo.findById(userId).orElse(null);
+        });
+    }
+
+    @Transactional
+    public void accountOpened(Integer userId, Money balance) {
+        summaryRepo.applyDelta(userId, balance.toBigDecimal(), 1);
+    }
+
+    @Transactional
+    public void accountClosed(Integer userId, Money balance) {
+        summaryRepo.applyDelta(userId, balance.toBigDecimal().negate(), -1);
+    }
+
+    @Transactional
+    public void balanceMoved(Integer fromUserId, Integer toUserId, Money amount) {
+        Map<Integer, Money> deltas = new TreeMap<>();
+        addDelta(deltas, fromUserId, Money.ZERO.minus(amount));
+        addDelta(deltas, toUserId, amount);
+        applyBalanceDeltas(deltas);
+    }
+
+    /**
+     * Applies per-user balance changes; entries that net to zero are skipped.
+     */
+    @Transactional
+    public void applyBalanceDeltas(Map<Integer, Money> deltasByUser) {
+        new TreeMap<>(deltasByUser).forEach((userId, delta) -> {
+            if (userId != null && !delta.isZero()) {
+                summaryRepo.applyDelta(userId, delta.toBigDecimal(), 0);
+            }
+        });
+    }
+
+    @Transactional
+    public void transactionRecorded(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        summaryRepo.incrementDailyTransactions(userId, LocalDate.now());
+        summaryRepo.incrementRecentTransactions(userId);
+    }
+
+    /**
+     * Recomputes one user's summary from accounts and transactions.
+     */
+    @Transactional
+    public void rebuild(Integer userId) {
+        LocalDate windowStart = windowStart();
+        summaryRepo.deleteDailyTransactions(userId);
+        summaryRepo.rebuildDailyTransactions(userId, windowStart.atStartOfDay());
+        summaryRepo.rebuildSummaries(userId, windowStart.atStartOfDay());
+    }
+
+    /**
+     * Recomputes every user's summary. This is the repair path after a bug or a manual data fix.
+     */
+    @Transactional
+    public int rebuildAll() {
+        LocalDate windowStart = windowStart();
+        summaryRepo.deleteDailyTransactions(null);
+        summaryRepo.rebuildDailyTransactions(null, windowStart.atStartOfDay());
+        int rebuilt = summaryRepo.rebuildSummaries(null, windowStart.atStartOfDay());
+        logger.info("Rebuilt {} dashboard summaries", rebuilt);
+        return rebuilt;
+    }
+
+    @Scheduled(cron = "${sbs.dashboard.summary.expire-cron:0 1 0 * * *}")
+    @Transactional
+    public void expireOldTransactions() {
+        int updated = summaryRepo.expireDailyTransactions(windowStart());
+        logger.info("Rolled the 30-day transaction window forward for {} users", updated);
+    }
+
+    public static void addDelta(Map<Integer, Money> deltas, Integer userId, Money delta) {
+        if (userId != null) {
+            deltas.merge(userId, delta, Money::plus);
+        }
+    }
+
+    private static LocalDate windowStart() {
+        return LocalDate.now().minusDays(RECENT_WINDOW_DAYS - 1);
+    }
+}
@@ -0,0 +1,307 @@
+package com.securebanking.sbs.infrastructure.service;
+
+import com.securebanking.sbs.core.resilience.CircuitBreaker;
+import com.securebanking.sbs.infrastructure.model.EmailOutboxMessage;
+import com.securebanking.sbs.infrastructure.repository.EmailOutboxRepo;
+import com.securebanking.sbs.shared.enums.EmailOutboxStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the email_outbox table: claims a batch of due rows, sends them in parallel on a
+ * bounded worker pool and records each outcome. Failures are retried with exponential
+ * backoff; a message that exhausts its attempts is parked as DEAD for manual follow-up.
+ * While the SMTP circuit is open nothing is claimed, so an SMTP outage does not burn
+ * through every message's attempts; once it half-opens a single message is sent as the trial.
+ * <p>
+ * A sent message keeps its row for the record but not its body, and SENT rows are purged
+ * once past the retention period. Mail with an expiry (OTPs) is discarded unsent when it
+ * comes due too late.
+ */
+@Service
+@ConditionalOnProperty(name = "sbs.mail.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private EmailOutboxRepo emailOutboxRepo;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CircuitBreaker smtpCircuitBreaker;
+
+    @Value("${sbs.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${sbs.mail.outbox.workers:4}")
+    private int workers;
+
+    @Value("${sbs.mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${sbs.mail.outbox.initial-backoff-ms:5000}")
+    private long initialBackoffMs;
+
+    @Value("${sbs.mail.outbox.max-backoff-ms:900000}")
+    private long maxBackoffMs;
+
+    @Value("${sbs.mail.outbox.lease-ms:120000}")
+    private long leaseMs;
+
+    @Value("${sbs.mail.outbox.sent-retention:P7D}")
+    private Duration sentRetention;
+
+    private ThreadPoolExecutor workerPool;
+    private Counter sentCounter;
+    private Counter failedCounter;
+    private Counter deadCounter;
+    private Counter expiredCounter;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // Queue holds one batch; beyond that the dispatcher thread sends itself rather than dropping mail
+        workerPool = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(batchSize, 1)),
+                r -> {
+                    Thread t = new Thread(r, "mail-worker-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        sentCounter = meterRegistry.counter("sbs.mail.outbox.sent");
+        failedCounter = meterRegistry.counter("sbs.mail.outbox.failed");
+        deadCounter = meterRegistry.counter("sbs.mail.outbox.dead_lettered");
+        expiredCounter = meterRegistry.counter("sbs.mail.outbox.expired");
+        meterRegistry.gauge("sbs.mail.outbox.queue_depth", workerPool, pool -> pool.getQueue().size());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        workerPool.shutdown();
+        workerPool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${sbs.mail.outbox.poll-interval-ms:500}",
+               initialDelayString = "${sbs.mail.outbox.poll-interval-ms:500}")
+    public void poll() {
+        try {
+            // Keep going while batches come back full so a backlog drains without waiting for the next tick
+            while (dispatchDue() >= batchSize) {
+                logger.debug("Outbox batch was full, dispatching again");
+            }
+        } catch (Exception e) {
+            logger.error("Email outbox dispatch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Claims and sends one batch of due messages. Returns the number claimed.
+     */
+    public int dispatchDue() {
+        CircuitBreaker.Permit permit = smtpCircuitBreaker.tryAcquire();
+        if (permit == null) {
+            return 0;
+        }
+        int limit = permit.isTrial() ? 1 : batchSize;
+        List<EmailOutboxMessage> claimed = transactionTemplate.execute(status -> claimBatch(limit));
+        if (claimed == null || claimed.isEmpty()) {
+            permit.release();
+            return 0;
+        }
+
+        Map<Long, String> failures = new ConcurrentHashMap<>();
+        Set<Long> deferred = ConcurrentHashMap.newKeySet();
+        CompletableFuture<?>[] sends = claimed.stream()
+                .map(message -> CompletableFuture.runAsync(() -> {
+                            if (smtpCircuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+                                // The circuit opened during this batch; hand the rest back untried
+                                deferred.add(message.getId());
+                                return;
+                            }
+                            send(message);
+                            permit.onSuccess();
+                        }, workerPool)
+                        .exceptionally(e -> {
+                            Throwable cause = e.getCause() != null ? e.getCause() : e;
+                            failures.put(message.getId(), String.valueOf(cause.getMessage()));
+                            if (isTransportFailure(cause)) {
+                                permit.onFailure();
+                            } else {
+                                // This message is the problem, which says nothing either way about SMTP
+                                permit.release();
+                            }
+                            return null;
+                        }))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(sends).join();
+
+        transactionTemplate.executeWithoutResult(status -> recordOutcomes(claimed, failures, deferred));
+        return claimed.size();
+    }
+
+    /**
+     * Deletes SENT rows older than the retention period. Returns the number deleted.
+     */
+    @Scheduled(cron = "${sbs.mail.outbox.purge-cron:0 45 2 * * *}")
+    public int purgeSent() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(sentRetention);
+        try {
+            Integer purged = transactionTemplate.execute(status ->
+                    emailOutboxRepo.deleteSentBefore(EmailOutboxStatus.SENT, cutoff));
+            logger.info("Purged {} sent emails older than {}", purged, cutoff);
+            return purged != null ? purged : 0;
+        } catch (Exception e) {
+            logger.error("Email outbox purge failed: {}", e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    private List<EmailOutboxMessage> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutboxMessage> due = emailOutboxRepo.lockDueMessages(now, limit);
+        List<EmailOutboxMessage> sendable = new ArrayList<>(due.size());
+        for (EmailOutboxMessage message : due) {
+            if (message.getExpiresAt() != null && !message.getExpiresAt().isAfter(now)) {
+                // An OTP arriving after it stopped working is no use to anyone; drop it and its code
+                message.setStatus(EmailOutboxStatus.DEAD);
+                message.setBody("");
+                message.setLastError("Expired before it could be sent");
+                expiredCounter.increment();
+                continue;
+            }
+            message.setStatus(EmailOutboxStatus.SENDING);
+            message.setNextAttemptAt(now.plusNanos(TimeUnit.MILLISECONDS.toNanos(leaseMs)));
+            sendable.add(message);
+        }
+        return sendable;
+    }
+
+    private void send(EmailOutboxMessage message) {
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setTo(message.getRecipient());
+        mail.setSubject(message.getSubject());
+        mail.setText(message.getBody());
+        mailSender.send(mail);
+    }
+
+    /**
+     * Whether a send failure says SMTP itself is unreachable or refusing us, as opposed to
+     * something wrong with the one message (a rejected recipient, an unparsable address).
+     * Only the former counts against the circuit.
+     */
+    static boolean isTransportFailure(Throwable e) {
+        if (e instanceof MailAuthenticationException) {
+            return true;
+        }
+        if (e instanceof MailParseException || e instanceof MailPreparationException) {
+            return false;
+        }
+        if (e instanceof MailSendException sendException && sendException.getCause() == null) {
+            // Per-message outcome from a session that did connect
+            return sendException.getFailedMessages().values().stream()
+                    .anyMatch(EmailOutboxDispatcher::isTransportFailure);
+        }
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SendFailedException) {
+                return false;
+            }
+            if (t instanceof IOException) {
+                return true;
+            }
+        }
+        // JavaMailSenderImpl reports "Mail server connection failed" with the connect error as cause
+        return e instanceof MailSendException || e instanceof MessagingException;
+    }
+
+    private void recordOutcomes(List<EmailOutboxMessage> claimed, Map<Long, String> failures, Set<Long> deferred) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutboxMessage> current = emailOutboxRepo.findAllById(
+                claimed.stream().map(EmailOutboxMessage::getId).collect(Collectors.toList()));
+
+        for (EmailOutboxMessage message : current) {
+            if (deferred.contains(message.getId())) {
+                message.setStatus(EmailOutboxStatus.PENDING);
+                message.setNextAttemptAt(now);
+                continue;
+            }
+            String error = failures.get(message.getId());
+            if (error == null) {
+                message.setStatus(EmailOutboxStatus.SENT);
+                message.setSentAt(now);
+                message.setLastError(null);
+                message.setBody("");
+                sentCounter.increment();
+                continue;
+            }
+
+            int attempts = message.getAttempts() + 1;
+            message.setAttempts(attempts);
+            message.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            failedCounter.increment();
+            if (attempts >= maxAttempts) {
+                message.setStatus(EmailOutboxStatus.DEAD);
+                if (message.getExpiresAt() != null) {
+                    message.setBody("");
+                }
+                deadCounter.increment();
+                logger.error("Email {} to {} dead-lettered after {} attempts: {}",
+                        message.getId(), message.getRecipient(), attempts, error);
+            } else {
+                message.setStatus(EmailOutboxStatus.PENDING);
+                message.setNextAttemptAt(now.plusNanos(TimeUnit.MILLISECONDS.toNanos(backoff(attempts))));
+                logger.warn("Email {} to {} failed (attempt {}), retrying: {}",
+                        message.getId(), message.getRecipient(), attempts, error);
+            }
+        }
+    }
+
+    private long backoff(int attempts) {
+        long delay = initialBackoffMs << Math.min(attempts - 1, 20);
+        return Math.min(delay, maxBackoffMs);
+    }
+}
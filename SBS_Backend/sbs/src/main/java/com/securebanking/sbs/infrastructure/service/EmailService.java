@@ -1,78 +1,101 @@
 package com.securebanking.sbs.infrastructure.service;
 
+import com.securebanking.sbs.infrastructure.model.EmailOutboxMessage;
+import com.securebanking.sbs.infrastructure.repository.EmailOutboxRepo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Composes outgoing mail and writes it to the email_outbox table, joining the caller's
+ * transaction when there is one. Delivery happens off the request thread in
+ * EmailOutboxDispatcher, so nothing here waits on SMTP. OTP mail carries the OTP's own
+ * expiry so it is never delivered, or kept in the table, after the code stops working.
+ */
 @Service
 public class EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
 
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxRepo emailOutboxRepo;
+
+    @Value("${sbs.otp.expiry:PT5M}")
+    private Duration otpExpiry;
 
     public void sendOtpEmail(String to, String otp) {
         try {
-            logger.info("Sending OTP email to: {}", to);
+            logger.info("Queueing OTP email to: {}", to);
             
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject("Secure Banking System - OTP Verification");
-            message.setText("Your OTP for verification is: " + otp + "\n\n" +
-                          "This code will expire in 5 minutes.\n" +
-                          "If you didn't request this code, please ignore this email.\n\n" +
-                          "Best regards,\nSecure Banking System Team");
-            
-            mailSender.send(message);
-            logger.info("OTP email sent successfully to: {}", to);
+            enqueue(to, "Secure Banking System - OTP Verification",
+                    "Your OTP for verification is: " + otp + "\n\n" +
+                    "This code will expire in " + describe(otpExpiry) + ".\n" +
+                    "If you didn't request this code, please ignore this email.\n\n" +
+                    "Best regards,\nSecure Banking System Team",
+                    LocalDateTime.now().plus(otpExpiry));
             
         } catch (Exception e) {
-            logger.error("Failed to send OTP email to: {}", to, e);
+            logger.error("Failed to queue OTP email to: {}", to, e);
             throw new RuntimeException("Failed to send OTP email: " + e.getMessage(), e);
         }
     }
 
     public void sendNotificationEmail(String to, String subject, String message) {
         try {
-            logger.info("Sending notification email to: {}", to);
-            
-            SimpleMailMessage emailMessage = new SimpleMailMessage();
-            emailMessage.setTo(to);
-            emailMessage.setSubject("Secure Banking System - " + subject);
-            emailMessage.setText(message + "\n\nBest regards,\nSecure Banking System Team");
+            logger.info("Queueing notification email to: {}", to);
             
-            mailSender.send(emailMessage);
-            logger.info("Notification email sent successfully to: {}", to);
+            enqueue(to, "Secure Banking System - " + subject,
+                    message + "\n\nBest regards,\nSecure Banking System Team", null);
             
         } catch (Exception e) {
-            logger.error("Failed to send notification email to: {}", to, e);
+            logger.error("Failed to queue notification email to: {}", to, e);
             throw new RuntimeException("Failed to send notification email: " + e.getMessage(), e);
         }
     }
 
     public void sendWelcomeEmail(String to, String firstName) {
         try {
-            logger.info("Sending welcome email to: {}", to);
+            logger.info("Queueing welcome email to: {}", to);
             
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject("Welcome to Secure Banking System");
-            message.setText("Dear " + firstName + ",\n\n" +
-                          "Welcome to Secure Banking System!\n\n" +
-                          "Your account has been successfully created. You can now log in and start using our secure banking services.\n\n" +
-                          "If you have any questions, please don't hesitate to contact our support team.\n\n" +
-                          "Best regards,\nSecure Banking System Team");
-            
-            mailSender.send(message);
-            logger.info("Welcome email sent successfully to: {}", to);
+            enqueue(to, "Welcome to Secure Banking System",
+                    "Dear " + firstName + ",\n\n" +
+                    "Welcome to Secure Banking System!\n\n" +
+                    "Your account has been successfully created. You can now log in and start using our secure banking services.\n\n" +
+                    "If you have any questions, please don't hesitate to contact our support team.\n\n" +
+                    "Best regards,\nSecure Banking System Team", null);
             
         } catch (Exception e) {
-            logger.error("Failed to send welcome email to: {}", to, e);
+            logger.error("Failed to queue welcome email to: {}", to, e);
             throw new RuntimeException("Failed to send welcome email: " + e.getMessage(), e);
         }
     }
-} 
\ No newline at end of file
+
+    // Whole minutes or hours read naturally; anything finer is given in seconds
+    private static String describe(Duration duration) {
+        if (duration.toMinutesPart() == 0 && duration.toSecondsPart() == 0 && duration.toHours() > 0) {
+            return plural(duration.toHours(), "hour");
+        }
+        if (duration.toSecondsPart() == 0 && duration.toMinutes() > 0) {
+            return plural(duration.toMinutes(), "minute");
+        }
+        return plural(duration.toSeconds(), "second");
+    }
+
+    private static String plural(long count, String unit) {
+        return count + " " + unit + (count == 1 ? "" : "s");
+    }
+
+    private void enqueue(String to, String subject, String body, LocalDateTime expiresAt) {
+        if (to == null || to.isBlank()) {
+            throw new IllegalArgumentException("Recipient address is required");
+        }
+        EmailOutboxMessage message = new EmailOutboxMessage(to, subject, body);
+        message.setExpiresAt(expiresAt);
+        emailOutboxRepo.save(message);
+    }
+}
@@ -0,0 +1,142 @@
+package com.securebanking.sbs.infrastructure.service;
+
+import com.securebanking.sbs.shared.event.DomainEventBus;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Default {@link DomainEventBus}: a bounded in-memory queue drained by a small worker pool.
+ * Each subscriber gets its own task so a slow or failing one does not hold up the others.
+ * When the queue is full the publishing thread waits up to the publish timeout for room and
+ * the event is then dropped and counted. Subscribers never run on the publishing thread:
+ * that thread is inside afterCommit(), where writes would join a transaction that has
+ * already committed and be silently lost. Events are not persisted, so anything still
+ * queued at shutdown is given a short grace period to drain and is otherwise lost.
+ */
+@Service
+@ConditionalOnProperty(name = "sbs.events.bus", havingValue = "in-memory", matchIfMissing = true)
+public class InMemoryDomainEventBus implements DomainEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryDomainEventBus.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sbs.events.workers:2}")
+    private int workers;
+
+    @Value("${sbs.events.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${sbs.events.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    @Value("${sbs.events.publish-timeout-ms:500}")
+    private long publishTimeoutMs;
+
+    private final Map<Class<?>, List<Consumer<Object>>> subscribers = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor workerPool;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        workerPool = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+                r -> {
+                    Thread t = new Thread(r, "event-worker-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                this::onQueueFull);
+        meterRegistry.gauge("sbs.events.queue_depth", workerPool, pool -> pool.getQueue().size());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        workerPool.shutdown();
+        if (!workerPool.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+            logger.warn("Event bus shut down with {} undelivered events", workerPool.getQueue().size());
+            workerPool.shutdownNow();
+        }
+    }
+
+    @Override
+    public void publish(Object event) {
+        if (event == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Only committed state is announced; on rollback the synchronization never fires
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+        } else {
+            dispatch(event);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> void subscribe(Class<T> eventType, Consumer<? super T> subscriber) {
+        subscribers.computeIfAbsent(eventType, type -> new CopyOnWriteArrayList<>())
+                .add(event -> subscriber.accept((T) event));
+    }
+
+    private void dispatch(Object event) {
+        String type = event.getClass().getSimpleName();
+        meterRegistry.counter("sbs.events.published", "type", type).increment();
+
+        List<Consumer<Object>> handlers = subscribers.getOrDefault(event.getClass(), List.of());
+        if (handlers.isEmpty()) {
+            logger.debug("No subscribers for {}", type);
+            return;
+        }
+        for (Consumer<Object> handler : handlers) {
+            workerPool.execute(() -> deliver(handler, event, type));
+        }
+    }
+
+    private void onQueueFull(Runnable task, ThreadPoolExecutor pool) {
+        try {
+            if (!pool.isShutdown() && pool.getQueue().offer(task, publishTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        meterRegistry.counter("sbs.events.dropped").increment();
+        logger.error("Event queue full, dropped an event delivery after waiting {} ms", publishTimeoutMs);
+    }
+
+    private void deliver(Consumer<Object> handler, Object event, String type) {
+        try {
+            handler.accept(event);
+        } catch (Exception e) {
+            meterRegistry.counter("sbs.events.subscriber_failures", "type", type).increment();
+            logger.error("Subscriber failed for {}: {}", type, e.getMessage(), e);
+        }
+    }
+}
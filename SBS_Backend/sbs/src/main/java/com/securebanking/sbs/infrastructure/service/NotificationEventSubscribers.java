@@ -0,0 +1,51 @@
+package com.securebanking.sbs.infrastructure.service;
+
+import com.securebanking.sbs.shared.event.ActivityEvent;
+import com.securebanking.sbs.shared.event.DomainEventBus;
+import com.securebanking.sbs.shared.event.NotificationEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wires the side effects of approval decisions onto the event bus: the in-app notification
+ * and the activity log entry are each handled by their own subscriber, off the request
+ * thread and only once the decision has committed. Email is not sent from here; the
+ * decision queues it in the email outbox within its own transaction.
+ */
+@Component
+public class NotificationEventSubscribers {
+
+    @Autowired
+    private DomainEventBus eventBus;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private ActivityLogService activityLogService;
+
+    @PostConstruct
+    void register() {
+        eventBus.subscribe(NotificationEvent.class, this::storeNotification);
+        eventBus.subscribe(ActivityEvent.class, this::recordActivity);
+    }
+
+    void storeNotification(NotificationEvent event) {
+        notificationService.createNotification(
+            event.getUserId(),
+            event.getType(),
+            event.getTitle(),
+            event.getMessage(),
+            event.getRelatedId()
+        );
+    }
+
+    void recordActivity(ActivityEvent event) {
+        if (event.getDetails() != null) {
+            activityLogService.logActivity(event.getUserId(), event.getAction(), event.getDescription(), event.getDetails());
+        } else {
+            activityLogService.logActivity(event.getUserId(), event.getAction(), event.getDescription());
+        }
+    }
+}
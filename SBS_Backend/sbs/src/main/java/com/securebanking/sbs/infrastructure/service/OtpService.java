@@ -1,144 +1,242 @@
 package com.securebanking.sbs.infrastructure.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.securebanking.sbs.core.resilience.Bulkhead;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.List;
 
+/**
+ * One-time passwords kept in Redis, or in memory when Redis is unavailable. Each OTP is a
+ * hash of the code and the number of wrong guesses; verification is a single script call
+ * that deletes the OTP when it matches and also once max-attempts wrong guesses have been
+ * made, so an OTP can neither be used twice nor guessed at indefinitely. Redis is called
+ * through the redis bulkhead, so a slow or failing Redis costs a request at most the
+ * bulkhead timeout before the in-memory fallback answers. The fallback is a bounded cache
+ * that expires entries on its own.
+ *
+ * A store that times out may still have reached Redis, so the same code can be held in both
+ * places. Each copy is therefore retired when the other is used: a code accepted by Redis
+ * drops the in-memory copy, and a code accepted from memory is deleted from Redis and kept
+ * in memory as used until it expires, so Redis cannot accept it a second time later.
+ */
 @Service
 public class OtpService {
 
     private static final Logger logger = LoggerFactory.getLogger(OtpService.class);
 
+    private static final String OTP_PREFIX = "otp:";
+
+    private static final long VALID = 1;
+    private static final long INVALID = 0;
+    private static final long MISSING = -1;
+    private static final long LOCKED = -2;
+
+    private static final RedisScript<Long> STORE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[1]) "
+                    + "redis.call('HSET', KEYS[1], 'otp', ARGV[1], 'attempts', 0) "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[2]) "
+                    + "return 1",
+            Long.class);
+
+    // 1 matched and deleted, 0 wrong guess, -1 no OTP, -2 wrong guess that used the last attempt
+    private static final RedisScript<Long> VERIFY_SCRIPT = new DefaultRedisScript<>(
+            "local stored = redis.call('HGET', KEYS[1], 'otp') "
+                    + "if not stored then return -1 end "
+                    + "if stored == ARGV[1] then redis.call('DEL', KEYS[1]) return 1 end "
+                    + "local attempts = redis.call('HINCRBY', KEYS[1], 'attempts', 1) "
+                    + "if attempts >= tonumber(ARGV[2]) then redis.call('DEL', KEYS[1]) return -2 end "
+                    + "return 0",
+            Long.class);
+
     @Autowired(required = false)
     private RedisTemplate<String, String> redisTemplate;
 
-    // Fallback to in-memory storage if Redis is not available
-    private static final ConcurrentHashMap<String, OtpData> inMemoryOtpStore = new ConcurrentHashMap<>();
-    private static final String OTP_PREFIX = "otp:";
-    private static final int OTP_EXPIRY_MINUTES = 5;
+    @Autowired
+    private Bulkhead redisBulkhead;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sbs.otp.expiry:PT5M}")
+    private Duration expiry;
+
+    @Value("${sbs.otp.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${sbs.otp.fallback.max-size:100000}")
+    private long fallbackMaxSize;
+
+    // Fallback when Redis is not available
+    private Cache<String, OtpData> inMemoryOtpStore;
+
+    @PostConstruct
+    void init() {
+        inMemoryOtpStore = Caffeine.newBuilder()
+                .maximumSize(fallbackMaxSize)
+                // Each OTP lives until its own deadline; wrong guesses update the entry without extending it
+                .expireAfter(new Expiry<String, OtpData>() {
+                    @Override
+                    public long expireAfterCreate(String email, OtpData otpData, long currentTime) {
+                        return otpData.expiresAtNanos - currentTime;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String email, OtpData otpData, long currentTime, long currentDuration) {
+                        return otpData.expiresAtNanos - currentTime;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String email, OtpData otpData, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .scheduler(Scheduler.systemScheduler())
+                .build();
+    }
 
     public void storeOtp(String email, String otp) {
-        System.out.println("Storing OTP for email: " + email + ", OTP: " + otp);
-        
-        try {
-            if (redisTemplate != null) {
-                // Use Redis if available
-                String key = OTP_PREFIX + email;
-                redisTemplate.opsForValue().set(key, otp, OTP_EXPIRY_MINUTES, TimeUnit.MINUTES);
-                System.out.println("OTP stored in Redis for email: " + email + ", key: " + key);
-            } else {
-                // Fallback to in-memory storage
-                inMemoryOtpStore.put(email, new OtpData(otp, System.currentTimeMillis()));
-                System.out.println("OTP stored in memory for email: " + email);
-            }
-        } catch (Exception e) {
-            // Fallback to in-memory storage on Redis error
-            System.out.println("Redis unavailable, using in-memory storage: " + e.getMessage());
-            inMemoryOtpStore.put(email, new OtpData(otp, System.currentTimeMillis()));
+        boolean stored = redisTemplate != null && redisBulkhead.call(() -> {
+            redisTemplate.execute(STORE_SCRIPT, List.of(OTP_PREFIX + email), otp, String.valueOf(expiry.toMillis()));
+            return true;
+        }, () -> false);
+        if (stored) {
+            // Drop any code issued while Redis was unavailable so it cannot be used instead
+            inMemoryOtpStore.invalidate(email);
+            logger.debug("OTP stored in Redis for email: {}", email);
+            return;
         }
+        inMemoryOtpStore.put(email, new OtpData(otp, System.nanoTime() + expiry.toNanos()));
+        logger.debug("OTP stored in memory for email: {}", email);
     }
 
     public String getOtp(String email) {
-        try {
-            if (redisTemplate != null) {
-                String key = OTP_PREFIX + email;
-                return redisTemplate.opsForValue().get(key);
-            } else {
-                OtpData otpData = inMemoryOtpStore.get(email);
-                if (otpData != null && !isExpired(otpData)) {
-                    return otpData.getOtp();
-                }
-                return null;
-            }
-        } catch (Exception e) {
-            logger.warn("Redis error, checking in-memory storage: {}", e.getMessage());
-            OtpData otpData = inMemoryOtpStore.get(email);
-            if (otpData != null && !isExpired(otpData)) {
-                return otpData.getOtp();
+        if (redisTemplate != null) {
+            String otp = redisBulkhead.call(() -> {
+                Object stored = redisTemplate.opsForHash().get(OTP_PREFIX + email, "otp");
+                return stored != null ? stored.toString() : null;
+            }, () -> null);
+            if (otp != null) {
+                return otp;
             }
-            return null;
         }
+        OtpData otpData = inMemoryOtpStore.getIfPresent(email);
+        return otpData != null && !otpData.used ? otpData.getOtp() : null;
     }
 
     public boolean validateAndRemoveOtp(String email, String otp) {
-        System.out.println("Validating OTP for email: " + email + ", provided OTP: " + otp);
-        
-        try {
-            if (redisTemplate != null) {
-                String key = OTP_PREFIX + email;
-                String storedOtp = redisTemplate.opsForValue().get(key);
-                System.out.println("Redis OTP lookup - Key: " + key + ", Stored OTP: " + storedOtp);
-                
-                if (storedOtp != null && storedOtp.equals(otp)) {
-                    redisTemplate.delete(key);
-                    System.out.println("OTP validated and removed from Redis for email: " + email);
-                    return true;
-                }
-                System.out.println("OTP validation failed - stored OTP: " + storedOtp + ", provided OTP: " + otp);
-                return false;
-            } else {
-                OtpData otpData = inMemoryOtpStore.get(email);
-                System.out.println("Memory OTP lookup - Email: " + email + ", Stored OTP: " + (otpData != null ? otpData.getOtp() : "null"));
-                
-                if (otpData != null && !isExpired(otpData) && otpData.getOtp().equals(otp)) {
-                    inMemoryOtpStore.remove(email);
-                    System.out.println("OTP validated and removed from memory for email: " + email);
-                    return true;
+        if (otp == null) {
+            return false;
+        }
+        Long outcome = redisTemplate == null ? null : redisBulkhead.call(
+                () -> redisTemplate.execute(VERIFY_SCRIPT, List.of(OTP_PREFIX + email), otp, String.valueOf(maxAttempts)),
+                () -> null);
+        long result;
+        if (outcome == null || outcome == MISSING) {
+            // Unreachable Redis, or an OTP stored in memory while it was
+            result = validateInMemory(email, otp);
+        } else {
+            result = outcome;
+            if (outcome == VALID || outcome == LOCKED) {
+                OtpData inMemory = inMemoryOtpStore.asMap().remove(email);
+                if (outcome == VALID && inMemory != null && inMemory.used && inMemory.getOtp().equals(otp)) {
+                    // Already accepted from memory while Redis was unreachable
+                    result = MISSING;
                 }
-                System.out.println("OTP validation failed - stored OTP: " + (otpData != null ? otpData.getOtp() : "null") + ", provided OTP: " + otp);
-                return false;
-            }
-        } catch (Exception e) {
-            System.out.println("Redis error, validating from in-memory storage: " + e.getMessage());
-            OtpData otpData = inMemoryOtpStore.get(email);
-            if (otpData != null && !isExpired(otpData) && otpData.getOtp().equals(otp)) {
-                inMemoryOtpStore.remove(email);
-                return true;
             }
-            return false;
         }
+
+        meterRegistry.counter("sbs.otp.verifications", "result", outcomeName(result)).increment();
+        if (result == LOCKED) {
+            logger.warn("OTP for email {} discarded after {} failed attempts", email, maxAttempts);
+        } else if (result != VALID) {
+            logger.debug("OTP validation failed for email: {}", email);
+        }
+        return result == VALID;
     }
 
     public void removeOtp(String email) {
-        try {
-            if (redisTemplate != null) {
-                String key = OTP_PREFIX + email;
-                redisTemplate.delete(key);
-            } else {
-                inMemoryOtpStore.remove(email);
-            }
-        } catch (Exception e) {
-            logger.warn("Redis error, removing from in-memory storage: {}", e.getMessage());
-            inMemoryOtpStore.remove(email);
+        inMemoryOtpStore.invalidate(email);
+        if (redisTemplate != null) {
+            redisBulkhead.call(() -> redisTemplate.delete(OTP_PREFIX + email), () -> false);
         }
     }
 
-    private boolean isExpired(OtpData otpData) {
-        long currentTime = System.currentTimeMillis();
-        long expiryTime = otpData.getTimestamp() + (OTP_EXPIRY_MINUTES * 60 * 1000);
-        return currentTime > expiryTime;
+    // Expired OTPs are evicted by the cache itself; this only forces pending maintenance
+    public void cleanupExpiredOtps() {
+        inMemoryOtpStore.cleanUp();
     }
 
-    // Clean up expired OTPs periodically
-    public void cleanupExpiredOtps() {
-        inMemoryOtpStore.entrySet().removeIf(entry -> isExpired(entry.getValue()));
+    private long validateInMemory(String email, String otp) {
+        long[] result = {MISSING};
+        inMemoryOtpStore.asMap().computeIfPresent(email, (key, otpData) -> {
+            if (otpData.used) {
+                return otpData;
+            }
+            if (otpData.getOtp().equals(otp)) {
+                result[0] = VALID;
+                return otpData.markUsed();
+            }
+            if (otpData.attempts + 1 >= maxAttempts) {
+                result[0] = LOCKED;
+                return null;
+            }
+            result[0] = INVALID;
+            otpData.attempts++;
+            return otpData;
+        });
+        if (result[0] == VALID && redisTemplate != null) {
+            // A store that timed out may have reached Redis after all
+            redisBulkhead.call(() -> redisTemplate.delete(OTP_PREFIX + email), () -> false);
+        }
+        return result[0];
+    }
+
+    private static String outcomeName(long result) {
+        if (result == VALID) {
+            return "valid";
+        }
+        if (result == LOCKED) {
+            return "locked";
+        }
+        return result == INVALID ? "invalid" : "missing";
     }
 
     private static class OtpData {
         private final String otp;
-        private final long timestamp;
+        private final long expiresAtNanos;
+        // Only read and written inside computeIfPresent
+        private int attempts;
+        // Accepted already; kept until it expires so a copy in Redis cannot be accepted again
+        private final boolean used;
+
+        OtpData(String otp, long expiresAtNanos) {
+            this(otp, expiresAtNanos, false);
+        }
 
-        public OtpData(String otp, long timestamp) {
+        private OtpData(String otp, long expiresAtNanos, boolean used) {
             this.otp = otp;
-            this.timestamp = timestamp;
+            this.expiresAtNanos = expiresAtNanos;
+            this.used = used;
+        }
+
+        OtpData markUsed() {
+            return new OtpData(otp, expiresAtNanos, true);
         }
 
         public String getOtp() { return otp; }
-        public long getTimestamp() { return timestamp; }
     }
-} 
\ No newline at end of file
+}
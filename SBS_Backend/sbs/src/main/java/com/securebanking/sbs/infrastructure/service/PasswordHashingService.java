@@ -0,0 +1,141 @@
+package com.securebanking.sbs.infrastructure.service;
+
+import com.securebanking.sbs.core.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs BCrypt on a small dedicated pool. Hashing is pure CPU, so the pool is sized to the
+ * cores and its queue is bounded: during a login storm at most that many hashes run at once
+ * and the request threads waiting on them stay cheap. When the queue is full the caller gets
+ * a ServiceBusyException (503 with Retry-After) instead of piling up more work.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sbs.security.bcrypt.strength:10}")
+    private int strength;
+
+    @Value("${sbs.security.hashing.threads:0}")
+    private int threads;
+
+    @Value("${sbs.security.hashing.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${sbs.security.hashing.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor hashingPool;
+    private Timer hashTimer;
+    private Timer verifyTimer;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        hashingPool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+                r -> {
+                    Thread t = new Thread(r, "password-hasher-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        hashTimer = meterRegistry.timer("sbs.password.hashing", "operation", "encode");
+        verifyTimer = meterRegistry.timer("sbs.password.hashing", "operation", "verify");
+        rejectedCounter = meterRegistry.counter("sbs.password.hashing.rejected");
+        meterRegistry.gauge("sbs.password.hashing.queue_depth", hashingPool, pool -> pool.getQueue().size());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        hashingPool.shutdown();
+        hashingPool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    public String encode(String rawPassword) {
+        return await(submit(() -> hashTimer.record(() -> passwordEncoder.encode(rawPassword))));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        return await(submit(() -> verifyTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword))));
+    }
+
+    /**
+     * Hashes without waiting; used for rehashing, which the caller does not need to finish.
+     */
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        return submit(() -> hashTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * True when the stored hash was made with a different cost than the configured one,
+     * so it should be replaced the next time the plain password is at hand.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, hashingPool);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Too many sign-in attempts in progress, please retry shortly", 1);
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Password check timed out, please retry shortly", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.securebanking.sbs.infrastructure.service;
+
+import com.securebanking.sbs.core.resilience.Bulkhead;
+import com.securebanking.sbs.infrastructure.repository.AccountRequestRepo;
+import com.securebanking.sbs.infrastructure.repository.ProfileUpdateRequestRepo;
+import com.securebanking.sbs.infrastructure.repository.TransactionRepo;
+import com.securebanking.sbs.shared.event.DomainEventBus;
+import com.securebanking.sbs.shared.event.PendingQueueEvent;
+import com.securebanking.sbs.shared.event.PendingQueueEvent.Queue;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory view of the approvers' pending queues: the ids in each queue, a version that
+ * increases with every change, and a bounded log of recent changes. Submissions and
+ * decisions update it through PendingQueueEvent once they commit, so polling approvers can
+ * be answered from memory; a periodic resync against the database picks up any change made
+ * by a path that does not publish an event, and records it in the log like any other.
+ *
+ * Versions are "epoch-sequence" strings. The epoch is fixed per process, so a version from
+ * another instance or an earlier run is never mistaken for one of ours; a client that moves
+ * between instances simply gets a full reload.
+ *
+ * Events only reach the instance that published them. So that another instance's change is
+ * not hidden behind a 304, every applied event also increments a generation counter in
+ * Redis, and before answering, an instance that finds the counter past the last value it
+ * accounted for resyncs from the database first. Without Redis, or while it is unreachable,
+ * other instances' changes show up at the next scheduled resync instead.
+ */
+@Service
+public class PendingQueueTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(PendingQueueTracker.class);
+
+    private static final String GENERATION_KEY = "approval:pending:generation";
+
+    @Autowired
+    private DomainEventBus eventBus;
+
+    @Autowired
+    private AccountRequestRepo accountRequestRepo;
+
+    @Autowired
+    private ProfileUpdateRequestRepo profileUpdateRequestRepo;
+
+    @Autowired
+    private TransactionRepo transactionRepo;
+
+    @Autowired(required = false)
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private Bulkhead redisBulkhead;
+
+    @Value("${sbs.approval.queue.change-log-size:1000}")
+    private int changeLogSize;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // All guarded by this
+    private final Map<Queue, Set<Integer>> pending = new EnumMap<>(Queue.class);
+    private final ArrayDeque<Change> changeLog = new ArrayDeque<>();
+    private long sequence;
+    // Changes at or below this sequence are no longer in the log
+    private long floorSequence;
+    private boolean initialized;
+    // Items changed by events while a resync is reading the database; the resync leaves them alone
+    private Set<Item> touchedDuringResync;
+
+    // Serialises resyncs; held across the database reads, so not a monitor
+    private final ReentrantLock resyncLock = new ReentrantLock();
+
+    // Highest shared generation whose changes this instance has already applied
+    private final AtomicLong seenGeneration = new AtomicLong();
+
+    @PostConstruct
+    void register() {
+        for (Queue queue : Queue.values()) {
+            pending.put(queue, new HashSet<>());
+        }
+        eventBus.subscribe(PendingQueueEvent.class, this::onPendingQueueEvent);
+    }
+
+    void onPendingQueueEvent(PendingQueueEvent event) {
+        synchronized (this) {
+            if (touchedDuringResync != null) {
+                touchedDuringResync.add(new Item(event.getQueue(), event.getId()));
+            } else if (!initialized) {
+                // The first resync will read the committed state
+                return;
+            }
+            apply(event.getQueue(), event.getId(), event.isAdded());
+        }
+        announceChange();
+    }
+
+    /**
+     * Current version and the size of each queue.
+     */
+    public QueueState state() {
+        ensureInitialized();
+        catchUpWithOtherInstances();
+        synchronized (this) {
+            return new QueueState(version(sequence), counts());
+        }
+    }
+
+    /**
+     * What changed after the given version, netted per item, or empty if that version is
+     * not one this instance can answer from its log and the caller has to reload everything.
+     */
+    public Optional<Delta> changesSince(String version) {
+        catchUpWithOtherInstances();
+        return localChangesSince(version);
+    }
+
+    private synchronized Optional<Delta> localChangesSince(String version) {
+        long since = parseSequence(version);
+        if (!initialized || since < floorSequence || since > sequence) {
+            return Optional.empty();
+        }
+        Map<Item, Boolean> net = new LinkedHashMap<>();
+        for (Change change : changeLog) {
+            if (change.sequence() > since) {
+                net.put(change.item(), change.added());
+            }
+        }
+        Delta delta = new Delta(version(sequence), counts());
+        net.forEach((item, added) -> (added ? delta.added : delta.removed)
+                .computeIfAbsent(item.queue(), q -> new HashSet<>()).add(item.id()));
+        return Optional.of(delta);
+    }
+
+    @Scheduled(fixedDelayString = "${sbs.approval.queue.resync-interval-ms:60000}",
+               initialDelayString = "${sbs.approval.queue.resync-interval-ms:60000}")
+    public void resync() {
+        resyncLock.lock();
+        try {
+            doResync();
+        } finally {
+            resyncLock.unlock();
+        }
+    }
+
+    private void doResync() {
+        synchronized (this) {
+            touchedDuringResync = new HashSet<>();
+        }
+        Map<Queue, Collection<Integer>> current = new EnumMap<>(Queue.class);
+        try {
+            current.put(Queue.ACCOUNT_REQUESTS, accountRequestRepo.findPendingIds());
+            current.put(Queue.PROFILE_REQUESTS, profileUpdateRequestRepo.findPendingIds());
+            current.put(Queue.TRANSACTIONS, transactionRepo.findPendingIds());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                touchedDuringResync = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            int drift = 0;
+            for (Queue queue : Queue.values()) {
+                Set<Integer> stored = pending.get(queue);
+                Set<Integer> actual = new HashSet<>(current.get(queue));
+                for (Integer id : new HashSet<>(stored)) {
+                    if (!actual.contains(id) && !touchedDuringResync.contains(new Item(queue, id))) {
+                        drift += apply(queue, id, false) ? 1 : 0;
+                    }
+                }
+                for (Integer id : actual) {
+                    if (!stored.contains(id) && !touchedDuringResync.contains(new Item(queue, id))) {
+                        drift += apply(queue, id, true) ? 1 : 0;
+                    }
+                }
+            }
+            touchedDuringResync = null;
+            if (!initialized) {
+                // Loading the queues is not a change anyone has to be told about
+                changeLog.clear();
+                floorSequence = sequence;
+                initialized = true;
+                logger.info("Pending queues loaded at version {}", version(sequence));
+            } else if (drift > 0) {
+                logger.info("Pending queue resync found {} changes not published as events", drift);
+            }
+        }
+    }
+
+    // Tells other instances that a queue changed here
+    private void announceChange() {
+        if (redisTemplate == null) {
+            return;
+        }
+        Long generation = redisBulkhead.call(() -> redisTemplate.opsForValue().increment(GENERATION_KEY), () -> null);
+        if (generation != null) {
+            // Only our own increment is accounted for; if another instance's came in between, leave it to be caught up
+            seenGeneration.compareAndSet(generation - 1, generation);
+        }
+    }
+
+    private void catchUpWithOtherInstances() {
+        if (redisTemplate == null) {
+            return;
+        }
+        Long generation = redisBulkhead.call(() -> {
+            String value = redisTemplate.opsForValue().get(GENERATION_KEY);
+            return value != null ? Long.parseLong(value) : 0L;
+        }, () -> null);
+        if (generation == null || generation <= seenGeneration.get()) {
+            return;
+        }
+        resyncLock.lock();
+        try {
+            // Another caller may have caught up while we waited for the lock
+            if (generation > seenGeneration.get()) {
+                doResync();
+                seenGeneration.accumulateAndGet(generation, Math::max);
+            }
+        } finally {
+            resyncLock.unlock();
+        }
+    }
+
+    private void ensureInitialized() {
+        synchronized (this) {
+            if (initialized) {
+                return;
+            }
+        }
+        resync();
+    }
+
+    private boolean apply(Queue queue, Integer id, boolean added) {
+        Set<Integer> ids = pending.get(queue);
+        if (added ? !ids.add(id) : !ids.remove(id)) {
+            return false;
+        }
+        sequence++;
+        changeLog.addLast(new Change(sequence, new Item(queue, id), added));
+        while (changeLog.size() > changeLogSize) {
+            floorSequence = changeLog.removeFirst().sequence();
+        }
+        return true;
+    }
+
+    private Map<Queue, Integer> counts() {
+        Map<Queue, Integer> counts = new EnumMap<>(Queue.class);
+        pending.forEach((queue, ids) -> counts.put(queue, ids.size()));
+        return counts;
+    }
+
+    private String version(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private long parseSequence(String version) {
+        if (version == null) {
+            return -1;
+        }
+        String value = version.trim();
+        // Accept the version as sent back in If-None-Match
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        int separator = value.lastIndexOf('-');
+        if (separator < 0 || !value.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public static class QueueState {
+        private final String version;
+        private final Map<Queue, Integer> counts;
+
+        QueueState(String version, Map<Queue, Integer> counts) {
+            this.version = version;
+            this.counts = counts;
+        }
+
+        public String getVersion() { return version; }
+        public Map<Queue, Integer> getCounts() { return counts; }
+    }
+
+    public static class Delta {
+        private final String version;
+        private final Map<Queue, Integer> counts;
+        private final Map<Queue, Set<Integer>> added = new EnumMap<>(Queue.class);
+        private final Map<Queue, Set<Integer>> removed = new EnumMap<>(Queue.class);
+
+        Delta(String version, Map<Queue, Integer> counts) {
+            this.version = version;
+            this.counts = counts;
+        }
+
+        public String getVersion() { return version; }
+        public Map<Queue, Integer> getCounts() { return counts; }
+        public Set<Integer> getAdded(Queue queue) { return added.getOrDefault(queue, Set.of()); }
+        public Set<Integer> getRemoved(Queue queue) { return removed.getOrDefault(queue, Set.of()); }
+        public boolean isEmpty() { return added.isEmpty() && removed.isEmpty(); }
+    }
+
+    private record Item(Queue queue, Integer id) {
+    }
+
+    private record Change(long sequence, Item item, boolean added) {
+    }
+}
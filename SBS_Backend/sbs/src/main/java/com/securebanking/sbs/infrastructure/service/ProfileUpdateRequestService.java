@@ -2,6 +2,9 @@ package com.securebanking.sbs.infrastructure.service;
 
 import com.securebanking.sbs.shared.dto.ProfileUpdateRequestDto;
 import com.securebanking.sbs.shared.event.NotificationEvent;
+import com.securebanking.sbs.shared.event.DomainEventBus;
+import com.securebanking.sbs.shared.event.PendingQueueEvent;
+import com.securebanking.sbs.shared.event.PendingQueueEvent.Queue;
 import com.securebanking.sbs.modules.internal_user.model.ProfileUpdateRequest;
 import com.securebanking.sbs.shared.model.User;
 import com.securebanking.sbs.infrastructure.repository.ProfileUpdateRequestRepo;
@@ -23,6 +26,9 @@ public class ProfileUpdateRequestService {
     
     @Autowired
     private UserRepo userRepo;
+
+    @Autowired
+    private DomainEventBus eventBus;
     
     // KafkaProducerService removed for Render deployment
     
@@ -44,6 +50,7 @@ public class ProfileUpdateRequestService {
         
         // Save the request
         ProfileUpdateRequest savedRequest = profileUpdateRequestRepo.save(request);
+        eventBus.publish(PendingQueueEvent.added(Queue.PROFILE_REQUESTS, savedRequest.getId()));
         
         // Create notification for request submission
         try {
@@ -90,6 +97,7 @@ public class ProfileUpdateRequestService {
             // Update the request status
             request.setStatus("Approved");
             ProfileUpdateRequest savedRequest = profileUpdateRequestRepo.save(request);
+            eventBus.publish(PendingQueueEvent.removed(Queue.PROFILE_REQUESTS, requestId));
             
             System.out.println("Profile update request status updated to 'Approved'");
             
@@ -127,6 +135,7 @@ public class ProfileUpdateRequestService {
         // Update the request status
         request.setStatus("Rejected");
         ProfileUpdateRequest savedRequest = profileUpdateRequestRepo.save(request);
+        eventBus.publish(PendingQueueEvent.removed(Queue.PROFILE_REQUESTS, requestId));
         
         // Publish notification event to Kafka
         createNotificationEvent(request, "rejected", reason);
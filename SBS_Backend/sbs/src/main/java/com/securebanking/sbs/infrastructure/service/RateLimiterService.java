@@ -0,0 +1,217 @@
+package com.securebanking.sbs.infrastructure.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.securebanking.sbs.core.config.RateLimitConfig;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets behind the rate limit profiles. With sbs.rate-limit.distributed the buckets
+ * live in Redis so every instance draws from the same budget; each instance keeps a local
+ * proxy per bucket that batches consumption and only synchronises with Redis every
+ * sync-interval or after a tenth of the capacity, so most requests cost no round-trip.
+ * If Redis is unreachable the limiter falls back to in-process buckets until the reconnect
+ * interval passes, rather than failing or waving every request through.
+ *
+ * The buckets use their own connection, with a shorter command timeout, but it is opened
+ * from Spring's Lettuce client, so the URL, SSL, sentinel and cluster settings under
+ * spring.data.redis apply here exactly as they do to the rest of the application.
+ */
+@Service
+public class RateLimiterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiterService.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectProvider<LettuceConnectionFactory> redisConnectionFactory;
+
+    @Value("${sbs.rate-limit.distributed:false}")
+    private boolean distributed;
+
+    @Value("${sbs.rate-limit.key-prefix:sbs:rate-limit:}")
+    private String keyPrefix;
+
+    @Value("${sbs.rate-limit.sync-interval-ms:500}")
+    private long syncIntervalMs;
+
+    @Value("${sbs.rate-limit.redis-timeout-ms:200}")
+    private long redisTimeoutMs;
+
+    @Value("${sbs.rate-limit.reconnect-interval-ms:30000}")
+    private long reconnectIntervalMs;
+
+    @Value("${sbs.rate-limit.local-buckets.max-size:100000}")
+    private long localBucketsMaxSize;
+
+    private Cache<String, Bucket> localBuckets;
+    private Cache<String, Bucket> remoteBuckets;
+    private Counter redisFailures;
+
+    private StatefulConnection<String, byte[]> connection;
+    private volatile LettuceBasedProxyManager<String> proxyManager;
+    private volatile long redisRetryAt;
+
+    // A lock rather than synchronized: connecting blocks, and a blocked virtual thread would pin its carrier
+    private final ReentrantLock redisLock = new ReentrantLock();
+
+    @PostConstruct
+    void init() {
+        localBuckets = Caffeine.newBuilder()
+                .maximumSize(localBucketsMaxSize)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+        remoteBuckets = Caffeine.newBuilder()
+                .maximumSize(localBucketsMaxSize)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+        redisFailures = meterRegistry.counter("sbs.rate_limit.redis_failures");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        redisLock.lock();
+        try {
+            closeRedis();
+        } finally {
+            redisLock.unlock();
+        }
+    }
+
+    /**
+     * Takes one token from the subject's bucket for the given profile.
+     */
+    public ConsumptionProbe tryConsume(RateLimitConfig.Profile profile, String subject) {
+        String key = profile.getName() + ":" + subject;
+        ConsumptionProbe probe = null;
+        if (distributed && System.currentTimeMillis() >= redisRetryAt) {
+            try {
+                probe = remoteBucket(profile, key).tryConsumeAndReturnRemaining(1);
+            } catch (RuntimeException e) {
+                redisUnavailable(e);
+            }
+        }
+        if (probe == null) {
+            probe = localBuckets.get(key, k -> Bucket.builder()
+                    .addLimit(profile.getConfiguration().getBandwidths()[0])
+                    .build())
+                    .tryConsumeAndReturnRemaining(1);
+        }
+        if (!probe.isConsumed()) {
+            meterRegistry.counter("sbs.rate_limit.rejected", "profile", profile.getName()).increment();
+        }
+        return probe;
+    }
+
+    private Bucket remoteBucket(RateLimitConfig.Profile profile, String key) {
+        Bucket bucket = remoteBuckets.getIfPresent(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        // Connect outside the cache's compute, which holds a monitor while the mapping runs
+        LettuceBasedProxyManager<String> manager = proxyManager();
+        return remoteBuckets.get(key, k -> {
+            long capacity = profile.getConfiguration().getBandwidths()[0].getCapacity();
+            DelayParameters delay = new DelayParameters(Math.max(1, capacity / 10), Duration.ofMillis(syncIntervalMs));
+            return manager.builder()
+                    .withOptimization(Optimizations.delaying(delay))
+                    .build(keyPrefix + k, profile::getConfiguration);
+        });
+    }
+
+    private LettuceBasedProxyManager<String> proxyManager() {
+        LettuceBasedProxyManager<String> manager = proxyManager;
+        if (manager != null) {
+            return manager;
+        }
+        redisLock.lock();
+        try {
+            if (proxyManager != null) {
+                return proxyManager;
+            }
+            LettuceConnectionFactory connectionFactory = redisConnectionFactory.getIfAvailable();
+            if (connectionFactory == null) {
+                throw new IllegalStateException("No Lettuce Redis connection configured for rate limiting");
+            }
+            AbstractRedisClient client = connectionFactory.getRequiredNativeClient();
+            RedisCodec<String, byte[]> codec = RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
+            LettuceBasedProxyManager.LettuceBasedProxyManagerBuilder<String> builder;
+            if (client instanceof RedisClusterClient clusterClient) {
+                StatefulRedisClusterConnection<String, byte[]> clusterConnection = clusterClient.connect(codec);
+                connection = clusterConnection;
+                builder = LettuceBasedProxyManager.builderFor(clusterConnection);
+            } else {
+                StatefulRedisConnection<String, byte[]> standaloneConnection = ((RedisClient) client).connect(codec);
+                connection = standaloneConnection;
+                builder = LettuceBasedProxyManager.builderFor(standaloneConnection);
+            }
+            // A slow Redis should send requests to the local buckets quickly, not at the app-wide timeout
+            connection.setTimeout(Duration.ofMillis(redisTimeoutMs));
+            proxyManager = builder
+                    .withClientSideConfig(ClientSideConfig.getDefault()
+                            .withExpirationAfterWriteStrategy(ExpirationAfterWriteStrategy
+                                    .basedOnTimeForRefillingBucketUpToMax(Duration.ofMinutes(1))))
+                    .build();
+            return proxyManager;
+        } finally {
+            redisLock.unlock();
+        }
+    }
+
+    private void redisUnavailable(RuntimeException e) {
+        redisFailures.increment();
+        redisLock.lock();
+        try {
+            if (System.currentTimeMillis() < redisRetryAt) {
+                return;
+            }
+            logger.warn("Redis unavailable for rate limiting, using local buckets for {} ms: {}",
+                    reconnectIntervalMs, e.getMessage());
+            redisRetryAt = System.currentTimeMillis() + reconnectIntervalMs;
+            remoteBuckets.invalidateAll();
+            closeRedis();
+        } finally {
+            redisLock.unlock();
+        }
+    }
+
+    // Only the connection is ours; the client belongs to the connection factory
+    private void closeRedis() {
+        if (connection != null) {
+            connection.close();
+            connection = null;
+        }
+        proxyManager = null;
+    }
+}
@@ -0,0 +1,84 @@
+package com.securebanking.sbs.infrastructure.service;
+
+import com.securebanking.sbs.core.config.ReconciliationJobConfig;
+import com.securebanking.sbs.infrastructure.batch.LedgerReconciliationProcessor;
+import com.securebanking.sbs.infrastructure.model.LedgerReconciliation;
+import com.securebanking.sbs.infrastructure.repository.LedgerReconciliationRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public class ReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliationService.class);
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    @Qualifier(ReconciliationJobConfig.JOB_NAME)
+    private Job reconciliationJob;
+
+    @Autowired
+    private LedgerReconciliationRepo ledgerReconciliationRepo;
+
+    /**
+     * Reconciles every account. One job instance per run date: relaunching a failed date
+     * restarts it, and only the partitions and chunks that had not committed are redone.
+     */
+    public JobExecution reconcile(LocalDate runDate) throws Exception {
+        JobParameters parameters = new JobParametersBuilder()
+                .addString(ReconciliationJobConfig.RUN_DATE_PARAMETER, runDate.toString())
+                .toJobParameters();
+        JobExecution execution = jobLauncher.run(reconciliationJob, parameters);
+
+        long checked = 0;
+        long drifted = 0;
+        long unreconciled = 0;
+        for (StepExecution step : execution.getStepExecutions()) {
+            if (step.getStepName().startsWith("reconciliationWorkerStep")) {
+                checked += step.getReadCount();
+                drifted += step.getWriteCount();
+                unreconciled += step.getExecutionContext().getLong(LedgerReconciliationProcessor.MISSING_OPENING_BALANCE, 0);
+            }
+        }
+        if (unreconciled > 0) {
+            logger.warn("Ledger reconciliation {}: {} of {} accounts have no opening balance and were not checked",
+                    runDate, unreconciled, checked);
+        }
+        if (drifted > 0) {
+            logger.warn("Ledger reconciliation {} ({}): {} of {} accounts drifted",
+                    runDate, execution.getStatus(), drifted, checked);
+        } else {
+            logger.info("Ledger reconciliation {} ({}): {} accounts checked, no drift",
+                    runDate, execution.getStatus(), checked);
+        }
+        return execution;
+    }
+
+    public List<LedgerReconciliation> getDrift(Long jobExecutionId) {
+        return ledgerReconciliationRepo.findByJobExecutionId(jobExecutionId);
+    }
+
+    @Scheduled(cron = "${sbs.reconciliation.cron:0 0 3 * * *}")
+    public void reconcileNightly() {
+        try {
+            reconcile(LocalDate.now());
+        } catch (Exception e) {
+            logger.error("Ledger reconciliation failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.securebanking.sbs.infrastructure.service;
+
+import com.securebanking.sbs.core.config.CacheConfig;
+import com.securebanking.sbs.infrastructure.repository.AccountRepo;
+import com.securebanking.sbs.infrastructure.repository.UserRepo;
+import com.securebanking.sbs.infrastructure.repository.UserRoleRepo;
+import com.securebanking.sbs.shared.model.User;
+import com.securebanking.sbs.shared.model.UserRole;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Cached lookups for data that is read on nearly every request but rarely written: users
+ * (with their role), roles, and the account number to id mapping. Returned entities are
+ * detached copies shared between callers, so they are for reading and for use as
+ * association references only; code that modifies a user loads it through UserRepo.
+ * Accounts themselves are not cached because their balance changes on every transfer.
+ */
+@Service
+public class ReferenceDataService {
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private UserRoleRepo userRoleRepo;
+
+    @Autowired
+    private AccountRepo accountRepo;
+
+    @Cacheable(cacheNames = CacheConfig.USERS, unless = "#result == null")
+    public Optional<User> findUser(Integer userId) {
+        return userRepo.findWithRoleById(userId);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.ROLES, unless = "#result == null")
+    public Optional<UserRole> findRole(Integer roleId) {
+        return userRoleRepo.findById(roleId);
+    }
+
+    /**
+     * Id of the account with this number, or null when there is none.
+     */
+    @Cacheable(cacheNames = CacheConfig.ACCOUNT_IDS_BY_NUMBER, unless = "#result == null")
+    public Long findAccountIdByNumber(String accountNumber) {
+        return accountRepo.findIdByAccountNumber(accountNumber);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.USERS)
+    public void evictUser(Integer userId) {
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNT_IDS_BY_NUMBER)
+    public void evictAccountNumber(String accountNumber) {
+    }
+
+    /**
+     * Drops the cached account list of a user whose accounts were opened, closed or changed balance.
+     */
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNTS_BY_USER)
+    public void evictAccountsForUser(Integer userId) {
+    }
+}
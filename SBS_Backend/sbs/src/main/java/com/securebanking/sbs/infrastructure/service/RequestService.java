@@ -8,6 +8,9 @@ import com.securebanking.sbs.shared.dto.UserDto;
 import com.securebanking.sbs.shared.dto.UserProfileUpdateRequestDto;
 import com.securebanking.sbs.shared.enums.ApprovalStatus;
 import com.securebanking.sbs.shared.enums.RequestStatus;
+import com.securebanking.sbs.shared.event.DomainEventBus;
+import com.securebanking.sbs.shared.event.PendingQueueEvent;
+import com.securebanking.sbs.shared.event.PendingQueueEvent.Queue;
 import com.securebanking.sbs.infrastructure.iservice.IRequest;
 import com.securebanking.sbs.shared.model.*;
 import com.securebanking.sbs.infrastructure.repository.*;
@@ -48,6 +51,12 @@ public class RequestService implements IRequest {
     @Autowired
     AccountService accountService;
 
+    @Autowired
+    DashboardSummaryService dashboardSummaryService;
+
+    @Autowired
+    ReferenceDataService referenceDataService;
+
     public TransactionAuthorizationDto getAllTranctionRequests(TransactionAuthorizationDto transactionAuthorizationDto) {
 
         return transactionAuthorizationDto;
@@ -60,6 +69,9 @@ public class RequestService implements IRequest {
     @Autowired
     private ActivityLogService activityLogService;
 
+    @Autowired
+    private DomainEventBus eventBus;
+
 
     public List<UserProfileUpdateRequestDto> getPendingUpdateRequests() {
         List<UserProfileUpdateRequest> userProfileUpdateRequest = userProfileUpdateRequestRepo.findByStatus(RequestStatus.PENDING);
@@ -146,15 +158,15 @@ public class RequestService implements IRequest {
             try {
                 //creation of request
                 //GET SENDER,RECEIVER ACCOUNT DETAILS,user,transaction type,amount
-                User user = userRepo.findById(transactionDto.getUser().getUserId())
+                User user = referenceDataService.findUser(transactionDto.getUser().getUserId())
                     .orElseThrow(() -> new RuntimeException("User not found with ID: " + transactionDto.getUser().getUserId()));
 
-                Account senderAcc = accountRepo.findbyaccountnumber(transactionDto.getSenderAccountNumber());
+                Account senderAcc = findAccountByNumber(transactionDto.getSenderAccountNumber());
                 if (senderAcc == null) {
                     throw new RuntimeException("Sender account not found with number: " + transactionDto.getSenderAccountNumber());
                 }
                 
-                Account receiverAcc = accountRepo.findbyaccountnumber(transactionDto.getReceiverAccountNumber());
+                Account receiverAcc = findAccountByNumber(transactionDto.getReceiverAccountNumber());
                 if (receiverAcc == null) {
                     throw new RuntimeException("Receiver account not found with number: " + transactionDto.getReceiverAccountNumber());
                 }
@@ -163,8 +175,8 @@ public class RequestService implements IRequest {
                 transaction.setReceiverAcc(receiverAcc);
                 transaction.setUser(user);
                 transaction.setTransactionType(transactionDto.getTransactionType());
-                transaction.setAmount(transactionDto.getAmount());
-                transaction.setStatus(RequestStatus.CREATED.toString());
+                transaction.setAmount(Money.parse(transactionDto.getAmount()));
+                transaction.setStatus(RequestStatus.CREATED);
                 transaction.setCreatedtime(LocalDateTime.now());
 
                 transaction = transactionRepo.save(transaction);
@@ -174,7 +186,7 @@ public class RequestService implements IRequest {
                 
                 TransactionAuthorization transactionAuthorization = new TransactionAuthorization();
                 transactionAuthorization.setTransaction(transaction);
-                transactionAuthorization.setStatus(ApprovalStatus.PENDING.toString());
+                transactionAuthorization.setStatus(ApprovalStatus.PENDING);
                 transactionAuthorization.setCreatedtime(LocalDateTime.now());
                 transactionAuthorization = transactionAuthorizationRepo.save(transactionAuthorization);
 
@@ -182,9 +194,11 @@ public class RequestService implements IRequest {
                     throw new RuntimeException("Error creating transaction request");
                 }
                 
-                transaction.setStatus(RequestStatus.PENDING.toString());
+                transaction.setStatus(RequestStatus.PENDING);
                 transaction.setLastModifiedtime(LocalDateTime.now());
                 transaction = transactionRepo.save(transaction);
+                eventBus.publish(PendingQueueEvent.added(Queue.TRANSACTIONS, transaction.getTransactionId()));
+                dashboardSummaryService.transactionRecorded(user.getUserId());
                 BeanUtils.copyProperties(transaction, transactionDto);
                 
             } catch (Exception e) {
@@ -201,14 +215,14 @@ public class RequestService implements IRequest {
             //GET SENDER,RECEIVER ACCOUNT DETAILS,user,transaction type,amount
             User user = userRepo.findById(transactionDto.getUser().getUserId()).get();
 
-            Account senderAcc = accountRepo.findbyaccountnumber(transactionDto.getSenderAcc().getAccountNumber());
+            Account senderAcc = findAccountByNumber(transactionDto.getSenderAcc().getAccountNumber());
             //Account receiverAcc = accountRepo.findbyaccountnumber(transactionDto.getReceiverAcc().getAccountNumber());
             transaction.setSenderAcc(senderAcc);
             //transaction.setReceiverAcc(receiverAcc);
             transaction.setUser(user);
             transaction.setTransactionType(transactionDto.getTransactionType());
             //transaction.setAmount(transactionDto.getAmount());
-            transaction.setStatus(RequestStatus.CREATED.toString());
+            transaction.setStatus(RequestStatus.CREATED);
             transaction.setCreatedtime(LocalDateTime.now());
 
             transaction=transactionRepo.save(transaction);
@@ -218,16 +232,18 @@ public class RequestService implements IRequest {
             }
             TransactionAuthorization transactionAuthorization = new TransactionAuthorization();
             transactionAuthorization.setTransaction(transaction);
-            transactionAuthorization.setStatus(ApprovalStatus.PENDING.toString());
+            transactionAuthorization.setStatus(ApprovalStatus.PENDING);
             transactionAuthorization.setCreatedtime(LocalDateTime.now());
             transactionAuthorization=transactionAuthorizationRepo.save(transactionAuthorization);
 
             if (transactionAuthorization.getAuthorizationId() == null){
                 throw new RuntimeException("Error creating transaction request");
             }
-            transaction.setStatus(RequestStatus.PENDING.toString());
+            transaction.setStatus(RequestStatus.PENDING);
             transaction.setLastModifiedtime(LocalDateTime.now());
             transaction=transactionRepo.save(transaction);
+            eventBus.publish(PendingQueueEvent.added(Queue.TRANSACTIONS, transaction.getTransactionId()));
+            dashboardSummaryService.transactionRecorded(user.getUserId());
             BeanUtils.copyProperties(transaction,transactionDto);
         }
         return transactionDto;
@@ -237,13 +253,13 @@ public class RequestService implements IRequest {
         TransactionAuthorization transactionAuthorization = new TransactionAuthorization();
         transactionAuthorization=transactionAuthorizationRepo.findById(transactionAuthorizationDto.getAuthorizationId()).get();
         Transaction transaction=transactionRepo.findById(transactionAuthorization.getTransaction().getTransactionId()).get();
-        if (transaction.getStatus().equals(RequestStatus.PENDING.toString())  && transactionAuthorization.getStatus().equals(ApprovalStatus.PENDING.toString())){
+        if (transaction.getStatus() == RequestStatus.PENDING && transactionAuthorization.getStatus() == ApprovalStatus.PENDING){
             User approver = userRepo.findByUsername(transactionAuthorizationDto.getUser().getUsername());
             if (approver == null) {
                 throw new RuntimeException("Approver user not found");
             }
             transactionAuthorization.setTransaction(transaction);
-            transactionAuthorization.setStatus(ApprovalStatus.APPROVED.toString());
+            transactionAuthorization.setStatus(ApprovalStatus.APPROVED);
             transactionAuthorization.setLastModifiedtime(LocalDateTime.now());
             transactionAuthorization.setUser(approver);
             transactionAuthorization=transactionAuthorizationRepo.save(transactionAuthorization);
@@ -284,10 +300,10 @@ public class RequestService implements IRequest {
         TransactionAuthorization transactionAuthorization = new TransactionAuthorization();
         transactionAuthorization=transactionAuthorizationRepo.findById(transactionAuthorizationDto.getAuthorizationId()).get();
         Transaction transaction=transactionRepo.findById(transactionAuthorization.getTransaction().getTransactionId()).get();
-        if (transaction.getStatus().equals(RequestStatus.PENDING.toString())  && transactionAuthorization.getStatus().equals(ApprovalStatus.PENDING.toString())){
+        if (transaction.getStatus() == RequestStatus.PENDING && transactionAuthorization.getStatus() == ApprovalStatus.PENDING){
             User approver = userRepo.findByUsername(transactionAuthorizationDto.getUser().getUsername());
             transactionAuthorization.setTransaction(transaction);
-            transactionAuthorization.setStatus(ApprovalStatus.REJECTED.toString());
+            transactionAuthorization.setStatus(ApprovalStatus.REJECTED);
             transactionAuthorization.setLastModifiedtime(LocalDateTime.now());
             transactionAuthorization.setUser(approver);
             transactionAuthorization=transactionAuthorizationRepo.save(transactionAuthorization);
@@ -308,5 +324,10 @@ public class RequestService implements IRequest {
 
         return transactionAuthorizationDto;
     }
-}
 
+    // Resolves the number through the cached mapping, then loads the row by primary key
+    private Account findAccountByNumber(String accountNumber) {
+        Long accountId = referenceDataService.findAccountIdByNumber(accountNumber);
+        return accountId == null ? null : accountRepo.findById(accountId).orElse(null);
+    }
+}
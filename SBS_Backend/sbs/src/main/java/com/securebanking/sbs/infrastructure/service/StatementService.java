@@ -0,0 +1,72 @@
+package com.securebanking.sbs.infrastructure.service;
+
+import com.securebanking.sbs.core.config.StatementJobConfig;
+import com.securebanking.sbs.infrastructure.repository.StatementRepo;
+import com.securebanking.sbs.modules.customer.model.Statement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@Service
+public class StatementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementService.class);
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    @Qualifier(StatementJobConfig.JOB_NAME)
+    private Job statementJob;
+
+    @Autowired
+    private StatementRepo statementRepo;
+
+    /**
+     * Statements for an account, newest period first.
+     */
+    public List<Statement> getStatements(Long accountId) {
+        return statementRepo.findByAccountIdOrderByPeriodStartDesc(accountId);
+    }
+
+    /**
+     * Runs the statement job for a month. The month is the only identifying parameter, so
+     * calling this again after a failure restarts the same job instance where it stopped.
+     */
+    public BatchStatus generateStatements(YearMonth month) throws Exception {
+        JobParameters parameters = new JobParametersBuilder()
+                .addString(StatementJobConfig.PERIOD_PARAMETER, month.toString())
+                .toJobParameters();
+        try {
+            JobExecution execution = jobLauncher.run(statementJob, parameters);
+            logger.info("Statement job for {} finished with {}", month, execution.getStatus());
+            return execution.getStatus();
+        } catch (JobInstanceAlreadyCompleteException e) {
+            logger.info("Statements for {} were already generated", month);
+            return BatchStatus.COMPLETED;
+        }
+    }
+
+    // Nightly so a failed run is retried the next night; completed months are skipped
+    @Scheduled(cron = "${sbs.statements.cron:0 30 1 * * *}")
+    public void generatePreviousMonth() {
+        try {
+            generateStatements(YearMonth.now().minusMonths(1));
+        } catch (Exception e) {
+            logger.error("Statement generation failed: {}", e.getMessage(), e);
+        }
+    }
+}
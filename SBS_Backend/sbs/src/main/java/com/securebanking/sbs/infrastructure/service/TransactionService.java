@@ -1,24 +1,47 @@
 package com.securebanking.sbs.infrastructure.service;
 
+import com.securebanking.sbs.core.util.TransactionCursor;
 import com.securebanking.sbs.shared.dto.TransactionDto;
+import com.securebanking.sbs.shared.dto.TransactionPageDto;
 import com.securebanking.sbs.shared.enums.RequestStatus;
+import com.securebanking.sbs.shared.event.DomainEventBus;
+import com.securebanking.sbs.shared.event.PendingQueueEvent;
+import com.securebanking.sbs.shared.event.PendingQueueEvent.Queue;
 import com.securebanking.sbs.modules.customer.model.Transaction;
 import com.securebanking.sbs.infrastructure.repository.TransactionRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class TransactionService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private TransactionRepo transactionRepo;
+
+    @PersistenceContext
+    private EntityManager entityManager;
     
     @Autowired
     private AccountService accountService;
@@ -29,25 +52,20 @@ public class TransactionService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private DomainEventBus eventBus;
+
     public int getRecentTransactionsCount(Integer userId) {
         // Get transactions from last 30 days
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        List<Transaction> transactions = transactionRepo.findAll();
-        return (int) transactions.stream()
-            .filter(t -> t.getUser() != null && t.getUser().getUserId().equals(userId))
-            .filter(t -> t.getCreatedtime() != null && t.getCreatedtime().isAfter(thirtyDaysAgo))
-            .count();
+        return (int) transactionRepo.countByUserIdAndCreatedtimeAfter(userId, thirtyDaysAgo);
     }
 
     public List<Map<String, Object>> getRecentActivities(Integer userId) {
         // Get recent transactions and convert to activity format
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        List<Transaction> allTransactions = transactionRepo.findAll();
-        List<Transaction> recentTransactions = allTransactions.stream()
-            .filter(t -> t.getUser() != null && t.getUser().getUserId().equals(userId))
-            .filter(t -> t.getCreatedtime() != null && t.getCreatedtime().isAfter(thirtyDaysAgo))
-            .sorted((t1, t2) -> t2.getCreatedtime().compareTo(t1.getCreatedtime()))
-            .toList();
+        List<Transaction> recentTransactions =
+            transactionRepo.findByUserIdAndCreatedtimeAfterOrderByCreatedtimeDesc(userId, thirtyDaysAgo);
         
         List<Map<String, Object>> activities = new ArrayList<>();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
@@ -98,66 +116,83 @@ public class TransactionService {
 
     public List<TransactionDto> getTransactionHistory(Integer userId) {
         try {
-            System.out.println("=== TransactionService.getTransactionHistory called for user: " + userId + " ===");
-            List<Transaction> allTransactions = transactionRepo.findAll();
-            System.out.println("=== Found " + allTransactions.size() + " total transactions in database ===");
-            
-            List<Transaction> userTransactions = allTransactions.stream()
-                .filter(t -> {
-                    boolean userNotNull = t.getUser() != null;
-                    boolean userIdMatches = userNotNull && t.getUser().getUserId().equals(userId);
-                    System.out.println("Transaction " + t.getTransactionId() + ": user=" + (userNotNull ? t.getUser().getUserId() : "null") + ", matches=" + userIdMatches);
-                    return userIdMatches;
-                })
-                .sorted((t1, t2) -> t2.getCreatedtime().compareTo(t1.getCreatedtime()))
-                .toList();
+            logger.debug("TransactionService.getTransactionHistory called for user: {}", userId);
+            List<Transaction> userTransactions = transactionRepo.findByUserIdOrderByCreatedtimeDesc(userId);
             
-            System.out.println("=== Found " + userTransactions.size() + " transactions for user " + userId + " ===");
+            logger.debug("Found {} transactions for user {}", userTransactions.size(), userId);
             return convertToDtoList(userTransactions);
         } catch (Exception e) {
-            System.err.println("=== Error in TransactionService.getTransactionHistory: " + e.getMessage() + " ===");
-            e.printStackTrace();
+            logger.error("Error in TransactionService.getTransactionHistory: {}", e.getMessage(), e);
             throw e;
         }
     }
 
     public List<TransactionDto> getPendingTransactions(Integer userId) {
-        List<Transaction> allTransactions = transactionRepo.findAll();
-        List<Transaction> pendingTransactions = allTransactions.stream()
-            .filter(t -> t.getUser() != null && t.getUser().getUserId().equals(userId))
-            .filter(t -> "PENDING".equals(t.getStatus()))
-            .sorted((t1, t2) -> t2.getCreatedtime().compareTo(t1.getCreatedtime()))
-            .toList();
+        List<Transaction> pendingTransactions =
+            transactionRepo.findByUserIdAndStatusOrderByCreatedtimeDesc(userId, RequestStatus.PENDING);
         return convertToDtoList(pendingTransactions);
     }
 
-    public List<TransactionDto> getAllTransactions() {
-        try {
-            List<Transaction> allTransactions = transactionRepo.findAll();
-            System.out.println("Found " + allTransactions.size() + " transactions in database");
-            
-            // If no transactions found, return empty list instead of throwing exception
-            if (allTransactions == null || allTransactions.isEmpty()) {
-                System.out.println("No transactions found in database");
-                return new ArrayList<>();
-            }
-            
-            // Log each transaction for debugging
-            for (Transaction t : allTransactions) {
-                System.out.println("Transaction ID: " + t.getTransactionId() + 
-                                 ", User: " + (t.getUser() != null ? t.getUser().getUserId() : "null") +
-                                 ", Status: " + t.getStatus() +
-                                 ", Type: " + t.getTransactionType());
+    public TransactionPageDto getTransactionHistoryPage(Integer userId, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<Transaction> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepo.findHistoryPage(userId, pageable);
+        } else {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            rows = transactionRepo.findHistoryPageAfter(userId, position.getCreatedtime(), position.getTransactionId(), pageable);
+        }
+        return toPage(rows, pageSize);
+    }
+
+    public TransactionPageDto getAllTransactionsPage(String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<Transaction> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepo.findAllPage(pageable);
+        } else {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            rows = transactionRepo.findAllPageAfter(position.getCreatedtime(), position.getTransactionId(), pageable);
+        }
+        return toPage(rows, pageSize);
+    }
+
+    /**
+     * Push every transaction through the sink without holding the result set
+     * or the persistence context in memory. Each row is detached once written.
+     */
+    @Transactional(readOnly = true)
+    public long streamAllTransactions(Consumer<TransactionDto> sink) {
+        long count = 0;
+        try (Stream<Transaction> rows = transactionRepo.streamAllOrderByCreatedtimeDesc()) {
+            Iterator<Transaction> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Transaction transaction = iterator.next();
+                sink.accept(convertToDto(transaction));
+                entityManager.detach(transaction);
+                count++;
             }
-            
-            return convertToDtoList(allTransactions);
-        } catch (Exception e) {
-            // Log the exception for debugging
-            System.err.println("Error in TransactionService.getAllTransactions: " + e.getMessage());
-            e.printStackTrace();
-            // Return empty list instead of throwing exception
-            return new ArrayList<>();
         }
+        return count;
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private TransactionPageDto toPage(List<Transaction> rows, int pageSize) {
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            Transaction last = rows.get(pageSize - 1);
+            nextCursor = new TransactionCursor(last.getCreatedtime(), last.getTransactionId()).encode();
+        }
+        return new TransactionPageDto(convertToDtoList(rows), nextCursor);
     }
 
     public TransactionDto approveTransaction(Integer transactionId) {
@@ -165,7 +200,7 @@ public class TransactionService {
             .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + transactionId));
         
         // Check if transaction is already processed
-        if (!"PENDING".equals(transaction.getStatus())) {
+        if (transaction.getStatus() != RequestStatus.PENDING) {
             throw new RuntimeException("Transaction is not in pending status");
         }
         
@@ -174,8 +209,9 @@ public class TransactionService {
             accountService.executeTransaction(transaction);
             
             // Update transaction status to COMPLETED
-            transaction.setStatus("COMPLETED");
+            transaction.setStatus(RequestStatus.COMPLETED);
             Transaction savedTransaction = transactionRepo.save(transaction);
+            eventBus.publish(PendingQueueEvent.removed(Queue.TRANSACTIONS, transactionId));
             
             // Log admin activity
             activityLogService.logActivity(
@@ -191,7 +227,7 @@ public class TransactionService {
             return convertToDto(savedTransaction);
         } catch (Exception e) {
             // Log the error
-            System.err.println("Error approving transaction " + transactionId + ": " + e.getMessage());
+            logger.error("Error approving transaction {}: {}", transactionId, e.getMessage());
             throw new RuntimeException("Failed to approve transaction: " + e.getMessage());
         }
     }
@@ -201,14 +237,15 @@ public class TransactionService {
             .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + transactionId));
         
         // Check if transaction is already processed
-        if (!"PENDING".equals(transaction.getStatus())) {
+        if (transaction.getStatus() != RequestStatus.PENDING) {
             throw new RuntimeException("Transaction is not in pending status");
         }
         
         try {
             // Update transaction status to REJECTED
-            transaction.setStatus("REJECTED");
+            transaction.setStatus(RequestStatus.REJECTED);
             Transaction savedTransaction = transactionRepo.save(transaction);
+            eventBus.publish(PendingQueueEvent.removed(Queue.TRANSACTIONS, transactionId));
             
             // Log admin activity
             activityLogService.logActivity(
@@ -224,7 +261,7 @@ public class TransactionService {
             return convertToDto(savedTransaction);
         } catch (Exception e) {
             // Log the error
-            System.err.println("Error rejecting transaction " + transactionId + ": " + e.getMessage());
+            logger.error("Error rejecting transaction {}: {}", transactionId, e.getMessage());
             throw new RuntimeException("Failed to reject transaction: " + e.getMessage());
         }
     }
@@ -266,7 +303,7 @@ public class TransactionService {
                 );
             }
         } catch (Exception e) {
-            System.err.println("Error sending transaction notifications: " + e.getMessage());
+            logger.error("Error sending transaction notifications: {}", e.getMessage());
             // Don't throw the exception as notification failure shouldn't break the transaction
         }
     }
@@ -277,25 +314,23 @@ public class TransactionService {
 
     private List<TransactionDto> convertToDtoList(List<Transaction> transactions) {
         try {
-            System.out.println("=== Converting " + transactions.size() + " transactions to DTOs ===");
+            logger.debug("Converting {} transactions to DTOs", transactions.size());
             List<TransactionDto> dtos = new ArrayList<>();
             for (Transaction transaction : transactions) {
                 try {
-                    System.out.println("=== Converting transaction ID: " + transaction.getTransactionId() + " ===");
+                    logger.debug("Converting transaction ID: {}", transaction.getTransactionId());
                     TransactionDto dto = convertToDto(transaction);
                     dtos.add(dto);
-                    System.out.println("=== Successfully converted transaction ID: " + transaction.getTransactionId() + " ===");
+                    logger.debug("Successfully converted transaction ID: {}", transaction.getTransactionId());
                 } catch (Exception e) {
-                    System.err.println("=== Error converting transaction ID " + transaction.getTransactionId() + ": " + e.getMessage() + " ===");
-                    e.printStackTrace();
+                    logger.error("Error converting transaction ID {}: {}", transaction.getTransactionId(), e.getMessage(), e);
                     throw e;
                 }
             }
-            System.out.println("=== Successfully converted " + dtos.size() + " transactions to DTOs ===");
+            logger.debug("Successfully converted {} transactions to DTOs", dtos.size());
             return dtos;
         } catch (Exception e) {
-            System.err.println("=== Error in convertToDtoList: " + e.getMessage() + " ===");
-            e.printStackTrace();
+            logger.error("Error in convertToDtoList: {}", e.getMessage(), e);
             throw e;
         }
     }
@@ -308,24 +343,24 @@ public class TransactionService {
         if (transaction.getSenderAcc() != null) {
             String senderAccountNumber = transaction.getSenderAcc().getAccountNumber();
             dto.setSenderAccountNumber(senderAccountNumber);
-            System.out.println("=== Transaction " + transaction.getTransactionId() + ": Sender Account Number = " + senderAccountNumber + " ===");
+            logger.debug("Transaction {}: Sender Account Number = {}", transaction.getTransactionId(), senderAccountNumber);
         } else {
-            System.out.println("=== Transaction " + transaction.getTransactionId() + ": Sender Account is null ===");
+            logger.debug("Transaction {}: Sender Account is null", transaction.getTransactionId());
         }
         
         if (transaction.getReceiverAcc() != null) {
             String receiverAccountNumber = transaction.getReceiverAcc().getAccountNumber();
             dto.setReceiverAccountNumber(receiverAccountNumber);
-            System.out.println("=== Transaction " + transaction.getTransactionId() + ": Receiver Account Number = " + receiverAccountNumber + " ===");
+            logger.debug("Transaction {}: Receiver Account Number = {}", transaction.getTransactionId(), receiverAccountNumber);
         } else {
-            System.out.println("=== Transaction " + transaction.getTransactionId() + ": Receiver Account is null ===");
+            logger.debug("Transaction {}: Receiver Account is null", transaction.getTransactionId());
         }
         
         // Determine the correct transaction type
         String transactionType = transaction.getTransactionType();
         String displayType = transactionType;
         
-        System.out.println("=== Transaction " + transaction.getTransactionId() + ": Original Type = " + transactionType + " ===");
+        logger.debug("Transaction {}: Original Type = {}", transaction.getTransactionId(), transactionType);
         
         // Map transaction types to display types
         if ("TRANSFER_FUNDS".equals(transactionType) || "TRANSFER".equals(transactionType)) {
@@ -343,18 +378,12 @@ public class TransactionService {
             displayType = "DEBIT";
         }
         
-        System.out.println("=== Transaction " + transaction.getTransactionId() + ": Display Type = " + displayType + " ===");
+        logger.debug("Transaction {}: Display Type = {}", transaction.getTransactionId(), displayType);
         
         dto.setTransactionType(displayType);
-        dto.setAmount(transaction.getAmount());
+        dto.setAmount(transaction.getAmount() != null ? transaction.getAmount().toString() : null);
         
-        // Handle enum conversion with error handling
-        try {
-            dto.setStatus(RequestStatus.valueOf(transaction.getStatus()));
-        } catch (IllegalArgumentException e) {
-            System.err.println("=== Unknown status '" + transaction.getStatus() + "' for transaction " + transaction.getTransactionId() + ", defaulting to PENDING ===");
-            dto.setStatus(RequestStatus.PENDING);
-        }
+        dto.setStatus(transaction.getStatus());
         
         dto.setUser(transaction.getUser());
         dto.setSenderAcc(transaction.getSenderAcc());
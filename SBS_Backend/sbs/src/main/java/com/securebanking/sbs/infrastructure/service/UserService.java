@@ -3,6 +3,7 @@ package com.securebanking.sbs.infrastructure.service;
 import com.securebanking.sbs.shared.dto.UserDto;
 import com.securebanking.sbs.shared.dto.UserRoleDto;
 import com.securebanking.sbs.core.exception.InvalidCredentialsException;
+import com.securebanking.sbs.core.exception.ServiceBusyException;
 import com.securebanking.sbs.core.exception.UserNotFoundException;
 import com.securebanking.sbs.core.exception.UserRoleNotFoundException;
 import com.securebanking.sbs.shared.model.User;
@@ -12,15 +13,16 @@ import com.securebanking.sbs.infrastructure.repository.UserRoleRepo;
 import com.securebanking.sbs.infrastructure.service.OtpService;
 // KafkaEventService import removed for Render deployment
 import com.securebanking.sbs.infrastructure.service.EmailService;
+import com.securebanking.sbs.core.config.CacheConfig;
 import com.securebanking.sbs.core.util.JwtUtil;
 import com.securebanking.sbs.infrastructure.iservice.Iuser;
 import jakarta.validation.Valid;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +42,12 @@ public class UserService implements Iuser {
     @Autowired
     private UserRoleRepo userRoleRepo;
 
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
     @Autowired
     private JavaMailSender mailSender;
     @Autowired
@@ -58,7 +66,7 @@ public class UserService implements Iuser {
 
     public HttpStatus createOrUpdateUser(@Valid UserDto userDto) throws UserNotFoundException {
         User user = new User();
-        UserRole userRole = userRoleRepo.findById(userDto.getRole().getRoleId()).orElseThrow(() -> new UserRoleNotFoundException("User role not found"));
+        UserRole userRole = referenceDataService.findRole(userDto.getRole().getRoleId()).orElseThrow(() -> new UserRoleNotFoundException("User role not found"));
 
         if(userDto.getUserId() != null){
             user = userRepo.findById(userDto.getUserId()).orElseThrow(() -> new UserNotFoundException("User not found"));
@@ -71,8 +79,7 @@ public class UserService implements Iuser {
         }
         if(userDto.getPasswordHash() != null) {
             // Hash the password with BCrypt before storing
-            BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-            String hashedPassword = passwordEncoder.encode(userDto.getPasswordHash());
+            String hashedPassword = passwordHashingService.encode(userDto.getPasswordHash());
             user.setPasswordHash(hashedPassword);
             logger.info("Password hashed and stored for user: {}", userDto.getUsername());
         }
@@ -124,14 +131,14 @@ public class UserService implements Iuser {
             logger.info("User found, verifying password for user: {}", username);
             
             // Use BCrypt to verify password
-            BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-            if (!passwordEncoder.matches(password, user.getPasswordHash())) {
+            if (!passwordHashingService.matches(password, user.getPasswordHash())) {
                 logger.warn("Login failed - Invalid password for user: {}", username);
                 // Kafka event publishing removed for Render deployment
                 throw new InvalidCredentialsException("Invalid password");
             }
             
             logger.info("Password verified successfully for user: {}", username);
+            rehashIfNeeded(user, password);
             
             // Check if user is active
             if (!"Active".equals(user.getStatus())) {
@@ -182,12 +189,40 @@ public class UserService implements Iuser {
         } catch (InvalidCredentialsException e) {
             logger.warn("Login failed with InvalidCredentialsException: {}", e.getMessage());
             throw e;
+        } catch (ServiceBusyException e) {
+            logger.warn("Login deferred for user {}: {}", username, e.getMessage());
+            throw e;
         } catch (Exception e) {
             logger.error("Login failed with unexpected error for user: {}", username, e);
             throw new RuntimeException("Login failed: " + e.getMessage(), e);
         }
     }
 
+    // The plain password is only available here, so a hash made with an old cost is replaced
+    // in the background once the login has been verified
+    private void rehashIfNeeded(User user, String password) {
+        if (!passwordHashingService.needsRehash(user.getPasswordHash())) {
+            return;
+        }
+        Integer userId = user.getUserId();
+        String oldHash = user.getPasswordHash();
+        try {
+            passwordHashingService.encodeAsync(password)
+                    .thenAccept(newHash -> {
+                        if (userRepo.replacePasswordHash(userId, oldHash, newHash) == 1) {
+                            logger.info("Rehashed password for user {} with the current cost", userId);
+                        }
+                    })
+                    .exceptionally(e -> {
+                        logger.warn("Password rehash failed for user {}: {}", userId, e.getMessage());
+                        return null;
+                    });
+        } catch (ServiceBusyException e) {
+            // Try again on a later login
+            logger.debug("Skipping password rehash for user {}: {}", userId, e.getMessage());
+        }
+    }
+
     public boolean validateOtp(String email, String otpEnteredByUser) {
         return otpService.validateAndRemoveOtp(email, otpEnteredByUser);
     }
@@ -210,6 +245,7 @@ public class UserService implements Iuser {
         }
     }
 
+    @Cacheable(cacheNames = CacheConfig.USER_PROFILES)
     public UserDto getUserById(Integer id){
         User user = userRepo.findById(id).get();
         UserDto userDto = new UserDto();
@@ -235,8 +271,7 @@ public class UserService implements Iuser {
             }
             
             // Hash the new password with BCrypt
-            BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-            String hashedPassword = passwordEncoder.encode(newPassword);
+            String hashedPassword = passwordHashingService.encode(newPassword);
             user.setPasswordHash(hashedPassword);
             
             userRepo.save(user);
@@ -262,8 +297,7 @@ public class UserService implements Iuser {
             logger.info("Stored password hash: {}", user.getPasswordHash());
             
             // Use BCrypt to verify password
-            BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-            boolean passwordMatches = passwordEncoder.matches(password, user.getPasswordHash());
+            boolean passwordMatches = passwordHashingService.matches(password, user.getPasswordHash());
             logger.info("Password matches: {}", passwordMatches);
             
             if (!passwordMatches) {
@@ -1,34 +1,82 @@
 package com.securebanking.sbs.interceptor;
 
-/*
-import io.github.bucket4j.Bucket;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.securebanking.sbs.core.config.RateLimitConfig;
+import com.securebanking.sbs.core.security.AuthenticatedUser;
+import com.securebanking.sbs.infrastructure.service.RateLimiterService;
+import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Charges each API request to its rate limit profile and answers 429 with Retry-After once
+ * the bucket is empty, before the request reaches BCrypt or the database.
+ */
 @Component
 public class RateLimitInterceptor implements HandlerInterceptor {
-    
+
     @Autowired
-    private Bucket bucket;
-    
+    private RateLimiterService rateLimiterService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<RateLimitConfig.Profile> profiles;
+
+    public RateLimitInterceptor(List<RateLimitConfig.Profile> profiles) {
+        this.profiles = profiles.stream()
+                .sorted(Comparator.comparingInt(RateLimitConfig.Profile::getOrder))
+                .toList();
+    }
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        if (bucket.tryConsume(1)) {
+        if (CorsUtils.isPreFlightRequest(request)) {
+            return true;
+        }
+        RateLimitConfig.Profile profile = profiles.stream()
+                .filter(candidate -> candidate.matches(request))
+                .findFirst()
+                .orElse(null);
+        if (profile == null) {
             return true;
-        } else {
-            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            response.getWriter().write("Rate limit exceeded");
-            return false;
         }
+
+        ConsumptionProbe probe = rateLimiterService.tryConsume(profile, subject(profile, request));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
+        if (probe.isConsumed()) {
+            return true;
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill() + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of(
+                "error", "Too many requests",
+                "message", "Rate limit exceeded, retry in " + retryAfterSeconds + " seconds"));
+        return false;
     }
-}
-*/
 
-// Rate limiting temporarily disabled for Kafka focus
-public class RateLimitInterceptor {
-    // Placeholder class
-} 
\ No newline at end of file
+    private static String subject(RateLimitConfig.Profile profile, HttpServletRequest request) {
+        if (profile.isPerUser()) {
+            Long userId = AuthenticatedUser.current().map(AuthenticatedUser::getUserId).orElse(null);
+            if (userId != null) {
+                return "user:" + userId;
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
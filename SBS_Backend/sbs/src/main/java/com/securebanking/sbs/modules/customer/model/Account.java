@@ -1,6 +1,7 @@
 package com.securebanking.sbs.modules.customer.model;
 
 import jakarta.persistence.*;
+import com.securebanking.sbs.shared.model.Money;
 import com.securebanking.sbs.shared.model.User;
 
 @Entity
@@ -20,12 +21,20 @@ public class Account {
     @Column(nullable = false)
     private String accountType;
 
-    @Column(nullable = false)
-    private String balance;
+    @Column(nullable = false, precision = 19, scale = 4)
+    private Money balance;
 
     @Column(nullable = false)
     private String status;
 
+    // Balance at creation; the ledger reconciliation job replays transactions on top of it
+    @Column(precision = 19, scale = 4)
+    private Money openingBalance;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public Long getAccountId() {
         return accountId;
     }
@@ -58,11 +67,11 @@ public class Account {
         this.accountType = accountType;
     }
 
-    public String getBalance() {
+    public Money getBalance() {
         return balance;
     }
 
-    public void setBalance(String balance) {
+    public void setBalance(Money balance) {
         this.balance = balance;
     }
 
@@ -74,4 +83,19 @@ public class Account {
         this.status = status;
     }
 
+    public Money getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public void setOpeningBalance(Money openingBalance) {
+        this.openingBalance = openingBalance;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
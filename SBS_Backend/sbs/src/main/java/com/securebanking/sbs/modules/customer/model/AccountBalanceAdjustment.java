@@ -0,0 +1,72 @@
+package com.securebanking.sbs.modules.customer.model;
+
+import com.securebanking.sbs.shared.model.Money;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change to an account's balance made by hand rather than by a transfer, such as an
+ * admin editing the account. Positive amounts added money. Statements count these with the
+ * settled transfers so a hand edit after a period closes does not shift that period.
+ */
+@Entity
+@Table(name = "account_balance_adjustments", indexes = {
+        @Index(name = "idx_account_balance_adjustments_account", columnList = "account_id, adjusted_at")
+})
+public class AccountBalanceAdjustment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private Money amount;
+
+    @Column(name = "adjusted_at", nullable = false)
+    private LocalDateTime adjustedAt;
+
+    public AccountBalanceAdjustment() {
+    }
+
+    public AccountBalanceAdjustment(Long accountId, Money amount, LocalDateTime adjustedAt) {
+        this.accountId = accountId;
+        this.amount = amount;
+        this.adjustedAt = adjustedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+
+    public LocalDateTime getAdjustedAt() {
+        return adjustedAt;
+    }
+
+    public void setAdjustedAt(LocalDateTime adjustedAt) {
+        this.adjustedAt = adjustedAt;
+    }
+}
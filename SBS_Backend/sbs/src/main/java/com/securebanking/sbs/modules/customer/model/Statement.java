@@ -0,0 +1,161 @@
+package com.securebanking.sbs.modules.customer.model;
+
+import com.securebanking.sbs.shared.model.Money;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Per-account statement for one period, produced by the nightly statement job. Rows are
+ * keyed by (account_id, period_start) so a rerun of the same period overwrites them.
+ */
+@Entity
+@Table(name = "statements",
+        uniqueConstraints = @UniqueConstraint(name = "uk_statements_account_period", columnNames = {"account_id", "period_start"}))
+public class Statement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long statementId;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false)
+    private String accountNumber;
+
+    @Column(name = "user_id")
+    private Integer userId;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false)
+    private LocalDate periodEnd;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private Money openingBalance;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private Money closingBalance;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private Money totalCredits;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private Money totalDebits;
+
+    @Column(nullable = false)
+    private int creditCount;
+
+    @Column(nullable = false)
+    private int debitCount;
+
+    @Column(nullable = false)
+    private LocalDateTime generatedAt;
+
+    public Long getStatementId() {
+        return statementId;
+    }
+
+    public void setStatementId(Long statementId) {
+        this.statementId = statementId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public LocalDate getPeriodEnd() {
+        return periodEnd;
+    }
+
+    public void setPeriodEnd(LocalDate periodEnd) {
+        this.periodEnd = periodEnd;
+    }
+
+    public Money getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public void setOpeningBalance(Money openingBalance) {
+        this.openingBalance = openingBalance;
+    }
+
+    public Money getClosingBalance() {
+        return closingBalance;
+    }
+
+    public void setClosingBalance(Money closingBalance) {
+        this.closingBalance = closingBalance;
+    }
+
+    public Money getTotalCredits() {
+        return totalCredits;
+    }
+
+    public void setTotalCredits(Money totalCredits) {
+        this.totalCredits = totalCredits;
+    }
+
+    public Money getTotalDebits() {
+        return totalDebits;
+    }
+
+    public void setTotalDebits(Money totalDebits) {
+        this.totalDebits = totalDebits;
+    }
+
+    public int getCreditCount() {
+        return creditCount;
+    }
+
+    public void setCreditCount(int creditCount) {
+        this.creditCount = creditCount;
+    }
+
+    public int getDebitCount() {
+        return debitCount;
+    }
+
+    public void setDebitCount(int debitCount) {
+        this.debitCount = debitCount;
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+}
@@ -8,11 +8,33 @@ import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
 
 import java.time.LocalDateTime;
+import com.securebanking.sbs.shared.enums.RequestStatus;
+import com.securebanking.sbs.shared.model.Money;
 import com.securebanking.sbs.shared.model.User;
 
 @Entity
-@Table(name = "transactions")
+// Index columns are the physical names the naming strategy gives the mapped columns
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_sender_created", columnList = "sender_id, created_time"),
+        @Index(name = "idx_transactions_sender_status_created", columnList = "sender_id, status, created_time"),
+        @Index(name = "idx_transactions_sender_acc_created", columnList = "sender_acc, created_time"),
+        @Index(name = "idx_transactions_receiver_acc_created", columnList = "receiver_acc, created_time"),
+        @Index(name = "idx_transactions_created_id", columnList = "created_time, transaction_id")
+})
+// Everything a TransactionDto touches, so list queries load it in the same statement
+@NamedEntityGraph(name = Transaction.WITH_PARTIES,
+        attributeNodes = {
+                @NamedAttributeNode(value = "user", subgraph = "user"),
+                @NamedAttributeNode(value = "senderAcc", subgraph = "account"),
+                @NamedAttributeNode(value = "receiverAcc", subgraph = "account")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("role")),
+                @NamedSubgraph(name = "account", attributeNodes = @NamedAttributeNode(value = "user", subgraph = "user"))
+        })
 public class Transaction {
+    public static final String WITH_PARTIES = "Transaction.withParties";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer transactionId;
@@ -34,8 +56,8 @@ public class Transaction {
     @Column(nullable = false)
     private String transactionType;
 
-    @Column(nullable = true)
-    private String amount;
+    @Column(nullable = true, precision = 19, scale = 4)
+    private Money amount;
 
     @CreatedBy
     @Column(name = "created_by")
@@ -53,8 +75,18 @@ public class Transaction {
     @Column(name = "last_modified_time")
     private LocalDateTime lastModifiedtime;
 
+    // When the money moved, which can be well after creation for transfers that wait for
+    // approval; statements book a transfer in the period it settled in
+    @Column(name = "settled_time")
+    private LocalDateTime settledtime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RequestStatus status;
+
+    @Version
     @Column(nullable = false)
-    private String status;
+    private Long version;
 
     public Integer getTransactionId() {
         return transactionId;
@@ -120,11 +152,19 @@ public class Transaction {
         this.lastModifiedtime = lastModifiedtime;
     }
 
-    public String getStatus() {
+    public LocalDateTime getSettledtime() {
+        return settledtime;
+    }
+
+    public void setSettledtime(LocalDateTime settledtime) {
+        this.settledtime = settledtime;
+    }
+
+    public RequestStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(RequestStatus status) {
         this.status = status;
     }
 
@@ -136,11 +176,19 @@ public class Transaction {
         this.senderAcc = senderAcc;
     }
 
-    public String getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(String amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.securebanking.sbs.modules.customer.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.securebanking.sbs.shared.enums.ApprovalStatus;
 import jakarta.persistence.*;
 import org.springframework.data.annotation.CreatedBy;
@@ -17,16 +18,19 @@ public class TransactionAuthorization {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long authorizationId;
 
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "transactionId")
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Transaction transaction;
 
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "authorizedByUserID", referencedColumnName = "userId")
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private User user;
 
-    @Column(nullable = false)
-    private String status;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ApprovalStatus status;
 
     @CreatedDate
     @Column(name = "created_time")
@@ -39,6 +43,10 @@ public class TransactionAuthorization {
     @Column(nullable = true)
     private String denialReason;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
 
     public Long getAuthorizationId() {
         return authorizationId;
@@ -80,11 +88,11 @@ public class TransactionAuthorization {
         this.lastModifiedtime = lastModifiedtime;
     }
 
-    public String getStatus() {
+    public ApprovalStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(ApprovalStatus status) {
         this.status = status;
     }
 
@@ -95,4 +103,12 @@ public class TransactionAuthorization {
     public void setDenialReason(String denialReason) {
         this.denialReason = denialReason;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
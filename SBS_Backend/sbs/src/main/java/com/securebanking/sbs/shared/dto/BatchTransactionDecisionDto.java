@@ -0,0 +1,25 @@
+package com.securebanking.sbs.shared.dto;
+
+import java.util.List;
+
+public class BatchTransactionDecisionDto {
+
+    private List<Integer> transactionIds;
+    private String reason;
+
+    public List<Integer> getTransactionIds() {
+        return transactionIds;
+    }
+
+    public void setTransactionIds(List<Integer> transactionIds) {
+        this.transactionIds = transactionIds;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,61 @@
+package com.securebanking.sbs.shared.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchTransactionResultDto {
+
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private List<ItemResult> results = new ArrayList<>();
+
+    public void addSuccess(Integer transactionId, String status) {
+        results.add(new ItemResult(transactionId, true, status, null));
+        succeeded++;
+    }
+
+    public void addFailure(Integer transactionId, String message) {
+        results.add(new ItemResult(transactionId, false, null, message));
+        failed++;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<ItemResult> getResults() {
+        return results;
+    }
+
+    public static class ItemResult {
+        private final Integer transactionId;
+        private final boolean success;
+        private final String status;
+        private final String message;
+
+        public ItemResult(Integer transactionId, boolean success, String status, String message) {
+            this.transactionId = transactionId;
+            this.success = success;
+            this.status = status;
+            this.message = message;
+        }
+
+        public Integer getTransactionId() { return transactionId; }
+        public boolean isSuccess() { return success; }
+        public String getStatus() { return status; }
+        public String getMessage() { return message; }
+    }
+}
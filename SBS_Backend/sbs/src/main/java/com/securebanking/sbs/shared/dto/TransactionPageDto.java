@@ -0,0 +1,42 @@
+package com.securebanking.sbs.shared.dto;
+
+import java.util.List;
+
+public class TransactionPageDto {
+
+    private List<TransactionDto> transactions;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public TransactionPageDto() {}
+
+    public TransactionPageDto(List<TransactionDto> transactions, String nextCursor) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    public List<TransactionDto> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<TransactionDto> transactions) {
+        this.transactions = transactions;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,8 @@
+package com.securebanking.sbs.shared.enums;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    DEAD
+}
@@ -7,5 +7,6 @@ public enum RequestStatus {
     REJECTED,
     PENDING,
     COMPLETED,
+    DELETED,
     INACTIVE
 }
@@ -0,0 +1,69 @@
+package com.securebanking.sbs.shared.event;
+
+import java.time.LocalDateTime;
+
+public class ActivityEvent {
+
+    private Integer userId;
+    private String action;
+    private String description;
+    private String details;
+    private LocalDateTime timestamp;
+
+    public ActivityEvent() {
+        this.timestamp = LocalDateTime.now();
+    }
+
+    public ActivityEvent(Integer userId, String action, String description) {
+        this();
+        this.userId = userId;
+        this.action = action;
+        this.description = description;
+    }
+
+    public ActivityEvent(Integer userId, String action, String description, String details) {
+        this(userId, action, description);
+        this.details = details;
+    }
+
+    // Getters and Setters
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    public void setDetails(String details) {
+        this.details = details;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
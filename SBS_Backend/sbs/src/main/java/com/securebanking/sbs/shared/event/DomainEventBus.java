@@ -0,0 +1,16 @@
+package com.securebanking.sbs.shared.event;
+
+import java.util.function.Consumer;
+
+/**
+ * In-process publish/subscribe for domain events. Events published inside a transaction are
+ * only handed to subscribers once it commits and are dropped if it rolls back; outside a
+ * transaction they are dispatched straight away. Subscribers run asynchronously and must
+ * not assume the publisher's thread or persistence context.
+ */
+public interface DomainEventBus {
+
+    void publish(Object event);
+
+    <T> void subscribe(Class<T> eventType, Consumer<? super T> subscriber);
+}
@@ -0,0 +1,32 @@
+package com.securebanking.sbs.shared.event;
+
+/**
+ * An item entered or left one of the approvers' pending queues. Published by the code that
+ * submits or decides the request; delivered after its transaction commits.
+ */
+public class PendingQueueEvent {
+
+    public enum Queue { ACCOUNT_REQUESTS, PROFILE_REQUESTS, TRANSACTIONS }
+
+    private final Queue queue;
+    private final Integer id;
+    private final boolean added;
+
+    public PendingQueueEvent(Queue queue, Integer id, boolean added) {
+        this.queue = queue;
+        this.id = id;
+        this.added = added;
+    }
+
+    public static PendingQueueEvent added(Queue queue, Integer id) {
+        return new PendingQueueEvent(queue, id, true);
+    }
+
+    public static PendingQueueEvent removed(Queue queue, Integer id) {
+        return new PendingQueueEvent(queue, id, false);
+    }
+
+    public Queue getQueue() { return queue; }
+    public Integer getId() { return id; }
+    public boolean isAdded() { return added; }
+}
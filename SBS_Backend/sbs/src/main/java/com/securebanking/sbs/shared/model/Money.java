@@ -0,0 +1,103 @@
+package com.securebanking.sbs.shared.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point monetary amount held as a count of 1/10000 units, matching the
+ * NUMERIC(19,4) balance and amount columns. Arithmetic and comparison work on
+ * the raw long; BigDecimal and String only appear at the JDBC and API edges.
+ */
+public final class Money implements Comparable<Money>, Serializable {
+
+    public static final int SCALE = 4;
+    private static final long UNITS_PER_CENT = 100L;
+
+    public static final Money ZERO = new Money(0L);
+
+    private final long units;
+
+    private Money(long units) {
+        this.units = units;
+    }
+
+    public static Money ofUnits(long units) {
+        return units == 0L ? ZERO : new Money(units);
+    }
+
+    public static Money of(BigDecimal value) {
+        if (value == null) {
+            return null;
+        }
+        return ofUnits(value.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact());
+    }
+
+    @JsonCreator
+    public static Money parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return of(new BigDecimal(value.trim()));
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid monetary amount: " + value, e);
+        }
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public Money plus(Money other) {
+        return ofUnits(Math.addExact(units, other.units));
+    }
+
+    public Money minus(Money other) {
+        return ofUnits(Math.subtractExact(units, other.units));
+    }
+
+    public boolean isLessThan(Money other) {
+        return units < other.units;
+    }
+
+    public boolean isZero() {
+        return units == 0L;
+    }
+
+    public boolean isNegative() {
+        return units < 0L;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money)) return false;
+        return units == ((Money) o).units;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(units);
+    }
+
+    // Two decimals unless the amount carries sub-cent precision
+    @JsonValue
+    @Override
+    public String toString() {
+        BigDecimal value = toBigDecimal();
+        return units % UNITS_PER_CENT == 0L ? value.setScale(2).toPlainString() : value.toPlainString();
+    }
+}
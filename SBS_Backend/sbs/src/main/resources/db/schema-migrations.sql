@@ -0,0 +1,147 @@
+-- Idempotent schema migrations applied by spring.sql.init before Hibernate starts.
+-- Statements are separated by a line containing only "@@" so DO blocks can use ';'.
+
+-- Convert legacy text balances/amounts to fixed-point NUMERIC(19,4)
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'accounts' AND column_name = 'balance'
+                 AND data_type = 'character varying') THEN
+        ALTER TABLE accounts
+            ALTER COLUMN balance TYPE NUMERIC(19,4)
+            USING COALESCE(NULLIF(TRIM(balance), ''), '0')::NUMERIC(19,4);
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'transactions' AND column_name = 'amount'
+                 AND data_type = 'character varying') THEN
+        ALTER TABLE transactions
+            ALTER COLUMN amount TYPE NUMERIC(19,4)
+            USING NULLIF(TRIM(amount), '')::NUMERIC(19,4);
+    END IF;
+END $$
+@@
+
+-- Optimistic-lock version columns; existing rows start at 0 so Hibernate's version check holds
+DO $$
+BEGIN
+    IF to_regclass('accounts') IS NOT NULL THEN
+        ALTER TABLE accounts ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+    END IF;
+
+    IF to_regclass('transactions') IS NOT NULL THEN
+        ALTER TABLE transactions ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+    END IF;
+
+    IF to_regclass('transaction_authorizations') IS NOT NULL THEN
+        ALTER TABLE transaction_authorizations ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+    END IF;
+END $$
+@@
+
+-- Transaction and authorization statuses are stored as enum names (RequestStatus and
+-- ApprovalStatus). Legacy rows spell those names in any case and with stray whitespace
+-- ('Pending', ' pending'); they are folded to the name. Any other value would fail to load
+-- through @Enumerated(STRING), so startup stops here and lists it rather than guessing.
+DO $$
+DECLARE
+    unknown TEXT;
+BEGIN
+    IF to_regclass('transactions') IS NOT NULL THEN
+        SELECT string_agg(DISTINCT quote_literal(status), ', ') INTO unknown
+        FROM transactions
+        WHERE UPPER(TRIM(status)) NOT IN
+              ('CREATED', 'UPDATED', 'APPROVED', 'REJECTED', 'PENDING', 'COMPLETED', 'DELETED', 'INACTIVE');
+        IF unknown IS NOT NULL THEN
+            RAISE EXCEPTION 'transactions.status has values that are not a RequestStatus: %', unknown
+                USING HINT = 'Map them to a RequestStatus name by hand, then restart';
+        END IF;
+        UPDATE transactions SET status = UPPER(TRIM(status)) WHERE status <> UPPER(TRIM(status));
+    END IF;
+
+    IF to_regclass('transaction_authorizations') IS NOT NULL THEN
+        SELECT string_agg(DISTINCT quote_literal(status), ', ') INTO unknown
+        FROM transaction_authorizations
+        WHERE UPPER(TRIM(status)) NOT IN ('APPROVED', 'REJECTED', 'PENDING', 'COMPLETED', 'DELETED');
+        IF unknown IS NOT NULL THEN
+            RAISE EXCEPTION 'transaction_authorizations.status has values that are not an ApprovalStatus: %', unknown
+                USING HINT = 'Map them to an ApprovalStatus name by hand, then restart';
+        END IF;
+        UPDATE transaction_authorizations SET status = UPPER(TRIM(status)) WHERE status <> UPPER(TRIM(status));
+    END IF;
+END $$
+@@
+
+-- activity_logs is range-partitioned by month on timestamp. The parent is created here,
+-- before Hibernate, so ddl update sees it as existing; a legacy unpartitioned table is
+-- copied across once. The primary key must include the partition key.
+-- ActivityLogPartitionMaintenance keeps future months created and archives old ones.
+DO $$
+DECLARE
+    legacy BOOLEAN := EXISTS (SELECT 1 FROM pg_class
+                              WHERE oid = to_regclass('activity_logs') AND relkind = 'r');
+    first_month DATE;
+    month DATE;
+BEGIN
+    IF to_regclass('activity_logs') IS NOT NULL AND NOT legacy THEN
+        RETURN;
+    END IF;
+
+    IF legacy THEN
+        ALTER TABLE activity_logs RENAME TO activity_logs_legacy;
+        IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'activity_logs_pkey') THEN
+            ALTER TABLE activity_logs_legacy RENAME CONSTRAINT activity_logs_pkey TO activity_logs_legacy_pkey;
+        END IF;
+    END IF;
+
+    -- Own sequence: the legacy identity sequence is dropped along with the legacy table
+    CREATE SEQUENCE IF NOT EXISTS activity_logs_row_id_seq;
+    CREATE TABLE activity_logs (
+        id          INTEGER      NOT NULL DEFAULT nextval('activity_logs_row_id_seq'),
+        user_id     INTEGER      NOT NULL,
+        action      VARCHAR(255) NOT NULL,
+        description VARCHAR(255),
+        details     VARCHAR(255),
+        timestamp   TIMESTAMP(6) NOT NULL,
+        ip_address  VARCHAR(255),
+        user_agent  VARCHAR(255),
+        PRIMARY KEY (id, timestamp)
+    ) PARTITION BY RANGE (timestamp);
+    ALTER SEQUENCE activity_logs_row_id_seq OWNED BY activity_logs.id;
+
+    -- Rows outside every monthly range land here instead of failing the insert
+    CREATE TABLE activity_logs_default PARTITION OF activity_logs DEFAULT;
+
+    first_month := date_trunc('month', CURRENT_DATE)::DATE;
+    IF legacy THEN
+        EXECUTE 'SELECT COALESCE(date_trunc(''month'', MIN(timestamp))::DATE, $1) FROM activity_logs_legacy'
+            INTO first_month USING first_month;
+    END IF;
+
+    month := first_month;
+    WHILE month <= (date_trunc('month', CURRENT_DATE) + INTERVAL '2 months')::DATE LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF activity_logs FOR VALUES FROM (%L) TO (%L)',
+                       'activity_logs_p' || to_char(month, 'YYYYMM'),
+                       month, (month + INTERVAL '1 month')::DATE);
+        month := (month + INTERVAL '1 month')::DATE;
+    END LOOP;
+
+    IF legacy THEN
+        INSERT INTO activity_logs (id, user_id, action, description, details, timestamp, ip_address, user_agent)
+        SELECT id, user_id, action, description, details, timestamp, ip_address, user_agent
+        FROM activity_logs_legacy;
+        PERFORM setval('activity_logs_row_id_seq', COALESCE((SELECT MAX(id) FROM activity_logs_legacy), 0) + 1, false);
+        DROP TABLE activity_logs_legacy;
+    END IF;
+END $$
+@@
+
+-- Composite indexes for the per-user and per-action feeds; created on the parent so every
+-- partition inherits them
+CREATE INDEX IF NOT EXISTS idx_activity_logs_user_ts
+    ON activity_logs (user_id, timestamp DESC)
+@@
+
+CREATE INDEX IF NOT EXISTS idx_activity_logs_action_user_ts
+    ON activity_logs (action, user_id, timestamp DESC)
+@@
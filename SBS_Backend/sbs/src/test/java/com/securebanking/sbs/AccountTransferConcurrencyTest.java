@@ -0,0 +1,104 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.core.exception.InsufficientFundsException;
+import com.securebanking.sbs.infrastructure.repository.AccountRepo;
+import com.securebanking.sbs.infrastructure.repository.UserRepo;
+import com.securebanking.sbs.infrastructure.service.AccountService;
+import com.securebanking.sbs.modules.customer.model.Account;
+import com.securebanking.sbs.shared.model.Money;
+import com.securebanking.sbs.shared.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: every transfer must commit on its own connection to contend for the row
+@SpringBootTest
+@Import(TestFixtures.class)
+@ActiveProfiles("test")
+public class AccountTransferConcurrencyTest {
+
+    private static final int THREADS = 50;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepo accountRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    private User owner;
+    private Account hotAccount;
+    private Account receiverAccount;
+
+    @BeforeEach
+    void setUp() {
+        owner = fixtures.customer("hotaccountowner");
+        hotAccount = fixtures.account(owner, "HOT001", "100.00");
+        receiverAccount = fixtures.account(owner, "HOT002", "0.00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepo.deleteById(hotAccount.getAccountId());
+        accountRepo.deleteById(receiverAccount.getAccountId());
+        userRepo.delete(owner);
+    }
+
+    @Test
+    void concurrentTransfersNeverOverdrawHotAccount() throws Exception {
+        Money amount = Money.parse("5.00");
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    accountService.applyTransfer(hotAccount.getAccountId(), receiverAccount.getAccountId(), amount);
+                    succeeded.incrementAndGet();
+                } catch (InsufficientFundsException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        Money hotBalance = accountRepo.findById(hotAccount.getAccountId()).orElseThrow().getBalance();
+        Money receiverBalance = accountRepo.findById(receiverAccount.getAccountId()).orElseThrow().getBalance();
+
+        // 100.00 / 5.00 = 20 transfers fit, the rest must be refused rather than overdraw
+        assertEquals(20, succeeded.get());
+        assertEquals(THREADS - 20, rejected.get());
+        assertEquals(Money.ZERO, hotBalance);
+        assertEquals(Money.parse("100.00"), receiverBalance);
+    }
+}
@@ -0,0 +1,49 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.infrastructure.service.ActivityLogPartitionMaintenance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Without a durable archive location an expired partition must survive maintenance
+public class ActivityLogArchiveLocationTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ActivityLogPartitionMaintenance maintenance;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any()))
+                .thenReturn(List.of("activity_logs_p200101"));
+
+        maintenance = new ActivityLogPartitionMaintenance();
+        ReflectionTestUtils.setField(maintenance, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(maintenance, "retentionMonths", 12);
+    }
+
+    @Test
+    void unsetArchiveDirKeepsExpiredPartitions() throws Exception {
+        ReflectionTestUtils.setField(maintenance, "archiveDir", "");
+
+        assertTrue(maintenance.archiveExpiredPartitions().isEmpty());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void relativeArchiveDirIsRefused() {
+        ReflectionTestUtils.setField(maintenance, "archiveDir", "archive/activity-logs");
+
+        assertTrue(assertDoesNotThrow(() -> maintenance.archiveExpiredPartitions()).isEmpty());
+        assertThrows(IllegalStateException.class, () -> maintenance.archivePartition(YearMonth.of(2001, 1)));
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+}
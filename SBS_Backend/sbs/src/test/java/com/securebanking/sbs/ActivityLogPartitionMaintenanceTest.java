@@ -0,0 +1,85 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.infrastructure.service.ActivityLogPartitionMaintenance;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "sbs.activity-log.archive.dir=${java.io.tmpdir}/sbs-activity-log-archive")
+@ActiveProfiles("test")
+public class ActivityLogPartitionMaintenanceTest {
+
+    // Far enough back that no real rows can be sitting in the default partition for it
+    private static final YearMonth OLD_MONTH = YearMonth.of(2001, 1);
+
+    @Autowired
+    private ActivityLogPartitionMaintenance maintenance;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void upcomingMonthsArePartitioned() {
+        maintenance.ensureUpcomingPartitions();
+
+        assertTrue(partitionExists(YearMonth.now()));
+        assertTrue(partitionExists(YearMonth.now().plusMonths(1)));
+    }
+
+    @Test
+    void archivingExportsRowsAndDropsThePartition() throws Exception {
+        maintenance.ensurePartition(OLD_MONTH);
+        String action = "ARCHIVE_TEST_" + UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO activity_logs (user_id, action, description, timestamp) VALUES (?, ?, ?, ?)",
+                1, action, "old row", Timestamp.valueOf(LocalDateTime.of(2001, 1, 15, 12, 0)));
+
+        Path archive = maintenance.archivePartition(OLD_MONTH);
+
+        assertFalse(partitionExists(OLD_MONTH));
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(archive))) {
+            String csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(csv.startsWith("id,user_id,action"));
+            assertTrue(csv.contains(action));
+        }
+        Files.deleteIfExists(archive);
+    }
+
+    @Test
+    void rowsWaitingInTheDefaultPartitionMoveIntoTheNewMonth() throws Exception {
+        YearMonth month = YearMonth.of(2002, 3);
+        String action = "DEFAULT_MOVE_TEST_" + UUID.randomUUID();
+        // No partition covers the month yet, so the row lands in the default partition
+        jdbcTemplate.update("INSERT INTO activity_logs (user_id, action, description, timestamp) VALUES (?, ?, ?, ?)",
+                1, action, "early row", Timestamp.valueOf(LocalDateTime.of(2002, 3, 10, 9, 0)));
+
+        maintenance.ensurePartition(month);
+
+        assertTrue(partitionExists(month));
+        assertEquals(1, count("activity_logs_p200203", action));
+        assertEquals(0, count("activity_logs_default", action));
+        Files.deleteIfExists(maintenance.archivePartition(month));
+    }
+
+    private int count(String table, String action) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE action = ?", Integer.class, action);
+    }
+
+    private boolean partitionExists(YearMonth month) {
+        String name = String.format("activity_logs_p%04d%02d", month.getYear(), month.getMonthValue());
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name));
+    }
+}
@@ -0,0 +1,93 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.infrastructure.model.ActivityLog;
+import com.securebanking.sbs.infrastructure.service.ActivityLogWriteBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// The database is a mock that rejects descriptions longer than the VARCHAR(255) column
+public class ActivityLogWriteBufferRejectionTest {
+
+    private final List<ActivityLog> stored = new ArrayList<>();
+    private final AtomicBoolean databaseDown = new AtomicBoolean();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ActivityLogWriteBuffer buffer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    if (databaseDown.get()) {
+                        throw new DataAccessResourceFailureException("connection refused");
+                    }
+                    Collection<ActivityLog> rows = invocation.getArgument(1);
+                    if (rows.stream().anyMatch(row -> row.getDescription().length() > 255)) {
+                        throw new DataIntegrityViolationException("value too long for type character varying(255)");
+                    }
+                    stored.addAll(rows);
+                    return new int[0][];
+                });
+
+        buffer = new ActivityLogWriteBuffer();
+        ReflectionTestUtils.setField(buffer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(buffer, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(buffer, "capacity", 5);
+        ReflectionTestUtils.setField(buffer, "batchSize", 100);
+        ReflectionTestUtils.setField(buffer, "flushIntervalMs", 3600000L);
+        ReflectionTestUtils.setField(buffer, "offerTimeoutMs", 50L);
+        ReflectionTestUtils.invokeMethod(buffer, "init");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        databaseDown.set(false);
+        ReflectionTestUtils.invokeMethod(buffer, "shutdown");
+    }
+
+    @Test
+    void tooLongRowIsDroppedWithoutHoldingUpTheRest() {
+        buffer.add(new ActivityLog(1, "OK", "first"));
+        buffer.add(new ActivityLog(1, "TOO_LONG", "x".repeat(300)));
+        buffer.add(new ActivityLog(1, "OK", "second"));
+
+        assertEquals(2, buffer.flush());
+        assertEquals(List.of("first", "second"), stored.stream().map(ActivityLog::getDescription).toList());
+        assertEquals(1.0, meterRegistry.counter("sbs.activity_log.rejected").count());
+
+        // Nothing of the bad row is left to fail the next flush
+        buffer.add(new ActivityLog(1, "OK", "third"));
+        assertEquals(1, buffer.flush());
+    }
+
+    @Test
+    void unreachableDatabaseKeepsRowsAndFullBufferDropsInsteadOfThrowing() {
+        databaseDown.set(true);
+        for (int i = 0; i < 7; i++) {
+            buffer.add(new ActivityLog(1, "OK", "row " + i));
+        }
+        assertEquals(0, buffer.flush());
+        assertEquals(2.0, meterRegistry.counter("sbs.activity_log.dropped").count());
+
+        databaseDown.set(false);
+        assertEquals(5, buffer.flush());
+        assertEquals(5, stored.size());
+    }
+}
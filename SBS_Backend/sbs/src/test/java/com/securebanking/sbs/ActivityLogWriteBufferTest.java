@@ -0,0 +1,64 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.infrastructure.model.ActivityLog;
+import com.securebanking.sbs.infrastructure.repository.ActivityLogRepo;
+import com.securebanking.sbs.infrastructure.service.ActivityLogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Small capacity and a long interval so the size threshold and backpressure paths do the writing
+@SpringBootTest(properties = {
+        "sbs.activity-log.buffer.capacity=100",
+        "sbs.activity-log.buffer.batch-size=50",
+        "sbs.activity-log.buffer.flush-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+public class ActivityLogWriteBufferTest {
+
+    private static final int WRITERS = 8;
+    private static final int ROWS_PER_WRITER = 250;
+
+    @Autowired
+    private ActivityLogService activityLogService;
+
+    @Autowired
+    private ActivityLogRepo activityLogRepo;
+
+    @Test
+    void concurrentWritersLoseNoRows() throws Exception {
+        String action = "BUFFER_TEST_" + UUID.randomUUID();
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            pool.submit(() -> {
+                for (int i = 0; i < ROWS_PER_WRITER; i++) {
+                    activityLogService.logActivity(writer, action, "row " + i);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        long stored = 0;
+        for (int w = 0; w < WRITERS; w++) {
+            List<ActivityLog> rows = activityLogService.getActivityLogsByAction(w, action);
+            assertEquals(ROWS_PER_WRITER, rows.size());
+            stored += rows.size();
+        }
+        assertEquals((long) WRITERS * ROWS_PER_WRITER, stored);
+
+        activityLogRepo.deleteAll(activityLogRepo.findAll().stream()
+                .filter(log -> action.equals(log.getAction()))
+                .toList());
+    }
+}
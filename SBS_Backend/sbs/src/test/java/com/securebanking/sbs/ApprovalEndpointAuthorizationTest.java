@@ -0,0 +1,75 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.core.util.JwtUtil;
+import com.securebanking.sbs.infrastructure.controller.ApprovalWorkflowController;
+import com.securebanking.sbs.infrastructure.service.ApprovalWorkflowService;
+import com.securebanking.sbs.infrastructure.service.ReferenceDataService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// The approver comes from the verified token; the user table is not read to find or check them
+public class ApprovalEndpointAuthorizationTest {
+
+    private JwtUtil jwtUtil;
+    private ApprovalWorkflowService approvalWorkflowService;
+    private ReferenceDataService referenceDataService;
+    private ApprovalWorkflowController controller;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = TestJwt.jwtUtil();
+
+        approvalWorkflowService = mock(ApprovalWorkflowService.class);
+        when(approvalWorkflowService.isApproverRole(anyInt())).thenCallRealMethod();
+        referenceDataService = mock(ReferenceDataService.class);
+        controller = new ApprovalWorkflowController();
+        ReflectionTestUtils.setField(controller, "approvalWorkflowService", approvalWorkflowService);
+        ReflectionTestUtils.setField(controller, "referenceDataService", referenceDataService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void approverIdIsTakenFromTheToken() throws Exception {
+        String tellerToken = jwtUtil.generateToken("teller", 31, "teller@test.com", 3);
+        when(approvalWorkflowService.approveTransaction(7, 31)).thenReturn(Map.of("status", "APPROVED"));
+
+        assertEquals(200, as(tellerToken, () -> controller.approveTransaction(7)).getStatusCode().value());
+        assertEquals(200, as(tellerToken, () -> controller.rejectAccountRequest(4, Map.of("reason", "No ID")))
+                .getStatusCode().value());
+
+        verify(approvalWorkflowService).approveTransaction(7, 31);
+        verify(approvalWorkflowService).rejectAccountRequest(4, 31, "No ID");
+        verifyNoInteractions(referenceDataService);
+    }
+
+    @Test
+    void customersAndAnonymousCallersCannotDecide() throws Exception {
+        String customerToken = jwtUtil.generateToken("customer", 21, "customer@test.com", 2);
+
+        assertEquals(403, as(customerToken, () -> controller.approveTransaction(7)).getStatusCode().value());
+        assertEquals(403, as(customerToken, () -> controller.approveProfileRequest(5)).getStatusCode().value());
+        assertEquals(401, as(null, () -> controller.rejectTransaction(7, null)).getStatusCode().value());
+        verify(approvalWorkflowService, never()).approveTransaction(anyInt(), anyInt());
+        verify(approvalWorkflowService, never()).approveProfileRequest(anyInt(), anyInt());
+        verify(approvalWorkflowService, never()).rejectTransaction(anyInt(), anyInt(), any());
+    }
+
+    private ResponseEntity<?> as(String token, Supplier<ResponseEntity<?>> call) throws Exception {
+        return TestJwt.callAs(jwtUtil, token, "/api/v1/approval", call);
+    }
+}
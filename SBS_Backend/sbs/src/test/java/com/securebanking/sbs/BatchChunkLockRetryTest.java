@@ -0,0 +1,73 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.core.util.OptimisticLockRetry;
+import com.securebanking.sbs.infrastructure.repository.TransactionAuthorizationRepo;
+import com.securebanking.sbs.infrastructure.repository.TransactionRepo;
+import com.securebanking.sbs.infrastructure.repository.UserRepo;
+import com.securebanking.sbs.infrastructure.service.ApprovalWorkflowService;
+import com.securebanking.sbs.infrastructure.service.ReferenceDataService;
+import com.securebanking.sbs.shared.dto.BatchTransactionResultDto;
+import com.securebanking.sbs.shared.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// A chunk that loses a lock wait is run again; the repositories are mocks holding no transactions
+public class BatchChunkLockRetryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OptimisticLockRetry optimisticLockRetry;
+    private ApprovalWorkflowService service;
+
+    @BeforeEach
+    void setUp() {
+        optimisticLockRetry = mock(OptimisticLockRetry.class);
+        ReferenceDataService referenceDataService = mock(ReferenceDataService.class);
+        when(referenceDataService.findUser(5)).thenReturn(Optional.of(new User()));
+
+        service = new ApprovalWorkflowService();
+        ReflectionTestUtils.setField(service, "optimisticLockRetry", optimisticLockRetry);
+        ReflectionTestUtils.setField(service, "referenceDataService", referenceDataService);
+        ReflectionTestUtils.setField(service, "transactionRepo", mock(TransactionRepo.class));
+        ReflectionTestUtils.setField(service, "transactionAuthorizationRepo", mock(TransactionAuthorizationRepo.class));
+        ReflectionTestUtils.setField(service, "userRepo", mock(UserRepo.class));
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "batchLockAttempts", 3);
+    }
+
+    @Test
+    void deadlockedChunkIsRunAgain() {
+        when(optimisticLockRetry.execute(anyString(), any()))
+                .thenThrow(new CannotAcquireLockException("deadlock detected"))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+
+        BatchTransactionResultDto result = service.rejectTransactions(List.of(1, 2), 5, "duplicate");
+
+        // The second run reached the items, which this empty repository does not have
+        assertEquals(2, result.getFailed());
+        assertTrue(result.getResults().stream().allMatch(r -> "Transaction not found".equals(r.getMessage())));
+        assertEquals(1.0, meterRegistry.counter("sbs.approval.batch.lock_retries").count());
+    }
+
+    @Test
+    void chunkThatKeepsLosingLockWaitsFails() {
+        when(optimisticLockRetry.execute(anyString(), any()))
+                .thenThrow(new RuntimeException("Failed", new CannotAcquireLockException("deadlock detected")));
+
+        BatchTransactionResultDto result = service.rejectTransactions(List.of(1, 2), 5, "duplicate");
+
+        assertEquals(2, result.getFailed());
+        verify(optimisticLockRetry, times(3)).execute(anyString(), any());
+        assertEquals(2.0, meterRegistry.counter("sbs.approval.batch.lock_retries").count());
+    }
+}
@@ -0,0 +1,138 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.infrastructure.repository.AccountRepo;
+import com.securebanking.sbs.infrastructure.repository.TransactionAuthorizationRepo;
+import com.securebanking.sbs.infrastructure.repository.TransactionRepo;
+import com.securebanking.sbs.infrastructure.repository.UserRepo;
+import com.securebanking.sbs.infrastructure.service.ApprovalWorkflowService;
+import com.securebanking.sbs.modules.customer.model.Account;
+import com.securebanking.sbs.modules.customer.model.Transaction;
+import com.securebanking.sbs.modules.customer.model.TransactionAuthorization;
+import com.securebanking.sbs.shared.dto.BatchTransactionResultDto;
+import com.securebanking.sbs.shared.enums.ApprovalStatus;
+import com.securebanking.sbs.shared.enums.RequestStatus;
+import com.securebanking.sbs.shared.model.Money;
+import com.securebanking.sbs.shared.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: each chunk of a batch commits on its own
+@SpringBootTest
+@Import(TestFixtures.class)
+@ActiveProfiles("test")
+public class BatchTransactionDecisionTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ApprovalWorkflowService approvalWorkflowService;
+
+    @Autowired
+    private TransactionRepo transactionRepo;
+
+    @Autowired
+    private TransactionAuthorizationRepo transactionAuthorizationRepo;
+
+    @Autowired
+    private AccountRepo accountRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User customer;
+    private User approver;
+    private Account sender;
+    private Account receiver;
+
+    @BeforeEach
+    void setUp() {
+        customer = fixtures.customer("batchcustomer");
+        approver = fixtures.admin("batchapprover");
+        sender = fixtures.account(customer, "BATCH001", "100.00");
+        receiver = fixtures.account(customer, "BATCH002", "0.00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM transaction_authorizations WHERE transaction_id IN (SELECT transaction_id FROM transactions WHERE sender_acc IN (?, ?))",
+                sender.getAccountId(), receiver.getAccountId());
+        jdbcTemplate.update("DELETE FROM transactions WHERE sender_acc IN (?, ?)", sender.getAccountId(), receiver.getAccountId());
+        accountRepo.deleteById(sender.getAccountId());
+        accountRepo.deleteById(receiver.getAccountId());
+        jdbcTemplate.update("DELETE FROM notifications WHERE user_id IN (?, ?)", customer.getUserId(), approver.getUserId());
+        jdbcTemplate.update("DELETE FROM user_dashboard_summary WHERE user_id IN (?, ?)", customer.getUserId(), approver.getUserId());
+        userRepo.delete(customer);
+        userRepo.delete(approver);
+    }
+
+    @Test
+    void itemWithoutFundsFailsAloneAndTheRestOfItsChunkCommits() {
+        Integer first = pendingTransfer("60.00");
+        Integer overdraw = pendingTransfer("60.00");
+        Integer last = pendingTransfer("30.00");
+
+        BatchTransactionResultDto result = approvalWorkflowService.approveTransactions(
+                List.of(first, overdraw, last), approver.getUserId());
+
+        assertEquals(3, result.getRequested());
+        assertEquals(2, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals(RequestStatus.APPROVED, transactionRepo.findById(first).orElseThrow().getStatus());
+        assertEquals(RequestStatus.PENDING, transactionRepo.findById(overdraw).orElseThrow().getStatus());
+        assertEquals(RequestStatus.APPROVED, transactionRepo.findById(last).orElseThrow().getStatus());
+        assertEquals(Money.parse("10.00"), accountRepo.findById(sender.getAccountId()).orElseThrow().getBalance());
+        assertEquals(Money.parse("90.00"), accountRepo.findById(receiver.getAccountId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    void rejectionMovesNoMoneyAndSkipsDecidedItems() {
+        Integer pending = pendingTransfer("20.00");
+        Integer decided = pendingTransfer("20.00");
+        approvalWorkflowService.rejectTransactions(List.of(decided), approver.getUserId(), "first pass");
+
+        BatchTransactionResultDto result = approvalWorkflowService.rejectTransactions(
+                List.of(pending, decided), approver.getUserId(), "duplicate");
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals(RequestStatus.REJECTED, transactionRepo.findById(pending).orElseThrow().getStatus());
+        assertEquals(ApprovalStatus.REJECTED,
+                transactionAuthorizationRepo.findByTransactionTransactionId(pending).orElseThrow().getStatus());
+        assertEquals(Money.parse("100.00"), accountRepo.findById(sender.getAccountId()).orElseThrow().getBalance());
+    }
+
+    private Integer pendingTransfer(String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(customer);
+        transaction.setSenderAcc(sender);
+        transaction.setReceiverAcc(receiver);
+        transaction.setTransactionType("TRANSFER");
+        transaction.setAmount(Money.parse(amount));
+        transaction.setStatus(RequestStatus.PENDING);
+        transaction.setCreatedtime(LocalDateTime.now());
+        transaction = transactionRepo.save(transaction);
+
+        TransactionAuthorization authorization = new TransactionAuthorization();
+        authorization.setTransaction(transaction);
+        authorization.setStatus(ApprovalStatus.PENDING);
+        authorization.setCreatedtime(LocalDateTime.now());
+        transactionAuthorizationRepo.save(authorization);
+
+        return transaction.getTransactionId();
+    }
+}
@@ -0,0 +1,69 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.core.resilience.Bulkhead;
+import com.securebanking.sbs.core.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkheadTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new CircuitBreaker("test", 2, Duration.ofMillis(200), meterRegistry);
+        bulkhead = new Bulkhead("test", 2, 2, Duration.ofMillis(100), circuitBreaker, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        bulkhead.shutdown();
+    }
+
+    @Test
+    void slowCallTimesOutToTheFallback() {
+        long start = System.nanoTime();
+        String result = bulkhead.call(() -> {
+            Thread.sleep(2000);
+            return "remote";
+        }, () -> "fallback");
+
+        assertEquals("fallback", result);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000);
+        assertEquals(1.0, meterRegistry.counter("sbs.bulkhead.timeouts", "dependency", "test").count());
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveFailuresAndRecoversAfterTrial() throws InterruptedException {
+        AtomicInteger remoteCalls = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            assertEquals("fallback", bulkhead.call(() -> {
+                remoteCalls.incrementAndGet();
+                throw new IllegalStateException("down");
+            }, () -> "fallback"));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        // Open: the dependency is not called at all
+        assertEquals("fallback", bulkhead.call(() -> {
+            remoteCalls.incrementAndGet();
+            return "remote";
+        }, () -> "fallback"));
+        assertEquals(2, remoteCalls.get());
+        assertEquals(1.0, meterRegistry.counter("sbs.circuit.short_circuited", "dependency", "test").count());
+
+        Thread.sleep(250);
+        assertEquals("remote", bulkhead.call(() -> "remote", () -> "fallback"));
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+}
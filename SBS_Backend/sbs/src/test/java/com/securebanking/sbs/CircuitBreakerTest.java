@@ -0,0 +1,75 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.core.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new CircuitBreaker("test", 2, Duration.ofMillis(100), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void successFromACallStartedBeforeTheCircuitOpenedKeepsItOpen() {
+        CircuitBreaker.Permit slowCall = circuitBreaker.tryAcquire();
+        CircuitBreaker.Permit failing = circuitBreaker.tryAcquire();
+        failing.onFailure();
+        failing.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        slowCall.onSuccess();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertNull(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void onlyTheTrialClosesTheCircuit() throws InterruptedException {
+        CircuitBreaker.Permit beforeOpen = circuitBreaker.tryAcquire();
+        open();
+        Thread.sleep(150);
+
+        CircuitBreaker.Permit trial = circuitBreaker.tryAcquire();
+        assertTrue(trial.isTrial());
+        assertNull(circuitBreaker.tryAcquire(), "Only one trial at a time");
+        beforeOpen.onSuccess();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+        trial.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        // A failure left over from before the circuit opened does not count towards reopening it
+        beforeOpen.onFailure();
+        circuitBreaker.tryAcquire().onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void releasedTrialHandsTheTrialToTheNextCaller() throws InterruptedException {
+        open();
+        Thread.sleep(150);
+
+        circuitBreaker.tryAcquire().release();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        CircuitBreaker.Permit next = circuitBreaker.tryAcquire();
+        assertNotNull(next);
+        assertTrue(next.isTrial());
+    }
+
+    private void open() {
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        permit.onFailure();
+        permit.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+}
@@ -0,0 +1,66 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.core.util.JwtUtil;
+import com.securebanking.sbs.infrastructure.controller.DashboardController;
+import com.securebanking.sbs.infrastructure.service.ApprovalWorkflowService;
+import com.securebanking.sbs.infrastructure.service.DashboardSummaryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class DashboardRebuildAuthorizationTest {
+
+    private JwtUtil jwtUtil;
+    private DashboardSummaryService dashboardSummaryService;
+    private DashboardController controller;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = TestJwt.jwtUtil();
+
+        dashboardSummaryService = mock(DashboardSummaryService.class);
+        controller = new DashboardController();
+        ReflectionTestUtils.setField(controller, "dashboardSummaryService", dashboardSummaryService);
+        ReflectionTestUtils.setField(controller, "approvalWorkflowService", new ApprovalWorkflowService());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void customersAndAnonymousCallersCannotRebuild() throws Exception {
+        String customerToken = jwtUtil.generateToken("customer", 21, "customer@test.com", 2);
+
+        assertEquals(403, as(customerToken, () -> controller.rebuildAllDashboardSummaries()).getStatusCode().value());
+        assertEquals(403, as(customerToken, () -> controller.rebuildDashboardSummary(21)).getStatusCode().value());
+        assertEquals(401, as(null, () -> controller.rebuildAllDashboardSummaries()).getStatusCode().value());
+        verify(dashboardSummaryService, never()).rebuildAll();
+        verify(dashboardSummaryService, never()).rebuild(anyInt());
+    }
+
+    @Test
+    void staffCanRebuild() throws Exception {
+        String adminToken = jwtUtil.generateToken("admin", 1, "admin@test.com", 1);
+        String internalToken = jwtUtil.generateToken("teller", 3, "teller@test.com", 3);
+
+        assertEquals(200, as(adminToken, () -> controller.rebuildAllDashboardSummaries()).getStatusCode().value());
+        assertEquals(200, as(internalToken, () -> controller.rebuildDashboardSummary(21)).getStatusCode().value());
+        verify(dashboardSummaryService).rebuildAll();
+        verify(dashboardSummaryService).rebuild(21);
+    }
+
+    private ResponseEntity<?> as(String token, Supplier<ResponseEntity<?>> call) throws Exception {
+        return TestJwt.callAs(jwtUtil, token, "/api/v1/dashboard/summary/rebuild", call);
+    }
+}
@@ -0,0 +1,120 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.infrastructure.model.UserDashboardSummary;
+import com.securebanking.sbs.infrastructure.repository.AccountRepo;
+import com.securebanking.sbs.infrastructure.repository.UserDashboardSummaryRepo;
+import com.securebanking.sbs.infrastructure.repository.UserRepo;
+import com.securebanking.sbs.infrastructure.service.AccountService;
+import com.securebanking.sbs.infrastructure.service.DashboardSummaryService;
+import com.securebanking.sbs.shared.dto.AccountDto;
+import com.securebanking.sbs.shared.model.Money;
+import com.securebanking.sbs.shared.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+@ActiveProfiles("test")
+public class DashboardSummaryTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private DashboardSummaryService dashboardSummaryService;
+
+    @Autowired
+    private UserDashboardSummaryRepo summaryRepo;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepo accountRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User alice;
+    private User bob;
+    private final List<Long> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        alice = fixtures.customer("summaryalice");
+        bob = fixtures.customer("summarybob");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM transactions WHERE sender_id IN (?, ?)", alice.getUserId(), bob.getUserId());
+        accountIds.forEach(accountRepo::deleteById);
+        jdbcTemplate.update("DELETE FROM user_daily_transaction_counts WHERE user_id IN (?, ?)", alice.getUserId(), bob.getUserId());
+        summaryRepo.deleteAllById(List.of(alice.getUserId(), bob.getUserId()));
+        userRepo.delete(alice);
+        userRepo.delete(bob);
+    }
+
+    @Test
+    void incrementalUpdatesMatchARebuild() {
+        // Reading first materializes empty rows that the increments then maintain
+        assertEquals(0, dashboardSummaryService.getSummary(alice.getUserId()).getAccountCount());
+        assertEquals(0, dashboardSummaryService.getSummary(bob.getUserId()).getAccountCount());
+
+        Long aliceChecking = openAccount(alice, "100.00");
+        Long aliceSavings = openAccount(alice, "0.00");
+        Long bobChecking = openAccount(bob, "0.00");
+
+        accountService.applyTransfer(aliceChecking, aliceSavings, Money.parse("30.00"));
+        accountService.applyTransfer(aliceChecking, bobChecking, Money.parse("25.00"));
+
+        jdbcTemplate.update("INSERT INTO transactions (sender_id, sender_acc, receiver_acc, transaction_type, amount, " +
+                        "created_time, status, version) VALUES (?, ?, ?, 'TRANSFER', ?, now(), 'PENDING', 0)",
+                alice.getUserId(), aliceChecking, bobChecking, new BigDecimal("5.00"));
+        dashboardSummaryService.transactionRecorded(alice.getUserId());
+
+        UserDashboardSummary aliceIncremental = summaryRepo.findById(alice.getUserId()).orElseThrow();
+        UserDashboardSummary bobIncremental = summaryRepo.findById(bob.getUserId()).orElseThrow();
+        assertEquals(2, aliceIncremental.getAccountCount());
+        assertEquals(Money.parse("75.00"), aliceIncremental.getTotalBalance());
+        assertEquals(1, aliceIncremental.getRecentTransactionCount());
+        assertEquals(Money.parse("25.00"), bobIncremental.getTotalBalance());
+
+        dashboardSummaryService.rebuild(alice.getUserId());
+        dashboardSummaryService.rebuild(bob.getUserId());
+
+        UserDashboardSummary aliceRebuilt = summaryRepo.findById(alice.getUserId()).orElseThrow();
+        UserDashboardSummary bobRebuilt = summaryRepo.findById(bob.getUserId()).orElseThrow();
+        assertEquals(aliceIncremental.getAccountCount(), aliceRebuilt.getAccountCount());
+        assertEquals(aliceIncremental.getTotalBalance(), aliceRebuilt.getTotalBalance());
+        assertEquals(aliceIncremental.getRecentTransactionCount(), aliceRebuilt.getRecentTransactionCount());
+        assertEquals(bobIncremental.getTotalBalance(), bobRebuilt.getTotalBalance());
+    }
+
+    private Long openAccount(User owner, String balance) {
+        AccountDto dto = new AccountDto();
+        dto.setUserId(owner.getUserId());
+        dto.setAccountType("Checking");
+        dto.setBalance(balance);
+        dto.setStatus("Active");
+        Long accountId = accountService.createAccount(dto).getAccountId();
+        accountIds.add(accountId);
+        return accountId;
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.infrastructure.service.InMemoryDomainEventBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DomainEventBusTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private InMemoryDomainEventBus eventBus;
+
+    record Probe(String id) {}
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(eventBus, "shutdown");
+    }
+
+    @Test
+    void deliversOnlyAfterCommitAndNeverOnRollback() throws Exception {
+        eventBus = bus(2, 100);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new SynchronizationOnlyTransactionManager());
+        List<String> received = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        eventBus.subscribe(Probe.class, probe -> {
+            received.add(probe.id());
+            delivered.countDown();
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventBus.publish(new Probe("rolled-back"));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            eventBus.publish(new Probe("committed"));
+            assertTrue(received.isEmpty(), "Nothing should be delivered before commit");
+        });
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        assertEquals(List.of("committed"), received);
+    }
+
+    @Test
+    void failingSubscriberDoesNotBlockOthers() throws Exception {
+        eventBus = bus(2, 100);
+        CountDownLatch delivered = new CountDownLatch(1);
+        eventBus.subscribe(Probe.class, probe -> {
+            throw new IllegalStateException("boom");
+        });
+        eventBus.subscribe(Probe.class, probe -> delivered.countDown());
+
+        eventBus.publish(new Probe("outside-transaction"));
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void fullQueueDropsTheDeliveryInsteadOfRunningItOnThePublisher() throws Exception {
+        eventBus = bus(1, 1);
+        Thread publisher = Thread.currentThread();
+        List<Thread> deliveredOn = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(2);
+        eventBus.subscribe(Probe.class, probe -> {
+            deliveredOn.add(Thread.currentThread());
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delivered.countDown();
+        });
+
+        // One on the only worker, one in the only queue slot, and no room for the third
+        eventBus.publish(new Probe("running"));
+        eventBus.publish(new Probe("queued"));
+        eventBus.publish(new Probe("overflow"));
+
+        assertEquals(1.0, meterRegistry.counter("sbs.events.dropped").count());
+        release.countDown();
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(2, deliveredOn.size());
+        assertFalse(deliveredOn.contains(publisher));
+    }
+
+    private InMemoryDomainEventBus bus(int queueCapacity, long publishTimeoutMs) {
+        InMemoryDomainEventBus bus = new InMemoryDomainEventBus();
+        ReflectionTestUtils.setField(bus, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(bus, "workers", 1);
+        ReflectionTestUtils.setField(bus, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(bus, "shutdownTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(bus, "publishTimeoutMs", publishTimeoutMs);
+        ReflectionTestUtils.invokeMethod(bus, "init");
+        return bus;
+    }
+
+    // Runs transaction synchronization, and so afterCommit callbacks, with no resource behind it
+    private static class SynchronizationOnlyTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
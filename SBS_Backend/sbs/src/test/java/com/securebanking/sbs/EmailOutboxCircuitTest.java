@@ -0,0 +1,108 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.core.resilience.CircuitBreaker;
+import com.securebanking.sbs.infrastructure.model.EmailOutboxMessage;
+import com.securebanking.sbs.infrastructure.repository.EmailOutboxRepo;
+import com.securebanking.sbs.infrastructure.service.EmailOutboxDispatcher;
+import com.securebanking.sbs.shared.enums.EmailOutboxStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Which send failures trip the SMTP circuit; the outbox table and SMTP server are mocks
+public class EmailOutboxCircuitTest {
+
+    private final List<EmailOutboxMessage> outbox = new ArrayList<>();
+    private JavaMailSender mailSender;
+    private CircuitBreaker smtpCircuitBreaker;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        EmailOutboxRepo emailOutboxRepo = mock(EmailOutboxRepo.class);
+        when(emailOutboxRepo.lockDueMessages(any(), anyInt())).thenAnswer(invocation -> outbox.stream()
+                .filter(m -> m.getStatus() == EmailOutboxStatus.PENDING)
+                .limit((int) invocation.getArgument(1))
+                .toList());
+        when(emailOutboxRepo.findAllById(anyIterable())).thenAnswer(invocation -> outbox);
+        mailSender = mock(JavaMailSender.class);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        smtpCircuitBreaker = new CircuitBreaker("smtp", 5, Duration.ofMinutes(1), meterRegistry);
+        dispatcher = new EmailOutboxDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "emailOutboxRepo", emailOutboxRepo);
+        ReflectionTestUtils.setField(dispatcher, "mailSender", mailSender);
+        ReflectionTestUtils.setField(dispatcher, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(dispatcher, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "smtpCircuitBreaker", smtpCircuitBreaker);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "workers", 2);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoffMs", 0L);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffMs", 0L);
+        ReflectionTestUtils.setField(dispatcher, "leaseMs", 60000L);
+        ReflectionTestUtils.invokeMethod(dispatcher, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(dispatcher, "shutdown");
+    }
+
+    @Test
+    void rejectedRecipientsDoNotOpenTheCircuit() {
+        doThrow(new MailSendException(Map.of(new SimpleMailMessage(),
+                new SendFailedException("550 5.1.1 Recipient address rejected"))))
+                .when(mailSender).send(any(SimpleMailMessage.class));
+        for (long id = 1; id <= 6; id++) {
+            queue(id);
+        }
+
+        assertEquals(6, dispatcher.dispatchDue());
+
+        assertEquals(CircuitBreaker.State.CLOSED, smtpCircuitBreaker.getState());
+        assertTrue(outbox.stream().allMatch(m -> m.getAttempts() == 1));
+    }
+
+    @Test
+    void unreachableServerOpensTheCircuit() {
+        doThrow(new MailSendException("Mail server connection failed",
+                new MessagingException("Couldn't connect to host", new ConnectException("Connection refused"))))
+                .when(mailSender).send(any(SimpleMailMessage.class));
+        for (long id = 1; id <= 6; id++) {
+            queue(id);
+        }
+
+        dispatcher.dispatchDue();
+
+        assertEquals(CircuitBreaker.State.OPEN, smtpCircuitBreaker.getState());
+        // Nothing more is claimed until the circuit lets a trial through
+        assertEquals(0, dispatcher.dispatchDue());
+    }
+
+    private void queue(long id) {
+        EmailOutboxMessage message = new EmailOutboxMessage("user" + id + "@example.test", "Subject", "Body");
+        message.setId(id);
+        message.setStatus(EmailOutboxStatus.PENDING);
+        outbox.add(message);
+    }
+}
@@ -0,0 +1,145 @@
+package com.securebanking.sbs;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.securebanking.sbs.infrastructure.model.EmailOutboxMessage;
+import com.securebanking.sbs.infrastructure.repository.EmailOutboxRepo;
+import com.securebanking.sbs.infrastructure.service.EmailOutboxDispatcher;
+import com.securebanking.sbs.infrastructure.service.EmailService;
+import com.securebanking.sbs.shared.enums.EmailOutboxStatus;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// GreenMail stands in for SMTP; the scheduled poller is pushed out so each test drives dispatchDue() itself
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=",
+        "spring.mail.password=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "sbs.mail.outbox.poll-interval-ms=3600000",
+        "sbs.mail.outbox.max-attempts=2",
+        "sbs.mail.outbox.initial-backoff-ms=0"
+})
+@ActiveProfiles("test")
+public class EmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private EmailOutboxRepo emailOutboxRepo;
+
+    private final String recipientDomain = UUID.randomUUID() + ".test";
+
+    @AfterEach
+    void tearDown() {
+        emailOutboxRepo.deleteAll(ownMessages());
+    }
+
+    @Test
+    void queuedEmailIsDeliveredByDispatcher() throws Exception {
+        emailService.sendNotificationEmail("customer@" + recipientDomain, "Transaction Approved", "Approved.");
+
+        // Nothing goes out on the caller's thread
+        assertEquals(0, greenMail.getReceivedMessages().length);
+
+        drain();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(1, received.length);
+        assertEquals("Secure Banking System - Transaction Approved", received[0].getSubject());
+        assertEquals(EmailOutboxStatus.SENT, ownMessages().get(0).getStatus());
+    }
+
+    @Test
+    void batchIsSentInParallelAndFullyRecorded() {
+        for (int i = 0; i < 20; i++) {
+            emailService.sendOtpEmail("user" + i + "@" + recipientDomain, String.valueOf(100000 + i));
+        }
+
+        drain();
+
+        assertEquals(20, greenMail.getReceivedMessages().length);
+        assertTrue(ownMessages().stream().allMatch(m -> m.getStatus() == EmailOutboxStatus.SENT));
+    }
+
+    @Test
+    void messageIsDeadLetteredAfterMaxAttempts() {
+        greenMail.stop();
+        emailService.sendNotificationEmail("unreachable@" + recipientDomain, "Subject", "Body");
+
+        dispatcher.dispatchDue();
+        EmailOutboxMessage afterFirst = ownMessages().get(0);
+        assertEquals(EmailOutboxStatus.PENDING, afterFirst.getStatus());
+        assertEquals(1, afterFirst.getAttempts());
+        assertNotNull(afterFirst.getLastError());
+
+        dispatcher.dispatchDue();
+        EmailOutboxMessage afterSecond = ownMessages().get(0);
+        assertEquals(EmailOutboxStatus.DEAD, afterSecond.getStatus());
+        assertEquals(2, afterSecond.getAttempts());
+    }
+
+    @Test
+    void sentMessageKeepsNoBodyAndIsPurgedAfterRetention() {
+        emailService.sendOtpEmail("otp@" + recipientDomain, "123456");
+        drain();
+
+        EmailOutboxMessage sent = ownMessages().get(0);
+        assertEquals(EmailOutboxStatus.SENT, sent.getStatus());
+        assertEquals("", sent.getBody());
+
+        sent.setSentAt(LocalDateTime.now().minusDays(30));
+        emailOutboxRepo.save(sent);
+        assertTrue(dispatcher.purgeSent() >= 1);
+        assertTrue(ownMessages().isEmpty());
+    }
+
+    @Test
+    void otpThatComesDueAfterItExpiredIsNotSent() {
+        emailService.sendOtpEmail("late@" + recipientDomain, "654321");
+        EmailOutboxMessage queued = ownMessages().get(0);
+        assertNotNull(queued.getExpiresAt());
+        queued.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        emailOutboxRepo.save(queued);
+
+        drain();
+
+        assertEquals(0, greenMail.getReceivedMessages().length);
+        EmailOutboxMessage discarded = ownMessages().get(0);
+        assertEquals(EmailOutboxStatus.DEAD, discarded.getStatus());
+        assertFalse(discarded.getBody().contains("654321"));
+    }
+
+    private void drain() {
+        while (dispatcher.dispatchDue() > 0) {
+            // keep claiming until the outbox has nothing due
+        }
+    }
+
+    private List<EmailOutboxMessage> ownMessages() {
+        return emailOutboxRepo.findAll().stream()
+                .filter(m -> m.getRecipient().endsWith("@" + recipientDomain))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,58 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.core.security.AuthenticatedUser;
+import com.securebanking.sbs.core.security.JwtAuthenticationFilter;
+import com.securebanking.sbs.core.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtAuthenticationFilterTest {
+
+    private final JwtUtil jwtUtil = TestJwt.jwtUtil();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validTokenAuthenticatesFromClaims() throws Exception {
+        String token = jwtUtil.generateToken("filteruser", 17, "filter@test.com", 3, "Filter", "User");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/approvals/pending");
+        request.addHeader("Authorization", "Bearer " + token);
+        AtomicReference<AuthenticatedUser> seen = new AtomicReference<>();
+        AtomicReference<String> authority = new AtomicReference<>();
+
+        new JwtAuthenticationFilter(jwtUtil).doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            seen.set(AuthenticatedUser.current().orElse(null));
+            authority.set(SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority).findFirst().orElse(null));
+        });
+
+        assertNotNull(seen.get());
+        assertEquals(17L, seen.get().getUserId());
+        assertEquals(3, seen.get().getRoleId());
+        assertEquals("Filter", seen.get().getFirstName());
+        assertEquals("ROLE_3", authority.get());
+    }
+
+    @Test
+    void invalidTokenLeavesTheRequestAnonymous() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/approvals/pending");
+        request.addHeader("Authorization", "Bearer not-a-jwt");
+        AtomicReference<Boolean> authenticated = new AtomicReference<>();
+
+        new JwtAuthenticationFilter(jwtUtil).doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> authenticated.set(AuthenticatedUser.current().isPresent()));
+
+        assertFalse(authenticated.get());
+    }
+}
@@ -0,0 +1,59 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.core.util.JwtUtil;
+import com.securebanking.sbs.core.util.TokenClaims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtClaimsCacheTest {
+
+    private final JwtUtil jwtUtil = TestJwt.jwtUtil();
+
+    @Test
+    void tokenIsVerifiedOnceAndServedFromTheCache() {
+        String token = jwtUtil.generateToken("claimsuser", 42, "claims@test.com", 2, "Claims", "User");
+
+        TokenClaims first = jwtUtil.parseToken(token);
+        TokenClaims second = jwtUtil.parseToken(token);
+
+        assertSame(first, second);
+        assertEquals("claimsuser", first.getUsername());
+        assertEquals(42L, first.getUserId());
+        assertEquals(2, first.getRoleId());
+        assertTrue(jwtUtil.validateToken(token, "claimsuser"));
+        assertFalse(jwtUtil.validateToken(token, "someoneelse"));
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        String token = jwtUtil.generateToken("claimsuser", 42, "claims@test.com", 2);
+        String tampered = Jwts.builder()
+                .claim("userId", 1)
+                .setSubject("claimsuser")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(SignatureAlgorithm.HS512, "another-secret-another-secret-another-secret")
+                .compact();
+
+        assertNotNull(jwtUtil.parseToken(token));
+        assertThrows(SignatureException.class, () -> jwtUtil.parseToken(tampered));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String expired = Jwts.builder()
+                .claim("userId", 42)
+                .setSubject("claimsuser")
+                .setExpiration(new Date(System.currentTimeMillis() - 1_000))
+                .signWith(SignatureAlgorithm.HS512, TestJwt.SECRET)
+                .compact();
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.parseToken(expired));
+    }
+}
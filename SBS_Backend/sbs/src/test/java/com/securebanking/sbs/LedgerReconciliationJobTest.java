@@ -0,0 +1,112 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.core.config.ReconciliationJobConfig;
+import com.securebanking.sbs.infrastructure.model.LedgerReconciliation;
+import com.securebanking.sbs.infrastructure.repository.AccountRepo;
+import com.securebanking.sbs.infrastructure.repository.UserRepo;
+import com.securebanking.sbs.infrastructure.service.ReconciliationService;
+import com.securebanking.sbs.modules.customer.model.Account;
+import com.securebanking.sbs.shared.model.Money;
+import com.securebanking.sbs.shared.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "sbs.reconciliation.grid-size=3",
+        "sbs.reconciliation.chunk-size=2"
+})
+@Import(TestFixtures.class)
+@ActiveProfiles("test")
+public class LedgerReconciliationJobTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    @Qualifier(ReconciliationJobConfig.JOB_NAME)
+    private Job reconciliationJob;
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private AccountRepo accountRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private Account balanced;
+    private Account drifted;
+
+    @BeforeEach
+    void setUp() {
+        owner = fixtures.customer("reconcileowner");
+
+        // 100 opening, 20 settled out: the first account holds the expected 80, the second was
+        // credited 20 but has lost another 10 outside any transaction
+        balanced = saveAccount("RECON001", "100.00", "80.00");
+        drifted = saveAccount("RECON002", "0.00", "10.00");
+        jdbcTemplate.update("INSERT INTO transactions (sender_id, sender_acc, receiver_acc, transaction_type, amount, " +
+                        "created_time, status, version) VALUES (?, ?, ?, 'TRANSFER', ?, now(), 'COMPLETED', 0)",
+                owner.getUserId(), balanced.getAccountId(), drifted.getAccountId(), new BigDecimal("20.00"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM ledger_reconciliations WHERE account_id IN (?, ?)", balanced.getAccountId(), drifted.getAccountId());
+        jdbcTemplate.update("DELETE FROM transactions WHERE sender_acc = ?", balanced.getAccountId());
+        accountRepo.deleteById(balanced.getAccountId());
+        accountRepo.deleteById(drifted.getAccountId());
+        userRepo.delete(owner);
+    }
+
+    @Test
+    void reportsOnlyAccountsThatDrifted() throws Exception {
+        JobExecution execution = jobLauncher.run(reconciliationJob, new JobParametersBuilder()
+                .addString(ReconciliationJobConfig.RUN_DATE_PARAMETER, "test-" + UUID.randomUUID())
+                .toJobParameters());
+
+        assertEquals(BatchStatus.COMPLETED, execution.getStatus());
+
+        List<LedgerReconciliation> report = reconciliationService.getDrift(execution.getId()).stream()
+                .filter(r -> r.getAccountId().equals(balanced.getAccountId()) || r.getAccountId().equals(drifted.getAccountId()))
+                .toList();
+        assertEquals(1, report.size());
+        LedgerReconciliation drift = report.get(0);
+        assertEquals(drifted.getAccountId(), drift.getAccountId());
+        assertEquals(Money.parse("10.00"), drift.getRecordedBalance());
+        assertEquals(Money.parse("20.00"), drift.getComputedBalance());
+        assertEquals(Money.parse("-10.00"), drift.getDrift());
+    }
+
+    private Account saveAccount(String number, String opening, String balance) {
+        Account account = fixtures.newAccount(owner, number, balance);
+        account.setOpeningBalance(Money.parse(opening));
+        return accountRepo.save(account);
+    }
+}
@@ -0,0 +1,41 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.infrastructure.batch.LedgerReconciliationProcessor;
+import com.securebanking.sbs.infrastructure.batch.ReconciliationAccountRow;
+import com.securebanking.sbs.infrastructure.model.LedgerReconciliation;
+import com.securebanking.sbs.shared.model.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LedgerReconciliationProcessorTest {
+
+    private final ExecutionContext stepContext = new ExecutionContext();
+    private final LedgerReconciliationProcessor processor = new LedgerReconciliationProcessor(7L, stepContext);
+
+    @Test
+    void onlyDriftIsReported() {
+        assertNull(processor.process(row(1L, "80.00", "100.00", "0.00", "20.00")));
+
+        LedgerReconciliation drift = processor.process(row(2L, "10.00", "0.00", "20.00", "0.00"));
+        assertEquals(Money.parse("20.00"), drift.getComputedBalance());
+        assertEquals(Money.parse("-10.00"), drift.getDrift());
+        assertEquals(0, stepContext.getLong(LedgerReconciliationProcessor.MISSING_OPENING_BALANCE, 0));
+    }
+
+    @Test
+    void accountsWithoutOpeningBalanceAreCountedNotSilentlySkipped() {
+        assertNull(processor.process(row(3L, "50.00", null, "0.00", "0.00")));
+        assertNull(processor.process(row(4L, "60.00", null, "0.00", "0.00")));
+
+        assertEquals(2, stepContext.getLong(LedgerReconciliationProcessor.MISSING_OPENING_BALANCE));
+    }
+
+    private static ReconciliationAccountRow row(Long accountId, String recorded, String opening, String credits, String debits) {
+        return new ReconciliationAccountRow(accountId, new BigDecimal(recorded),
+                opening != null ? new BigDecimal(opening) : null, new BigDecimal(credits), new BigDecimal(debits));
+    }
+}
@@ -0,0 +1,124 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.core.util.OptimisticLockRetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OptimisticLockRetryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TransactionTemplate transactionTemplate;
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+        optimisticLockRetry = new OptimisticLockRetry();
+        ReflectionTestUtils.setField(optimisticLockRetry, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(optimisticLockRetry, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(optimisticLockRetry, "maxAttempts", 3);
+        ReflectionTestUtils.setField(optimisticLockRetry, "initialBackoffMs", 1L);
+        ReflectionTestUtils.setField(optimisticLockRetry, "maxBackoffMs", 2L);
+    }
+
+    @Test
+    void conflictIsRetriedUntilTheWorkSucceeds() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = optimisticLockRetry.execute("transfer", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new RuntimeException("Failed", new OptimisticLockingFailureException("stale version"));
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2.0, count("sbs.optimistic_lock.conflicts"));
+        assertEquals(2.0, count("sbs.optimistic_lock.retries"));
+        assertEquals(0.0, count("sbs.optimistic_lock.exhausted"));
+    }
+
+    @Test
+    void lastConflictIsRethrownOnceAttemptsRunOut() {
+        AtomicInteger attempts = new AtomicInteger();
+        OptimisticLockingFailureException conflict = new OptimisticLockingFailureException("stale version");
+
+        OptimisticLockingFailureException thrown = assertThrows(OptimisticLockingFailureException.class,
+                () -> optimisticLockRetry.run("transfer", () -> {
+                    attempts.incrementAndGet();
+                    throw conflict;
+                }));
+
+        assertSame(conflict, thrown);
+        assertEquals(3, attempts.get());
+        assertEquals(3.0, count("sbs.optimistic_lock.conflicts"));
+        assertEquals(2.0, count("sbs.optimistic_lock.retries"));
+        assertEquals(1.0, count("sbs.optimistic_lock.exhausted"));
+    }
+
+    @Test
+    void otherFailuresAreNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> optimisticLockRetry.run("transfer", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("Insufficient funds");
+        }));
+
+        assertEquals(1, attempts.get());
+        assertEquals(0.0, count("sbs.optimistic_lock.conflicts"));
+    }
+
+    @Test
+    void workInsideACallersTransactionRunsOnceInIt() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Only the caller that owns the transaction can start a fresh attempt
+        assertThrows(OptimisticLockingFailureException.class, () -> transactionTemplate.executeWithoutResult(status ->
+                optimisticLockRetry.run("transfer", () -> {
+                    attempts.incrementAndGet();
+                    throw new OptimisticLockingFailureException("stale version");
+                })));
+
+        assertEquals(1, attempts.get());
+        assertEquals(0.0, count("sbs.optimistic_lock.conflicts"));
+        assertEquals(0.0, count("sbs.optimistic_lock.retries"));
+    }
+
+    private double count(String name) {
+        return meterRegistry.counter(name, "operation", "transfer").count();
+    }
+
+    // Gives each execute a real transaction status, so nesting is detected, with no resource behind it
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.infrastructure.model.EmailOutboxMessage;
+import com.securebanking.sbs.infrastructure.repository.EmailOutboxRepo;
+import com.securebanking.sbs.infrastructure.service.EmailService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// The OTP mail states the configured expiry rather than a fixed one
+public class OtpEmailTest {
+
+    @Test
+    void bodyStatesTheConfiguredExpiry() {
+        assertTrue(otpBody(Duration.ofMinutes(5)).contains("This code will expire in 5 minutes."));
+        assertTrue(otpBody(Duration.ofMinutes(1)).contains("This code will expire in 1 minute."));
+        assertTrue(otpBody(Duration.ofHours(2)).contains("This code will expire in 2 hours."));
+        assertTrue(otpBody(Duration.ofSeconds(90)).contains("This code will expire in 90 seconds."));
+    }
+
+    private static String otpBody(Duration otpExpiry) {
+        EmailOutboxRepo emailOutboxRepo = mock(EmailOutboxRepo.class);
+        EmailService emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "emailOutboxRepo", emailOutboxRepo);
+        ReflectionTestUtils.setField(emailService, "otpExpiry", otpExpiry);
+
+        emailService.sendOtpEmail("user@test.com", "123456");
+
+        ArgumentCaptor<EmailOutboxMessage> saved = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(emailOutboxRepo).save(saved.capture());
+        return saved.getValue().getBody();
+    }
+}
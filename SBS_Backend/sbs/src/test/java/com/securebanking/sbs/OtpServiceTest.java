@@ -0,0 +1,134 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.core.resilience.Bulkhead;
+import com.securebanking.sbs.core.resilience.CircuitBreaker;
+import com.securebanking.sbs.infrastructure.service.OtpService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class OtpServiceTest {
+
+    private OtpService otpService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        otpService = new OtpService();
+        ReflectionTestUtils.setField(otpService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(otpService, "expiry", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(otpService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(otpService, "fallbackMaxSize", 100L);
+        ReflectionTestUtils.invokeMethod(otpService, "init");
+    }
+
+    @Test
+    void otpCanOnlyBeUsedOnce() {
+        otpService.storeOtp("a@example.com", "123456");
+
+        assertTrue(otpService.validateAndRemoveOtp("a@example.com", "123456"));
+        assertFalse(otpService.validateAndRemoveOtp("a@example.com", "123456"));
+        assertNull(otpService.getOtp("a@example.com"));
+    }
+
+    @Test
+    void otpIsDiscardedAfterMaxFailedAttempts() {
+        otpService.storeOtp("a@example.com", "123456");
+
+        assertFalse(otpService.validateAndRemoveOtp("a@example.com", "000000"));
+        assertFalse(otpService.validateAndRemoveOtp("a@example.com", "111111"));
+        assertFalse(otpService.validateAndRemoveOtp("a@example.com", "222222"));
+
+        assertFalse(otpService.validateAndRemoveOtp("a@example.com", "123456"));
+        assertEquals(1.0, meterRegistry.counter("sbs.otp.verifications", "result", "locked").count());
+    }
+
+    @Test
+    void expiredOtpIsRejected() throws InterruptedException {
+        ReflectionTestUtils.setField(otpService, "expiry", Duration.ofMillis(1));
+        otpService.storeOtp("a@example.com", "123456");
+
+        Thread.sleep(20);
+        assertFalse(otpService.validateAndRemoveOtp("a@example.com", "123456"));
+    }
+
+    @Test
+    void otpStoredByATimedOutRedisWriteIsAcceptedOnlyOnce() throws Exception {
+        Map<String, String> redis = new ConcurrentHashMap<>();
+        AtomicBoolean redisDown = new AtomicBoolean();
+        useSlowRedis(redis, redisDown);
+
+        // The write lands in Redis after the bulkhead gave up on it, so memory holds a copy too
+        otpService.storeOtp("a@example.com", "123456");
+        Thread.sleep(400);
+        assertEquals("123456", redis.get("otp:a@example.com"));
+
+        assertTrue(otpService.validateAndRemoveOtp("a@example.com", "123456"));
+        assertFalse(otpService.validateAndRemoveOtp("a@example.com", "123456"));
+
+        // Accepted from memory while Redis is down; Redis must not accept it again once back
+        otpService.storeOtp("b@example.com", "654321");
+        Thread.sleep(400);
+        redisDown.set(true);
+        assertTrue(otpService.validateAndRemoveOtp("b@example.com", "654321"));
+        redisDown.set(false);
+        assertFalse(otpService.validateAndRemoveOtp("b@example.com", "654321"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void useSlowRedis(Map<String, String> redis, AtomicBoolean redisDown) {
+        RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenAnswer(invocation -> {
+            if (redisDown.get()) {
+                throw new RedisConnectionFailureException("down");
+            }
+            String key = ((List<String>) invocation.getArgument(1)).get(0);
+            String otp = invocation.getArgument(2);
+            if (invocation.<RedisScript<Long>>getArgument(0).getScriptAsString().contains("HSET")) {
+                // STORE: finishes after the bulkhead timeout, even though the caller was interrupted
+                long landAt = System.nanoTime() + Duration.ofMillis(250).toNanos();
+                while (System.nanoTime() < landAt) {
+                    LockSupport.parkNanos(landAt - System.nanoTime());
+                }
+                redis.put(key, otp);
+                return 1L;
+            }
+            String stored = redis.get(key);
+            if (stored == null) {
+                return -1L;
+            }
+            if (stored.equals(otp)) {
+                redis.remove(key);
+                return 1L;
+            }
+            return 0L;
+        });
+        when(redisTemplate.delete(anyString())).thenAnswer(invocation -> {
+            if (redisDown.get()) {
+                throw new RedisConnectionFailureException("down");
+            }
+            return redis.remove(invocation.<String>getArgument(0)) != null;
+        });
+
+        Bulkhead redisBulkhead = new Bulkhead("redis", 2, 2, Duration.ofMillis(100),
+                new CircuitBreaker("redis", 100, Duration.ofSeconds(10), meterRegistry), meterRegistry);
+        ReflectionTestUtils.setField(otpService, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(otpService, "redisBulkhead", redisBulkhead);
+    }
+}
@@ -0,0 +1,51 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.infrastructure.service.PasswordHashingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHashingServiceTest {
+
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    void setUp() {
+        passwordHashingService = new PasswordHashingService();
+        ReflectionTestUtils.setField(passwordHashingService, "passwordEncoder", new BCryptPasswordEncoder(6));
+        ReflectionTestUtils.setField(passwordHashingService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(passwordHashingService, "strength", 6);
+        ReflectionTestUtils.setField(passwordHashingService, "threads", 2);
+        ReflectionTestUtils.setField(passwordHashingService, "queueCapacity", 10);
+        ReflectionTestUtils.setField(passwordHashingService, "timeoutMs", 5000L);
+        ReflectionTestUtils.invokeMethod(passwordHashingService, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(passwordHashingService, "shutdown");
+    }
+
+    @Test
+    void hashesVerifyAndUseTheConfiguredCost() {
+        String hash = passwordHashingService.encode("s3cret-pass");
+
+        assertTrue(passwordHashingService.matches("s3cret-pass", hash));
+        assertFalse(passwordHashingService.matches("wrong-pass", hash));
+        assertFalse(passwordHashingService.needsRehash(hash));
+    }
+
+    @Test
+    void hashesWithAnotherCostNeedRehash() {
+        String weaker = new BCryptPasswordEncoder(4).encode("s3cret-pass");
+
+        assertTrue(passwordHashingService.matches("s3cret-pass", weaker));
+        assertTrue(passwordHashingService.needsRehash(weaker));
+        assertFalse(passwordHashingService.needsRehash("not-a-bcrypt-hash"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.securebanking.sbs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.securebanking.sbs.infrastructure.repository.AccountRequestRepo;
+import com.securebanking.sbs.infrastructure.repository.ProfileUpdateRequestRepo;
+import com.securebanking.sbs.infrastructure.repository.TransactionRepo;
+import com.securebanking.sbs.infrastructure.service.ApprovalWorkflowService;
+import com.securebanking.sbs.modules.customer.model.Account;
+import com.securebanking.sbs.modules.customer.model.Transaction;
+import com.securebanking.sbs.modules.internal_user.model.AccountRequest;
+import com.securebanking.sbs.modules.internal_user.model.ProfileUpdateRequest;
+import com.securebanking.sbs.shared.dto.TransactionDto;
+import com.securebanking.sbs.shared.enums.RequestStatus;
+import com.securebanking.sbs.shared.model.Money;
+import com.securebanking.sbs.shared.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Each approver list must cost one statement regardless of how many rows it returns
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Keep the pending-queue resync out of the measured window
+        "sbs.approval.queue.resync-interval-ms=3600000"
+})
+@Import(TestFixtures.class)
+@ActiveProfiles("test")
+@Transactional
+public class PendingQueueQueryCountTest {
+
+    private static final int ROWS = 10;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ApprovalWorkflowService approvalWorkflowService;
+
+    @Autowired
+    private TransactionRepo transactionRepo;
+
+    @Autowired
+    private AccountRequestRepo accountRequestRepo;
+
+    @Autowired
+    private ProfileUpdateRequestRepo profileUpdateRequestRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ROWS; i++) {
+            User user = fixtures.customer("querycount" + i);
+
+            Account sender = fixtures.account(user, "QC-S-" + i, "100.00");
+            Account receiver = fixtures.account(user, "QC-R-" + i, "100.00");
+
+            Transaction transaction = new Transaction();
+            transaction.setUser(user);
+            transaction.setSenderAcc(sender);
+            transaction.setReceiverAcc(receiver);
+            transaction.setTransactionType("TRANSFER_FUNDS");
+            transaction.setAmount(Money.parse("1.00"));
+            transaction.setStatus(RequestStatus.PENDING);
+            transaction.setCreatedtime(LocalDateTime.now());
+            transactionRepo.save(transaction);
+
+            accountRequestRepo.save(new AccountRequest(user.getUserId(), "Savings", 10.0, "query count"));
+            profileUpdateRequestRepo.save(new ProfileUpdateRequest(user.getUserId(), "EMAIL",
+                    user.getEmailAddress(), "new" + i + "@test.com", "query count"));
+        }
+
+        // Start from an empty persistence context so every association has to come from the database
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void pendingTransactionsLoadInOneStatement() throws Exception {
+        List<TransactionDto> pending = approvalWorkflowService.getPendingTransactionRequests();
+        // Serializing reaches Account.user and User.role, which would lazy-load per row
+        objectMapper.writeValueAsString(pending);
+
+        assertTrue(pending.size() >= ROWS);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void pendingAccountRequestsLoadInOneStatement() {
+        assertTrue(approvalWorkflowService.getPendingAccountRequests().size() >= ROWS);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void pendingProfileRequestsLoadInOneStatement() {
+        assertTrue(approvalWorkflowService.getPendingProfileRequests().size() >= ROWS);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+}
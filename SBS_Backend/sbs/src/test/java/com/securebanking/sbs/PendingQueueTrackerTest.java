@@ -0,0 +1,141 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.core.resilience.Bulkhead;
+import com.securebanking.sbs.core.resilience.CircuitBreaker;
+import com.securebanking.sbs.infrastructure.repository.AccountRequestRepo;
+import com.securebanking.sbs.infrastructure.repository.ProfileUpdateRequestRepo;
+import com.securebanking.sbs.infrastructure.repository.TransactionRepo;
+import com.securebanking.sbs.infrastructure.service.PendingQueueTracker;
+import com.securebanking.sbs.shared.event.DomainEventBus;
+import com.securebanking.sbs.shared.event.PendingQueueEvent;
+import com.securebanking.sbs.shared.event.PendingQueueEvent.Queue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class PendingQueueTrackerTest {
+
+    private PendingQueueTracker tracker;
+    private AccountRequestRepo accountRequestRepo;
+    private Bulkhead redisBulkhead;
+
+    @BeforeEach
+    void setUp() {
+        accountRequestRepo = mock(AccountRequestRepo.class);
+        ProfileUpdateRequestRepo profileUpdateRequestRepo = mock(ProfileUpdateRequestRepo.class);
+        TransactionRepo transactionRepo = mock(TransactionRepo.class);
+        when(accountRequestRepo.findPendingIds()).thenReturn(List.of(1, 2));
+        when(profileUpdateRequestRepo.findPendingIds()).thenReturn(List.of());
+        when(transactionRepo.findPendingIds()).thenReturn(List.of(7));
+
+        tracker = new PendingQueueTracker();
+        ReflectionTestUtils.setField(tracker, "eventBus", mock(DomainEventBus.class));
+        ReflectionTestUtils.setField(tracker, "accountRequestRepo", accountRequestRepo);
+        ReflectionTestUtils.setField(tracker, "profileUpdateRequestRepo", profileUpdateRequestRepo);
+        ReflectionTestUtils.setField(tracker, "transactionRepo", transactionRepo);
+        ReflectionTestUtils.setField(tracker, "changeLogSize", 10);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        redisBulkhead = new Bulkhead("redis", 2, 2, Duration.ofSeconds(1),
+                new CircuitBreaker("redis", 5, Duration.ofSeconds(10), meterRegistry), meterRegistry);
+        ReflectionTestUtils.setField(tracker, "redisBulkhead", redisBulkhead);
+        ReflectionTestUtils.invokeMethod(tracker, "register");
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        redisBulkhead.shutdown();
+    }
+
+    @Test
+    void deltaNetsChangesSinceTheGivenVersion() {
+        PendingQueueTracker.QueueState loaded = tracker.state();
+        assertEquals(2, loaded.getCounts().get(Queue.ACCOUNT_REQUESTS));
+        assertEquals(1, loaded.getCounts().get(Queue.TRANSACTIONS));
+        assertTrue(tracker.changesSince(loaded.getVersion()).orElseThrow().isEmpty());
+
+        publish(PendingQueueEvent.added(Queue.ACCOUNT_REQUESTS, 3));
+        publish(PendingQueueEvent.removed(Queue.ACCOUNT_REQUESTS, 1));
+        publish(PendingQueueEvent.added(Queue.TRANSACTIONS, 8));
+        publish(PendingQueueEvent.removed(Queue.TRANSACTIONS, 8));
+
+        PendingQueueTracker.Delta delta = tracker.changesSince("W/\"" + loaded.getVersion() + "\"").orElseThrow();
+        assertEquals(Set.of(3), delta.getAdded(Queue.ACCOUNT_REQUESTS));
+        assertEquals(Set.of(1), delta.getRemoved(Queue.ACCOUNT_REQUESTS));
+        // Added and decided in between: reported only as removed
+        assertEquals(Set.of(), delta.getAdded(Queue.TRANSACTIONS));
+        assertEquals(Set.of(8), delta.getRemoved(Queue.TRANSACTIONS));
+        assertEquals(tracker.state().getVersion(), delta.getVersion());
+        assertNotEquals(loaded.getVersion(), delta.getVersion());
+    }
+
+    @Test
+    void unknownOrTruncatedVersionsRequireAFullReload() {
+        ReflectionTestUtils.setField(tracker, "changeLogSize", 3);
+        String loaded = tracker.state().getVersion();
+        assertTrue(tracker.changesSince(null).isEmpty());
+        assertTrue(tracker.changesSince("0-0").isEmpty());
+
+        for (int id = 10; id < 14; id++) {
+            publish(PendingQueueEvent.added(Queue.PROFILE_REQUESTS, id));
+        }
+        // Four changes against a log of three: the loaded version has fallen out of it
+        assertTrue(tracker.changesSince(loaded).isEmpty());
+        assertEquals(4, tracker.state().getCounts().get(Queue.PROFILE_REQUESTS));
+    }
+
+    @Test
+    void resyncRecordsChangesThatWereNotPublished() {
+        String loaded = tracker.state().getVersion();
+        when(accountRequestRepo.findPendingIds()).thenReturn(List.of(2, 5));
+
+        tracker.resync();
+
+        PendingQueueTracker.Delta delta = tracker.changesSince(loaded).orElseThrow();
+        assertEquals(Set.of(5), delta.getAdded(Queue.ACCOUNT_REQUESTS));
+        assertEquals(Set.of(1), delta.getRemoved(Queue.ACCOUNT_REQUESTS));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void changeOnAnotherInstanceIsPickedUpBeforeAnswering() {
+        RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.get(anyString())).thenReturn("0");
+        ReflectionTestUtils.setField(tracker, "redisTemplate", redisTemplate);
+        String loaded = tracker.state().getVersion();
+
+        // Another instance took a submission and bumped the shared generation
+        when(accountRequestRepo.findPendingIds()).thenReturn(List.of(1, 2, 9));
+        when(values.get(anyString())).thenReturn("1");
+
+        PendingQueueTracker.QueueState state = tracker.state();
+        assertEquals(3, state.getCounts().get(Queue.ACCOUNT_REQUESTS));
+        assertEquals(Set.of(9), tracker.changesSince(loaded).orElseThrow().getAdded(Queue.ACCOUNT_REQUESTS));
+
+        // Our own change bumps the generation without making us resync for it
+        when(values.increment(anyString())).thenReturn(2L);
+        when(values.get(anyString())).thenReturn("2");
+        publish(PendingQueueEvent.added(Queue.ACCOUNT_REQUESTS, 10));
+        clearInvocations(accountRequestRepo);
+        assertEquals(4, tracker.state().getCounts().get(Queue.ACCOUNT_REQUESTS));
+        verify(accountRequestRepo, never()).findPendingIds();
+    }
+
+    private void publish(PendingQueueEvent event) {
+        ReflectionTestUtils.invokeMethod(tracker, "onPendingQueueEvent", event);
+    }
+}
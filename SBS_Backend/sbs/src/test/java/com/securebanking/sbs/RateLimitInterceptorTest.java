@@ -0,0 +1,111 @@
+package com.securebanking.sbs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.securebanking.sbs.core.config.RateLimitConfig;
+import com.securebanking.sbs.infrastructure.service.RateLimiterService;
+import com.securebanking.sbs.interceptor.RateLimitInterceptor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.filters.RemoteIpFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitInterceptorTest {
+
+    private RateLimitInterceptor interceptor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RateLimiterService rateLimiterService = new RateLimiterService();
+        ReflectionTestUtils.setField(rateLimiterService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(rateLimiterService, "localBucketsMaxSize", 1000L);
+        ReflectionTestUtils.invokeMethod(rateLimiterService, "init");
+
+        RateLimitConfig config = new RateLimitConfig();
+        interceptor = new RateLimitInterceptor(List.of(
+                config.defaultRateLimit(100, Duration.ofMinutes(1)),
+                config.loginRateLimit(2, Duration.ofMinutes(1))));
+        ReflectionTestUtils.setField(interceptor, "rateLimiterService", rateLimiterService);
+        ReflectionTestUtils.setField(interceptor, "objectMapper", new ObjectMapper());
+    }
+
+    @Test
+    void loginIsLimitedPerClientIpWithRetryAfter() throws Exception {
+        assertTrue(interceptor.preHandle(login("10.0.0.1"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(login("10.0.0.1"), new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(login("10.0.0.1"), rejected, null));
+        assertEquals(429, rejected.getStatus());
+        assertTrue(Long.parseLong(rejected.getHeader("Retry-After")) >= 1);
+        assertTrue(rejected.getContentAsString().contains("Too many requests"));
+        assertEquals(1.0, meterRegistry.counter("sbs.rate_limit.rejected", "profile", "login").count());
+
+        assertTrue(interceptor.preHandle(login("10.0.0.2"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void otherEndpointsUseTheDefaultProfile() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/accounts");
+            request.setRemoteAddr("10.0.0.1");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            assertTrue(interceptor.preHandle(request, response, null));
+            assertEquals(String.valueOf(99 - i), response.getHeader("X-RateLimit-Remaining"));
+        }
+    }
+
+    // Prod sets server.forward-headers-strategy=native, which is Tomcat's remote-IP handling with
+    // its default trusted proxies; RemoteIpFilter is the same logic as a servlet filter
+    @Test
+    void clientsBehindTheProxyAreLimitedByForwardedAddress() throws Exception {
+        RemoteIpFilter remoteIp = new RemoteIpFilter();
+        remoteIp.init(new MockFilterConfig());
+
+        assertTrue(throughFilter(remoteIp, "10.1.0.5", "203.0.113.7"));
+        assertTrue(throughFilter(remoteIp, "10.1.0.5", "203.0.113.7"));
+        assertFalse(throughFilter(remoteIp, "10.1.0.5", "203.0.113.7"));
+        // Another client arriving through the same proxy has a bucket of its own
+        assertTrue(throughFilter(remoteIp, "10.1.0.5", "198.51.100.4"));
+
+        // A caller that is not a trusted proxy cannot pick a fresh bucket by forging the header
+        assertTrue(throughFilter(remoteIp, "192.0.2.10", "198.51.100.21"));
+        assertTrue(throughFilter(remoteIp, "192.0.2.10", "198.51.100.22"));
+        assertFalse(throughFilter(remoteIp, "192.0.2.10", "198.51.100.23"));
+    }
+
+    private boolean throughFilter(RemoteIpFilter remoteIp, String remoteAddr, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = login(remoteAddr);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        boolean[] allowed = new boolean[1];
+        FilterChain chain = (req, res) -> {
+            try {
+                allowed[0] = interceptor.preHandle((HttpServletRequest) req, (HttpServletResponse) res, null);
+            } catch (Exception e) {
+                throw new ServletException(e);
+            }
+        };
+        remoteIp.doFilter(request, new MockHttpServletResponse(), chain);
+        return allowed[0];
+    }
+
+    private static MockHttpServletRequest login(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/login");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,86 @@
+package com.securebanking.sbs;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.securebanking.sbs.core.config.CacheConfig;
+import com.securebanking.sbs.infrastructure.repository.UserRepo;
+import com.securebanking.sbs.infrastructure.service.AdminService;
+import com.securebanking.sbs.infrastructure.service.ReferenceDataService;
+import com.securebanking.sbs.shared.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+@ActiveProfiles("test")
+public class ReferenceDataCacheTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.customer("cacheuser");
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepo.delete(user);
+    }
+
+    @Test
+    void repeatedLookupIsServedFromTheCache() {
+        CacheStats before = stats(CacheConfig.USERS);
+
+        User first = referenceDataService.findUser(user.getUserId()).orElseThrow();
+        User second = referenceDataService.findUser(user.getUserId()).orElseThrow();
+
+        CacheStats delta = stats(CacheConfig.USERS).minus(before);
+        assertEquals(1, delta.missCount());
+        assertEquals(1, delta.hitCount());
+        assertSame(first, second);
+        // The role is fetched with the user, so it is readable on the detached copy
+        assertEquals(user.getRole().getRoleName(), second.getRole().getRoleName());
+    }
+
+    @Test
+    void statusChangeEvictsTheCachedUser() {
+        assertEquals("Active", referenceDataService.findUser(user.getUserId()).orElseThrow().getStatus());
+
+        adminService.updateUserStatus(user.getUserId(), "Inactive");
+
+        assertEquals("Inactive", referenceDataService.findUser(user.getUserId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void missingUserIsNotCached() {
+        assertTrue(referenceDataService.findUser(-1).isEmpty());
+        assertNull(cacheManager.getCache(CacheConfig.USERS).get(-1));
+    }
+
+    private CacheStats stats(String cacheName) {
+        return ((Cache<?, ?>) cacheManager.getCache(cacheName).getNativeCache()).stats();
+    }
+}
@@ -0,0 +1,149 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.core.config.StatementJobConfig;
+import com.securebanking.sbs.infrastructure.repository.AccountRepo;
+import com.securebanking.sbs.infrastructure.repository.StatementRepo;
+import com.securebanking.sbs.infrastructure.repository.UserRepo;
+import com.securebanking.sbs.modules.customer.model.Account;
+import com.securebanking.sbs.modules.customer.model.Statement;
+import com.securebanking.sbs.shared.model.Money;
+import com.securebanking.sbs.shared.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "sbs.statements.output-dir=${java.io.tmpdir}/sbs-statements",
+        "sbs.statements.partitions=2",
+        "sbs.statements.chunk-size=10"
+})
+@Import(TestFixtures.class)
+@ActiveProfiles("test")
+public class StatementJobTest {
+
+    private static final String PERIOD = "2001-03";
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    @Qualifier(StatementJobConfig.JOB_NAME)
+    private Job statementJob;
+
+    @Autowired
+    private StatementRepo statementRepo;
+
+    @Autowired
+    private AccountRepo accountRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private Account checking;
+    private Account savings;
+
+    @BeforeEach
+    void setUp() {
+        owner = fixtures.customer("statementowner");
+
+        // Balances as they stand today, after everything below has been booked
+        checking = fixtures.account(owner, "STMT001", "165.00");
+        savings = fixtures.account(owner, "STMT002", "35.00");
+
+        insertTransfer(checking, savings, "30.00", "APPROVED", LocalDateTime.of(2001, 3, 10, 9, 0), LocalDateTime.of(2001, 3, 10, 9, 0));
+        insertTransfer(checking, savings, "5.00", "PENDING", LocalDateTime.of(2001, 3, 20, 9, 0), null);
+        // Requested in March but approved in April: an April movement
+        insertTransfer(checking, savings, "15.00", "APPROVED", LocalDateTime.of(2001, 3, 30, 9, 0), LocalDateTime.of(2001, 4, 1, 10, 0));
+        insertTransfer(savings, checking, "10.00", "COMPLETED", LocalDateTime.of(2001, 4, 2, 9, 0), LocalDateTime.of(2001, 4, 2, 9, 0));
+        // An admin edit after March closed must not move March's figures
+        jdbcTemplate.update("INSERT INTO account_balance_adjustments (account_id, amount, adjusted_at) VALUES (?, ?, ?)",
+                checking.getAccountId(), new BigDecimal("100.00"), Timestamp.valueOf(LocalDateTime.of(2001, 4, 5, 9, 0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM statements WHERE account_id IN (?, ?)", checking.getAccountId(), savings.getAccountId());
+        jdbcTemplate.update("DELETE FROM transactions WHERE sender_acc IN (?, ?)", checking.getAccountId(), savings.getAccountId());
+        jdbcTemplate.update("DELETE FROM account_balance_adjustments WHERE account_id = ?", checking.getAccountId());
+        accountRepo.deleteById(checking.getAccountId());
+        accountRepo.deleteById(savings.getAccountId());
+        userRepo.delete(owner);
+    }
+
+    @Test
+    void buildsStatementsFromSettledTransfers() throws Exception {
+        JobExecution execution = jobLauncher.run(statementJob, new JobParametersBuilder()
+                .addString(StatementJobConfig.PERIOD_PARAMETER, PERIOD)
+                .addString("test.run", UUID.randomUUID().toString())
+                .toJobParameters());
+
+        assertEquals(BatchStatus.COMPLETED, execution.getStatus());
+
+        Statement checkingStatement = statementRepo
+                .findByAccountIdAndPeriodStart(checking.getAccountId(), LocalDate.of(2001, 3, 1)).orElseThrow();
+        assertEquals(Money.parse("100.00"), checkingStatement.getOpeningBalance());
+        assertEquals(Money.parse("70.00"), checkingStatement.getClosingBalance());
+        assertEquals(Money.parse("30.00"), checkingStatement.getTotalDebits());
+        assertEquals(Money.ZERO, checkingStatement.getTotalCredits());
+        assertEquals(1, checkingStatement.getDebitCount());
+
+        Statement savingsStatement = statementRepo
+                .findByAccountIdAndPeriodStart(savings.getAccountId(), LocalDate.of(2001, 3, 1)).orElseThrow();
+        assertEquals(Money.ZERO, savingsStatement.getOpeningBalance());
+        assertEquals(Money.parse("30.00"), savingsStatement.getClosingBalance());
+        assertEquals(1, savingsStatement.getCreditCount());
+
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir"), "sbs-statements"))) {
+            String csv = files.filter(f -> f.getFileName().toString().startsWith("statements-" + PERIOD))
+                    .map(this::read)
+                    .reduce("", String::concat);
+            assertTrue(csv.contains("STMT001"));
+            assertTrue(csv.contains("STMT002"));
+        }
+    }
+
+    private void insertTransfer(Account from, Account to, String amount, String status,
+                                LocalDateTime createdAt, LocalDateTime settledAt) {
+        jdbcTemplate.update("INSERT INTO transactions (sender_id, sender_acc, receiver_acc, transaction_type, amount, " +
+                        "created_time, settled_time, status, version) VALUES (?, ?, ?, 'TRANSFER', ?, ?, ?, ?, 0)",
+                owner.getUserId(), from.getAccountId(), to.getAccountId(), new BigDecimal(amount),
+                Timestamp.valueOf(createdAt), settledAt != null ? Timestamp.valueOf(settledAt) : null, status);
+    }
+
+    private String read(Path file) {
+        try {
+            return Files.readString(file);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
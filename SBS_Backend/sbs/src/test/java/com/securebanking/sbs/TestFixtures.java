@@ -0,0 +1,84 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.infrastructure.repository.AccountRepo;
+import com.securebanking.sbs.infrastructure.repository.UserRepo;
+import com.securebanking.sbs.infrastructure.repository.UserRoleRepo;
+import com.securebanking.sbs.modules.customer.model.Account;
+import com.securebanking.sbs.shared.model.Money;
+import com.securebanking.sbs.shared.model.User;
+import com.securebanking.sbs.shared.model.UserRole;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+
+/**
+ * Users and accounts for tests that run against the database; pull it in with
+ * {@code @Import(TestFixtures.class)}. Role ids follow ApprovalWorkflowService.isApproverRole:
+ * 1 is Admin and approves, 2 is an ordinary customer. Callers delete what they create.
+ */
+@TestComponent
+public class TestFixtures {
+
+    public static final int ADMIN_ROLE_ID = 1;
+    public static final int CUSTOMER_ROLE_ID = 2;
+
+    @Autowired
+    private UserRoleRepo userRoleRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private AccountRepo accountRepo;
+
+    public User customer(String username) {
+        return user(username, role(CUSTOMER_ROLE_ID, "ExternalUser"));
+    }
+
+    public User admin(String username) {
+        return user(username, role(ADMIN_ROLE_ID, "Admin"));
+    }
+
+    /**
+     * A saved checking account.
+     */
+    public Account account(User owner, String number, String balance) {
+        return accountRepo.save(newAccount(owner, number, balance));
+    }
+
+    /**
+     * An unsaved checking account, for tests that set more on it first.
+     */
+    public Account newAccount(User owner, String number, String balance) {
+        Account account = new Account();
+        account.setAccountNumber(number);
+        account.setAccountType("Checking");
+        account.setBalance(Money.parse(balance));
+        account.setUser(owner);
+        account.setStatus("Active");
+        return account;
+    }
+
+    // Reuses the row when the database already has the role
+    private UserRole role(int roleId, String roleName) {
+        return userRoleRepo.findById(roleId).orElseGet(() -> {
+            UserRole role = new UserRole();
+            role.setRoleId(roleId);
+            role.setRoleName(roleName);
+            return userRoleRepo.save(role);
+        });
+    }
+
+    private User user(String username, UserRole role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPasswordHash("unused");
+        user.setFirstName("Test");
+        user.setLastName(username);
+        user.setEmailAddress(username + "@test.com");
+        user.setPhoneNumber("5550000000");
+        user.setAddress("1 Test Street");
+        user.setStatus("Active");
+        user.setRole(role);
+        return userRepo.save(user);
+    }
+}
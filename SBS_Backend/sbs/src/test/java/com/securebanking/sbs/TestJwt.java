@@ -0,0 +1,53 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.core.security.JwtAuthenticationFilter;
+import com.securebanking.sbs.core.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * A JwtUtil wired by hand for unit tests, signing with the same key as application.properties,
+ * and a way to call a controller method behind the JWT filter without starting the application.
+ */
+final class TestJwt {
+
+    static final String SECRET = "lcft1vbW2P06txh4+AxBi80+czj6r5Nw8f+qayQZyZE=";
+
+    private TestJwt() {
+    }
+
+    static JwtUtil jwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expirationTime", 60000);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheSize", 100L);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    /**
+     * Runs the call behind the JWT filter, the way a request reaches the controller. A null
+     * token sends the request without an Authorization header.
+     */
+    static ResponseEntity<?> callAs(JwtUtil jwtUtil, String token, String path,
+                                    Supplier<ResponseEntity<?>> call) throws Exception {
+        // Spring Security clears this between requests; here each call stands in for a request
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        AtomicReference<ResponseEntity<?>> response = new AtomicReference<>();
+        new JwtAuthenticationFilter(jwtUtil).doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> response.set(call.get()));
+        return response.get();
+    }
+}
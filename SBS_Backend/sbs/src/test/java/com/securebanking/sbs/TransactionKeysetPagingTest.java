@@ -0,0 +1,101 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.core.util.TransactionCursor;
+import com.securebanking.sbs.infrastructure.repository.TransactionRepo;
+import com.securebanking.sbs.infrastructure.service.TransactionService;
+import com.securebanking.sbs.modules.customer.model.Transaction;
+import com.securebanking.sbs.shared.dto.TransactionDto;
+import com.securebanking.sbs.shared.dto.TransactionPageDto;
+import com.securebanking.sbs.shared.enums.RequestStatus;
+import com.securebanking.sbs.shared.model.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// The repository is a mock; these cover how pages are cut and how the cursor carries the position
+public class TransactionKeysetPagingTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123456000);
+
+    private TransactionRepo transactionRepo;
+    private TransactionService transactionService;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepo = mock(TransactionRepo.class);
+        transactionService = new TransactionService();
+        ReflectionTestUtils.setField(transactionService, "transactionRepo", transactionRepo);
+    }
+
+    @Test
+    void cursorRoundTripsItsPosition() {
+        TransactionCursor decoded = TransactionCursor.decode(new TransactionCursor(NOON, 42).encode());
+
+        assertEquals(NOON, decoded.getCreatedtime());
+        assertEquals(42, decoded.getTransactionId());
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(
+                new TransactionCursor(NOON, 1).encode().substring(4)));
+    }
+
+    @Test
+    void nextCursorPointsAtTheLastRowOfThePage() {
+        when(transactionRepo.findAllPage(PageRequest.of(0, 3)))
+                .thenReturn(List.of(transaction(9, NOON), transaction(8, NOON), transaction(7, NOON.minusMinutes(1))));
+
+        TransactionPageDto first = transactionService.getAllTransactionsPage(null, 2);
+
+        assertEquals(List.of(9L, 8L), ids(first));
+        assertTrue(first.isHasMore());
+        TransactionCursor position = TransactionCursor.decode(first.getNextCursor());
+        assertEquals(NOON, position.getCreatedtime());
+        assertEquals(8, position.getTransactionId());
+
+        // Same timestamp as the cursor row: the id breaks the tie
+        when(transactionRepo.findAllPageAfter(NOON, 8, PageRequest.of(0, 3)))
+                .thenReturn(List.of(transaction(7, NOON.minusMinutes(1))));
+
+        TransactionPageDto second = transactionService.getAllTransactionsPage(first.getNextCursor(), 2);
+
+        assertEquals(List.of(7L), ids(second));
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void pageSizeIsDefaultedAndCapped() {
+        when(transactionRepo.findHistoryPage(any(), any())).thenReturn(List.of());
+
+        transactionService.getTransactionHistoryPage(5, null, null);
+        transactionService.getTransactionHistoryPage(5, "", 10_000);
+
+        verify(transactionRepo).findHistoryPage(5, PageRequest.of(0, 51));
+        verify(transactionRepo).findHistoryPage(5, PageRequest.of(0, 501));
+    }
+
+    private static List<Long> ids(TransactionPageDto page) {
+        return page.getTransactions().stream().map(TransactionDto::getTransactionId).toList();
+    }
+
+    private static Transaction transaction(int id, LocalDateTime createdtime) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(id);
+        transaction.setTransactionType("CREDIT");
+        transaction.setAmount(Money.parse("10.00"));
+        transaction.setStatus(RequestStatus.APPROVED);
+        transaction.setCreatedtime(createdtime);
+        return transaction;
+    }
+}
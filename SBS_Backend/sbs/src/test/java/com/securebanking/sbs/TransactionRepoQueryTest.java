@@ -0,0 +1,129 @@
+package com.securebanking.sbs;
+
+import com.securebanking.sbs.infrastructure.repository.TransactionRepo;
+import com.securebanking.sbs.modules.customer.model.Account;
+import com.securebanking.sbs.modules.customer.model.Transaction;
+import com.securebanking.sbs.shared.enums.RequestStatus;
+import com.securebanking.sbs.shared.model.Money;
+import com.securebanking.sbs.shared.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The per-user and per-account finders filter and order in the database, on the indexed columns
+@SpringBootTest
+@Import(TestFixtures.class)
+@ActiveProfiles("test")
+@Transactional
+public class TransactionRepoQueryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 15, 12, 0);
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TransactionRepo transactionRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private User alice;
+    private Account aliceAccount;
+    private Account bobAccount;
+    private Transaction old;
+    private Transaction recentPending;
+    private Transaction latestCompleted;
+    private Transaction bobToAlice;
+
+    @BeforeEach
+    void setUp() {
+        alice = fixtures.customer("repoquery-alice");
+        User bob = fixtures.customer("repoquery-bob");
+        aliceAccount = fixtures.account(alice, "RQ-ALICE", "500.00");
+        bobAccount = fixtures.account(bob, "RQ-BOB", "500.00");
+
+        old = transfer(alice, aliceAccount, bobAccount, RequestStatus.COMPLETED, NOW.minusDays(40));
+        recentPending = transfer(alice, aliceAccount, bobAccount, RequestStatus.PENDING, NOW.minusDays(2));
+        latestCompleted = transfer(alice, aliceAccount, bobAccount, RequestStatus.COMPLETED, NOW.minusHours(1));
+        bobToAlice = transfer(bob, bobAccount, aliceAccount, RequestStatus.COMPLETED, NOW.minusDays(1));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void historyHoldsOnlyTheSendersTransactionsNewestFirst() {
+        assertEquals(List.of(latestCompleted.getTransactionId(), recentPending.getTransactionId(), old.getTransactionId()),
+                ids(transactionRepo.findByUserIdOrderByCreatedtimeDesc(alice.getUserId())));
+    }
+
+    @Test
+    void recentWindowExcludesOlderTransactions() {
+        LocalDateTime since = NOW.minusDays(30);
+
+        assertEquals(List.of(latestCompleted.getTransactionId(), recentPending.getTransactionId()),
+                ids(transactionRepo.findByUserIdAndCreatedtimeAfterOrderByCreatedtimeDesc(alice.getUserId(), since)));
+        assertEquals(2, transactionRepo.countByUserIdAndCreatedtimeAfter(alice.getUserId(), since));
+    }
+
+    @Test
+    void statusFilterKeepsOnlyThatStatus() {
+        assertEquals(List.of(recentPending.getTransactionId()),
+                ids(transactionRepo.findByUserIdAndStatusOrderByCreatedtimeDesc(alice.getUserId(), RequestStatus.PENDING)));
+    }
+
+    @Test
+    void accountActivityCoversBothSidesOfATransfer() {
+        assertEquals(List.of(latestCompleted.getTransactionId(), bobToAlice.getTransactionId(), recentPending.getTransactionId()),
+                ids(transactionRepo.findByAccountIdAndCreatedtimeAfterOrderByCreatedtimeDesc(
+                        aliceAccount.getAccountId(), NOW.minusDays(30))));
+    }
+
+    @Test
+    void indexesAreBuiltOnThePhysicalColumns() {
+        assertIndexOn("idx_transactions_sender_created", "(sender_id, created_time)");
+        assertIndexOn("idx_transactions_sender_status_created", "(sender_id, status, created_time)");
+        assertIndexOn("idx_transactions_sender_acc_created", "(sender_acc, created_time)");
+        assertIndexOn("idx_transactions_receiver_acc_created", "(receiver_acc, created_time)");
+        assertIndexOn("idx_transactions_created_id", "(created_time, transaction_id)");
+    }
+
+    private void assertIndexOn(String index, String columns) {
+        List<String> definitions = jdbcTemplate.queryForList(
+                "SELECT indexdef FROM pg_indexes WHERE tablename = 'transactions' AND indexname = ?", String.class, index);
+        assertEquals(1, definitions.size(), index);
+        assertTrue(definitions.get(0).endsWith(columns), definitions.get(0));
+    }
+
+    private Transaction transfer(User sender, Account from, Account to, RequestStatus status, LocalDateTime createdAt) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(sender);
+        transaction.setSenderAcc(from);
+        transaction.setReceiverAcc(to);
+        transaction.setTransactionType("TRANSFER_FUNDS");
+        transaction.setAmount(Money.parse("1.00"));
+        transaction.setStatus(status);
+        transaction.setCreatedtime(createdAt);
+        return transactionRepo.save(transaction);
+    }
+
+    private static List<Integer> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getTransactionId).toList();
+    }
+}
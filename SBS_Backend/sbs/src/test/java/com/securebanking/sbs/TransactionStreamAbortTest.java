@@ -0,0 +1,64 @@
+package com.securebanking.sbs;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.securebanking.sbs.infrastructure.controller.TransactionController;
+import com.securebanking.sbs.infrastructure.service.TransactionService;
+import com.securebanking.sbs.shared.dto.TransactionDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// The database cursor fails after the first row; the body must fail rather than close the JSON
+public class TransactionStreamAbortTest {
+
+    private TransactionController controller;
+
+    @BeforeEach
+    void setUp() {
+        TransactionService transactionService = mock(TransactionService.class);
+        when(transactionService.streamAllTransactions(any())).thenAnswer(invocation -> {
+            TransactionDto first = new TransactionDto();
+            first.setTransactionId(1L);
+            invocation.<Consumer<TransactionDto>>getArgument(0).accept(first);
+            throw new DataAccessResourceFailureException("connection reset");
+        });
+        controller = new TransactionController();
+        ReflectionTestUtils.setField(controller, "transactionService", transactionService);
+        ReflectionTestUtils.setField(controller, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void failedListIsNotClosedOff() {
+        String written = writeBody(controller.getAllTransactions(null, null));
+
+        assertFalse(written.contains("\"count\""), written);
+        // A truncated document, never a well-formed list that is missing rows
+        assertThrows(JsonProcessingException.class, () -> new ObjectMapper().readTree(written));
+    }
+
+    @Test
+    void failedExportIsAborted() {
+        writeBody(controller.exportAllTransactions());
+    }
+
+    private static String writeBody(ResponseEntity<?> response) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IllegalStateException aborted = assertThrows(IllegalStateException.class,
+                () -> ((StreamingResponseBody) response.getBody()).writeTo(out));
+        assertInstanceOf(DataAccessResourceFailureException.class, aborted.getCause());
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
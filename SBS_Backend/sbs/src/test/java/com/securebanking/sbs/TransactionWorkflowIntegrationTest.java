@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.securebanking.sbs.modules.customer.model.Transaction;
 import com.securebanking.sbs.shared.dto.LoginDto;
 import com.securebanking.sbs.shared.dto.UserDto;
+import com.securebanking.sbs.shared.model.Money;
 import com.securebanking.sbs.shared.model.User;
 import com.securebanking.sbs.infrastructure.repository.TransactionRepo;
 import com.securebanking.sbs.infrastructure.repository.UserRepo;
@@ -24,7 +25,8 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
-import java.math.BigDecimal;
+import jakarta.servlet.Filter;
+
 import java.util.List;
 import java.util.Map;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -67,7 +69,10 @@ public class TransactionWorkflowIntegrationTest {
 
     @BeforeEach
     void setUp() throws Exception {
-        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        // The security chain puts the token's caller in the context; approval endpoints read it from there
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .addFilters(webApplicationContext.getBean("springSecurityFilterChain", Filter.class))
+                .build();
         
         // Create test users and accounts
         setupTestData();
@@ -79,18 +84,18 @@ public class TransactionWorkflowIntegrationTest {
 
     private void setupTestData() {
         // Create or get customer role
-        UserRole customerRole = userRoleRepo.findById(1).orElseGet(() -> {
+        UserRole customerRole = userRoleRepo.findById(TestFixtures.CUSTOMER_ROLE_ID).orElseGet(() -> {
             UserRole role = new UserRole();
-            role.setRoleId(1);
-            role.setRoleName("CUSTOMER");
+            role.setRoleId(TestFixtures.CUSTOMER_ROLE_ID);
+            role.setRoleName("ExternalUser");
             return userRoleRepo.save(role);
         });
 
-        // Create or get admin role
-        UserRole adminRole = userRoleRepo.findById(4).orElseGet(() -> {
+        // Create or get admin role; approvers are recognised by role id from the token
+        UserRole adminRole = userRoleRepo.findById(TestFixtures.ADMIN_ROLE_ID).orElseGet(() -> {
             UserRole role = new UserRole();
-            role.setRoleId(4);
-            role.setRoleName("ADMIN");
+            role.setRoleId(TestFixtures.ADMIN_ROLE_ID);
+            role.setRoleName("Admin");
             return userRoleRepo.save(role);
         });
 
@@ -131,7 +136,7 @@ public class TransactionWorkflowIntegrationTest {
         senderAccount = new Account();
         senderAccount.setAccountNumber("ACC001");
         senderAccount.setAccountType("Checking");
-        senderAccount.setBalance("1000.00");
+        senderAccount.setBalance(Money.parse("1000.00"));
         senderAccount.setUser(customerUser);
         senderAccount.setStatus("Active");
         senderAccount = accountRepo.save(senderAccount);
@@ -139,7 +144,7 @@ public class TransactionWorkflowIntegrationTest {
         receiverAccount = new Account();
         receiverAccount.setAccountNumber("ACC002");
         receiverAccount.setAccountType("Savings");
-        receiverAccount.setBalance("500.00");
+        receiverAccount.setBalance(Money.parse("500.00"));
         receiverAccount.setUser(customerUser);
         receiverAccount.setStatus("Active");
         receiverAccount = accountRepo.save(receiverAccount);
@@ -185,7 +190,7 @@ public class TransactionWorkflowIntegrationTest {
         System.out.println("Transaction request response: " + transactionResponse);
 
         // Step 2: Verify transaction is created in database with PENDING status
-        List<Transaction> pendingTransactions = transactionRepo.findByStatusOrderByCreatedtimeDesc("PENDING");
+        List<Transaction> pendingTransactions = transactionRepo.findByStatusOrderByCreatedtimeDesc(RequestStatus.PENDING);
         assertFalse(pendingTransactions.isEmpty(), "Should have pending transactions");
         
         Transaction createdTransaction = pendingTransactions.stream()
@@ -193,8 +198,8 @@ public class TransactionWorkflowIntegrationTest {
                 .findFirst()
                 .orElseThrow(() -> new AssertionError("Transaction not found in database"));
         
-        assertEquals("PENDING", createdTransaction.getStatus());
-        assertEquals("100.00", createdTransaction.getAmount());
+        assertEquals(RequestStatus.PENDING, createdTransaction.getStatus());
+        assertEquals(Money.parse("100.00"), createdTransaction.getAmount());
         assertEquals("TransferFunds", createdTransaction.getTransactionType());
 
         // Step 3: Admin views pending transactions
@@ -232,21 +237,21 @@ public class TransactionWorkflowIntegrationTest {
 
         // Step 5: Verify transaction status is updated to APPROVED
         Transaction approvedTransaction = transactionRepo.findById(createdTransaction.getTransactionId()).orElseThrow();
-        assertEquals("APPROVED", approvedTransaction.getStatus());
+        assertEquals(RequestStatus.APPROVED, approvedTransaction.getStatus());
 
         // Step 6: Verify account balances are updated
         Account updatedSenderAccount = accountRepo.findById(senderAccount.getAccountId()).orElseThrow();
         Account updatedReceiverAccount = accountRepo.findById(receiverAccount.getAccountId()).orElseThrow();
 
-        BigDecimal senderBalance = new BigDecimal(updatedSenderAccount.getBalance());
-        BigDecimal receiverBalance = new BigDecimal(updatedReceiverAccount.getBalance());
-        BigDecimal originalSenderBalance = new BigDecimal("1000.00");
-        BigDecimal originalReceiverBalance = new BigDecimal("500.00");
-        BigDecimal transferAmount = new BigDecimal("100.00");
+        Money senderBalance = updatedSenderAccount.getBalance();
+        Money receiverBalance = updatedReceiverAccount.getBalance();
+        Money originalSenderBalance = Money.parse("1000.00");
+        Money originalReceiverBalance = Money.parse("500.00");
+        Money transferAmount = Money.parse("100.00");
 
-        assertEquals(originalSenderBalance.subtract(transferAmount), senderBalance, 
+        assertEquals(originalSenderBalance.minus(transferAmount), senderBalance, 
                 "Sender account balance should be reduced by transfer amount");
-        assertEquals(originalReceiverBalance.add(transferAmount), receiverBalance, 
+        assertEquals(originalReceiverBalance.plus(transferAmount), receiverBalance, 
                 "Receiver account balance should be increased by transfer amount");
 
         // Step 7: Customer views transaction history and sees completed transaction
@@ -289,9 +294,9 @@ public class TransactionWorkflowIntegrationTest {
                 .andExpect(status().isOk());
 
         // Step 2: Find the created transaction
-        List<Transaction> pendingTransactions = transactionRepo.findByStatusOrderByCreatedtimeDesc("PENDING");
+        List<Transaction> pendingTransactions = transactionRepo.findByStatusOrderByCreatedtimeDesc(RequestStatus.PENDING);
         Transaction createdTransaction = pendingTransactions.stream()
-                .filter(t -> t.getAmount().equals("2000.00"))
+                .filter(t -> Money.parse("2000.00").equals(t.getAmount()))
                 .findFirst()
                 .orElseThrow(() -> new AssertionError("Transaction not found"));
 
@@ -306,15 +311,15 @@ public class TransactionWorkflowIntegrationTest {
 
         // Step 4: Verify transaction status is updated to REJECTED
         Transaction rejectedTransaction = transactionRepo.findById(createdTransaction.getTransactionId()).orElseThrow();
-        assertEquals("REJECTED", rejectedTransaction.getStatus());
+        assertEquals(RequestStatus.REJECTED, rejectedTransaction.getStatus());
 
         // Step 5: Verify account balances are NOT changed
         Account unchangedSenderAccount = accountRepo.findById(senderAccount.getAccountId()).orElseThrow();
         Account unchangedReceiverAccount = accountRepo.findById(receiverAccount.getAccountId()).orElseThrow();
 
-        assertEquals("1000.00", unchangedSenderAccount.getBalance(), 
+        assertEquals(Money.parse("1000.00"), unchangedSenderAccount.getBalance(), 
                 "Sender account balance should remain unchanged");
-        assertEquals("500.00", unchangedReceiverAccount.getBalance(), 
+        assertEquals(Money.parse("500.00"), unchangedReceiverAccount.getBalance(), 
                 "Receiver account balance should remain unchanged");
     }
 
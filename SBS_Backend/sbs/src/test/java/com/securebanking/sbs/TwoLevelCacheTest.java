@@ -0,0 +1,145 @@
+package com.securebanking.sbs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.securebanking.sbs.core.cache.RedisCacheInvalidation;
+import com.securebanking.sbs.core.cache.TwoLevelCache;
+import com.securebanking.sbs.shared.dto.UserDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two cache "nodes" sharing a map-backed stand-in for Redis, whose pub/sub delivers every
+ * message to both nodes the way a real channel would.
+ */
+public class TwoLevelCacheTest {
+
+    private static final String CHANNEL = "sbs:cache:invalidation";
+
+    private final Map<String, String> redisValues = new ConcurrentHashMap<>();
+    private final List<RedisCacheInvalidation> subscribers = new CopyOnWriteArrayList<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.get(anyString())).thenAnswer(call -> redisValues.get(call.getArgument(0, String.class)));
+        doAnswer(call -> redisValues.put(call.getArgument(0), call.getArgument(1)))
+                .when(values).set(anyString(), anyString(), any(Duration.class));
+        when(values.multiGet(anyList())).thenAnswer(call ->
+                call.<List<String>>getArgument(0).stream().map(redisValues::get).toList());
+        // EVICT: delete the value and bump its version
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any())).thenAnswer(call -> {
+            List<String> keys = call.getArgument(1);
+            redisValues.remove(keys.get(0));
+            redisValues.merge(keys.get(1), "1", (version, one) -> String.valueOf(Long.parseLong(version) + 1));
+            return 1L;
+        });
+        // WRITE_IF_UNCHANGED: set the value only if the version is the one the loader read
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any())).thenAnswer(call -> {
+            List<String> keys = call.getArgument(1);
+            if (!redisValues.getOrDefault(keys.get(1), "").equals(call.getArgument(2))) {
+                return 0L;
+            }
+            redisValues.put(keys.get(0), call.getArgument(3));
+            return 1L;
+        });
+        when(redisTemplate.convertAndSend(anyString(), any())).thenAnswer(call -> {
+            byte[] body = call.getArgument(1, String.class).getBytes(StandardCharsets.UTF_8);
+            subscribers.forEach(subscriber ->
+                    subscriber.onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body), null));
+            return (long) subscribers.size();
+        });
+    }
+
+    @Test
+    void secondNodeIsServedFromRedisWithoutLoading() {
+        TwoLevelCache nodeA = node();
+        TwoLevelCache nodeB = node();
+        AtomicInteger loads = new AtomicInteger();
+
+        UserDto loaded = nodeA.get(7, () -> {
+            loads.incrementAndGet();
+            return user(7, "Active");
+        });
+        UserDto shared = nodeB.get(7, () -> {
+            loads.incrementAndGet();
+            return user(7, "Active");
+        });
+
+        assertEquals(1, loads.get());
+        assertEquals(loaded.getUsername(), shared.getUsername());
+        assertTrue(redisValues.containsKey("sbs:cache:userProfiles:7"));
+    }
+
+    @Test
+    void evictionOnOneNodeDropsTheOtherNodesLocalCopy() {
+        TwoLevelCache nodeA = node();
+        TwoLevelCache nodeB = node();
+        nodeA.put(7, user(7, "Active"));
+        assertEquals("Active", ((UserDto) nodeB.get(7).get()).getStatus());
+
+        nodeA.evict(7);
+
+        assertNull(nodeB.getLocalCache().getIfPresent("7"));
+        assertNull(nodeB.get(7));
+        assertFalse(redisValues.containsKey("sbs:cache:userProfiles:7"));
+    }
+
+    @Test
+    void evictionDuringALoadKeepsTheStaleValueOutOfRedis() {
+        TwoLevelCache nodeA = node();
+        TwoLevelCache nodeB = node();
+
+        // Node A reads the old row; node B updates it and evicts before A's load returns
+        UserDto stale = nodeA.get(7, () -> {
+            nodeB.evict(7);
+            return user(7, "Active");
+        });
+
+        assertEquals("Active", stale.getStatus());
+        assertFalse(redisValues.containsKey("sbs:cache:userProfiles:7"));
+        UserDto fresh = nodeB.get(7, () -> user(7, "Suspended"));
+        assertEquals("Suspended", fresh.getStatus());
+    }
+
+    private TwoLevelCache node() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RedisCacheInvalidation invalidation = new RedisCacheInvalidation(redisTemplate, CHANNEL, meterRegistry);
+        subscribers.add(invalidation);
+        return new TwoLevelCache("userProfiles", Caffeine.newBuilder().maximumSize(100).build(), redisTemplate,
+                objectMapper, objectMapper.constructType(UserDto.class), Duration.ofMinutes(10), "sbs:cache:",
+                invalidation, meterRegistry);
+    }
+
+    private static UserDto user(Integer userId, String status) {
+        UserDto user = new UserDto();
+        user.setUserId(userId);
+        user.setUsername("user" + userId);
+        user.setStatus(status);
+        return user;
+    }
+}
@@ -0,0 +1,39 @@
+#!/bin/bash
+# Runs load-test.js against the backend in platform-thread and virtual-thread mode and
+# prints the RESULT line of each run. Needs a Java 21 runtime, a built jar and the usual
+# datasource environment variables.
+#
+#   CONCURRENT_USERS=1000 bash tests/load/compare-threading.sh
+
+set -euo pipefail
+
+ROOT_DIR="$(cd "$(dirname "$0")/../.." && pwd)"
+JAR="${JAR:-$ROOT_DIR/SBS_Backend/sbs/target/sbs-0.0.1-SNAPSHOT.jar}"
+PORT="${PORT:-8081}"
+export CONCURRENT_USERS="${CONCURRENT_USERS:-1000}"
+export BASE_URL="http://localhost:$PORT/api/v1"
+
+run_mode() {
+    local mode="$1" profiles="$2"
+    echo "=== $mode threads (profiles: $profiles) ==="
+    java -Djdk.tracePinnedThreads=short -jar "$JAR" \
+        --server.port="$PORT" --spring.profiles.active="$profiles" > "/tmp/sbs-$mode.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+
+    for _ in $(seq 1 60); do
+        curl -sf "http://localhost:$PORT/actuator/health" > /dev/null && break
+        sleep 2
+    done
+
+    MODE="$mode" node "$ROOT_DIR/tests/load/load-test.js" | grep '^RESULT'
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+
+    # Stack traces of virtual threads that blocked while pinned to their carrier
+    grep -c "<== monitors" "/tmp/sbs-$mode.log" | sed "s/^/pinned-thread events: /" || true
+}
+
+run_mode platform loadtest
+run_mode virtual loadtest,virtual-threads
@@ -1,9 +1,10 @@
 const axios = require('axios');
 
 // Configuration
-const BASE_URL = 'http://localhost:8081/api/v1';
-const CONCURRENT_USERS = 100;
+const BASE_URL = process.env.BASE_URL || 'http://localhost:8081/api/v1';
+const CONCURRENT_USERS = parseInt(process.env.CONCURRENT_USERS || '100', 10);
 const TEST_DURATION = 60000; // 1 minute
+const MODE = process.env.MODE || 'default';
 
 // Test data - using real users from database with password123
 const testUsers = [
@@ -55,7 +56,7 @@ async function simulateUserLogin(userIndex) {
 
 // Simulate concurrent users
 async function runLoadTest() {
-    console.log(`🚀 Starting load test with ${CONCURRENT_USERS} concurrent users...`);
+    console.log(`🚀 Starting load test with ${CONCURRENT_USERS} concurrent users (${MODE} threads)...`);
     console.log(`⏱️  Test duration: ${TEST_DURATION / 1000} seconds`);
     console.log('='.repeat(60));
     
@@ -98,6 +99,7 @@ async function runLoadTest() {
     console.log(`Min Response Time: ${minResponseTime}ms`);
     console.log(`Max Response Time: ${maxResponseTime}ms`);
     console.log(`Test Duration: ${testDuration}ms`);
+    console.log(`RESULT mode=${MODE} users=${CONCURRENT_USERS} success=${successRate.toFixed(2)}% rps=${requestsPerSecond.toFixed(2)} avg=${avgResponseTime.toFixed(2)}ms max=${maxResponseTime}ms`);
     
     // Performance assessment
     console.log('\n🎯 PERFORMANCE ASSESSMENT');